@@ -0,0 +1,108 @@
+package com.provider.service.admin;
+
+import com.provider.service.repository.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Set-based versions of the admin's per-user verify and status endpoints. Each call reads the
+ * requested users with one query, decides an {@link Outcome} per id, and applies the change to
+ * every eligible user with a single UPDATE, all in one transaction. The UPDATE repeats the role
+ * checks, so a user whose role changed in between is skipped rather than updated wrongly; when it
+ * updates fewer rows than decided, the users are read again and those it left out are reported
+ * as {@code SKIPPED}.
+ *
+ * Cache invalidation and events are left to the caller, to run once per call after the commit.
+ */
+@Component
+public class BulkUserUpdates {
+
+    public enum Outcome { UPDATED, UNCHANGED, SKIPPED, NOT_FOUND, NOT_A_PROVIDER, ADMIN_PROTECTED }
+
+    /** Outcome per requested id (in request order) and the pre-update rows of the users that changed. */
+    public record Result(Map<Long, Outcome> outcomes, List<UserStatusRow> changed) {
+
+        public Set<Long> changedIds() {
+            Set<Long> ids = new LinkedHashSet<>();
+            changed.forEach(r -> ids.add(r.id()));
+            return ids;
+        }
+    }
+
+    private final UserRepository userRepository;
+
+    public BulkUserUpdates(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Transactional
+    public Result verifyProviders(Collection<Long> ids) {
+        return apply(ids, true,
+                r -> "active".equals(r.status()) && "verified".equals(r.status1()),
+                userRepository::verifyProviders);
+    }
+
+    @Transactional
+    public Result updateStatus(Collection<Long> ids, String status) {
+        return apply(ids, false,
+                r -> Objects.equals(status, r.status()),
+                changed -> userRepository.updateStatus(changed, status));
+    }
+
+    @Transactional
+    public Result updateStatus1(Collection<Long> ids, String status1) {
+        return apply(ids, false,
+                r -> Objects.equals(status1, r.status1()),
+                changed -> userRepository.updateStatus1(changed, status1));
+    }
+
+    private Result apply(Collection<Long> ids, boolean providersOnly, Predicate<UserStatusRow> alreadyDone,
+                         Function<Collection<Long>, Integer> update) {
+        Map<Long, UserStatusRow> rows = new LinkedHashMap<>();
+        for (UserStatusRow r : userRepository.findStatusRowsByIdIn(ids)) rows.put(r.id(), r);
+
+        Map<Long, Outcome> outcomes = new LinkedHashMap<>();
+        List<UserStatusRow> changed = new ArrayList<>();
+        for (Long id : ids) {
+            if (outcomes.containsKey(id)) continue;
+            UserStatusRow r = rows.get(id);
+            Outcome outcome;
+            if (r == null) outcome = Outcome.NOT_FOUND;
+            else if (r.isAdmin()) outcome = Outcome.ADMIN_PROTECTED;
+            else if (providersOnly && !r.isProvider()) outcome = Outcome.NOT_A_PROVIDER;
+            else if (alreadyDone.test(r)) outcome = Outcome.UNCHANGED;
+            else {
+                outcome = Outcome.UPDATED;
+                changed.add(r);
+            }
+            outcomes.put(id, outcome);
+        }
+        if (changed.isEmpty()) return new Result(outcomes, changed);
+
+        List<Long> changedIds = changed.stream().map(UserStatusRow::id).toList();
+        if (update.apply(changedIds) < changedIds.size()) {
+            // a concurrent role change or delete kept some rows out of the UPDATE: find which
+            Map<Long, UserStatusRow> now = new LinkedHashMap<>();
+            for (UserStatusRow r : userRepository.findStatusRowsByIdIn(changedIds)) now.put(r.id(), r);
+            changed.removeIf(r -> {
+                UserStatusRow current = now.get(r.id());
+                boolean applied = current != null && !current.isAdmin() && (!providersOnly || current.isProvider())
+                        && alreadyDone.test(current);
+                if (!applied) outcomes.put(r.id(), Outcome.SKIPPED);
+                return !applied;
+            });
+        }
+        return new Result(outcomes, changed);
+    }
+}
@@ -0,0 +1,13 @@
+package com.provider.service.admin;
+
+/** The columns a bulk status change decides on, read for every requested user in one query. */
+public record UserStatusRow(Long id, String role, String status, String status1, String pincode) {
+
+    public boolean isProvider() {
+        return "PROVIDER".equals(role);
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
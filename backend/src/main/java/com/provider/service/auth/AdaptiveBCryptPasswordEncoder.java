@@ -0,0 +1,72 @@
+package com.provider.service.auth;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder whose {@link #upgradeEncoding} reports any hash made with a different cost,
+ * higher or lower, so callers can re-hash on the next successful login after the cost changed.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    // never calibrate below Spring's default cost, and keep logins under a second on slow hosts
+    static final int MIN_CALIBRATED_COST = 10;
+    static final int MAX_CALIBRATED_COST = 14;
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        return cost > 0 && cost != strength;
+    }
+
+    // cost of a "$2a$10$..." hash, or -1 when the value is not a BCrypt hash
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') return -1;
+        int end = encodedPassword.indexOf('$', 1);
+        if (end < 0 || end + 3 > encodedPassword.length() || encodedPassword.charAt(end + 3) != '$') return -1;
+        try {
+            return Integer.parseInt(encodedPassword.substring(end + 1, end + 3));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Highest cost whose hash takes at most {@code targetMillis} on this machine, measured once
+     * at cost {@value #MIN_CALIBRATED_COST} (each extra cost step doubles the work).
+     */
+    public static int calibrate(long targetMillis) {
+        BCrypt.hashpw("warm-up", BCrypt.gensalt(4));
+        String salt = BCrypt.gensalt(MIN_CALIBRATED_COST);
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", salt);
+        double millis = Math.max(1, (System.nanoTime() - start) / 1_000_000d);
+        return costFor(targetMillis, millis);
+    }
+
+    /**
+     * One-off calibration run on a production-like host, e.g.
+     * {@code java -cp <app classpath> com.provider.service.auth.AdaptiveBCryptPasswordEncoder 250};
+     * prints the {@code app.auth.bcrypt.strength} line to put in the application configuration.
+     */
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        System.out.println("app.auth.bcrypt.strength=" + calibrate(targetMillis));
+    }
+
+    static int costFor(long targetMillis, double millisAtMinCost) {
+        int extra = (int) Math.floor(Math.log(targetMillis / millisAtMinCost) / Math.log(2));
+        return Math.max(MIN_CALIBRATED_COST, Math.min(MAX_CALIBRATED_COST, MIN_CALIBRATED_COST + extra));
+    }
+}
@@ -0,0 +1,7 @@
+package com.provider.service.auth;
+
+/**
+ * Claims of a validated login token. Set as the security principal by {@link TokenAuthenticationFilter}.
+ */
+public record AuthPrincipal(Long userId, String email, String role, long issuedAtMillis, long expiresAtMillis, String tokenId) {
+}
@@ -0,0 +1,193 @@
+package com.provider.service.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.provider.service.cache.CacheStats;
+import com.provider.service.cache.LruTtlCache;
+import com.provider.service.dto.UserDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and validates stateless login tokens ({@code <base64url claims>.<base64url HMAC-SHA256>}).
+ *
+ * Validated tokens are cached, so a repeat request skips the signature check and claim parsing;
+ * revocations (logout, or every token of a user after a password or status change) are checked
+ * on every call. Also keeps a cache of user profiles so an authenticated caller can be answered
+ * without loading the user row. Revocations are held in memory and only cover this instance.
+ *
+ * Keyed {@link Mac} instances are pooled like in RazorpaySignatureVerifier; a ThreadLocal would
+ * key a new Mac for almost every request, since with virtual threads each one runs on a fresh thread.
+ */
+@Component
+public class AuthTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthTokenService.class);
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec key;
+    private final long ttlMillis;
+    private final ArrayBlockingQueue<Mac> macs;
+
+    // token -> claims of a token whose signature and expiry were already checked
+    private final LruTtlCache<String, AuthPrincipal> validated;
+    // user id -> profile returned by login, served to later token-authenticated calls
+    private final LruTtlCache<Long, UserDto> profiles;
+    // token id -> expiry of a logged-out token; dropped once the token would have expired anyway
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // user id -> tokens issued at or before this instant are no longer valid
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    public AuthTokenService(ObjectMapper objectMapper,
+                            @Value("${app.auth.token.secret:}") String secret,
+                            @Value("${app.auth.token.ttl-minutes:720}") long ttlMinutes,
+                            @Value("${app.auth.token.cache.max-entries:10000}") int cacheEntries,
+                            @Value("${app.auth.token.cache.ttl-seconds:300}") long cacheTtlSeconds,
+                            @Value("${app.auth.token.mac-pool-size:64}") int macPoolSize) {
+        this.objectMapper = objectMapper;
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            logger.warn("app.auth.token.secret is not set; using a random key, tokens will not survive a restart");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, "HmacSHA256");
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        this.macs = new ArrayBlockingQueue<>(macPoolSize);
+        this.validated = new LruTtlCache<>("authTokens", cacheEntries, Duration.ofSeconds(cacheTtlSeconds));
+        this.profiles = new LruTtlCache<>("authProfiles", cacheEntries, Duration.ofSeconds(cacheTtlSeconds));
+    }
+
+    public String issue(UserDto user) {
+        long now = System.currentTimeMillis();
+        AuthPrincipal principal = new AuthPrincipal(user.getId(), user.getEmail(), user.getRole(),
+                now, now + ttlMillis, UUID.randomUUID().toString());
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", principal.userId());
+        claims.put("email", principal.email());
+        claims.put("role", principal.role());
+        claims.put("iat", principal.issuedAtMillis());
+        claims.put("exp", principal.expiresAtMillis());
+        claims.put("jti", principal.tokenId());
+        String payload;
+        try {
+            payload = B64.encodeToString(objectMapper.writeValueAsBytes(claims));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode token claims", e);
+        }
+        String token = payload + "." + B64.encodeToString(sign(payload));
+        validated.put(token, principal);
+        profiles.put(user.getId(), user);
+        return token;
+    }
+
+    public Optional<AuthPrincipal> authenticate(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+        AuthPrincipal principal = validated.getIfPresent(token);
+        if (principal == null) {
+            principal = verify(token);
+            if (principal == null) return Optional.empty();
+            validated.put(token, principal);
+        }
+        return isCurrent(principal) ? Optional.of(principal) : Optional.empty();
+    }
+
+    public void revoke(String token) {
+        AuthPrincipal principal = verify(token);
+        validated.invalidate(token);
+        if (principal == null) return;
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        revokedTokens.put(principal.tokenId(), principal.expiresAtMillis());
+    }
+
+    // e.g. after a password change or when an admin changes the account status
+    public void revokeAllFor(Long userId) {
+        revokedBefore.put(userId, System.currentTimeMillis());
+        profiles.invalidate(userId);
+    }
+
+    public UserDto cachedProfile(Long userId) {
+        return profiles.getIfPresent(userId);
+    }
+
+    public void rememberProfile(UserDto user) {
+        profiles.put(user.getId(), user);
+    }
+
+    public void forgetProfile(Long userId) {
+        profiles.invalidate(userId);
+    }
+
+    public CacheStats stats() {
+        return validated.stats();
+    }
+
+    private boolean isCurrent(AuthPrincipal principal) {
+        if (principal.expiresAtMillis() <= System.currentTimeMillis()) return false;
+        if (revokedTokens.containsKey(principal.tokenId())) return false;
+        Long cutoff = revokedBefore.get(principal.userId());
+        return cutoff == null || principal.issuedAtMillis() > cutoff;
+    }
+
+    // signature and claims check; null for anything malformed, forged or expired
+    private AuthPrincipal verify(String token) {
+        if (token == null) return null;
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) return null;
+        String payload = token.substring(0, dot);
+        try {
+            byte[] signature = B64D.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) return null;
+            JsonNode claims = objectMapper.readTree(B64D.decode(payload));
+            AuthPrincipal principal = new AuthPrincipal(claims.path("sub").asLong(), claims.path("email").asText(),
+                    claims.path("role").asText(), claims.path("iat").asLong(), claims.path("exp").asLong(),
+                    claims.path("jti").asText());
+            return principal.expiresAtMillis() > System.currentTimeMillis() ? principal : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        Mac mac = macs.poll();
+        if (mac == null) mac = newMac();
+        try {
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } finally {
+            // extra instances created under a burst are simply dropped
+            macs.offer(mac);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.provider.service.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, single-use tickets for endpoints opened by EventSource, which cannot send headers.
+ *
+ * A logged-in client asks for a ticket with its token in a header and passes only the ticket in
+ * the stream URL, so the long-lived login token never shows up in URLs, access logs or browser
+ * history. A ticket is removed when it is redeemed and expires after the configured TTL. Tickets
+ * are held in memory, so one must be redeemed on the instance that issued it.
+ */
+@Component
+public class StreamTickets {
+
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom random = new SecureRandom();
+    private final long ttlMillis;
+    private final int maxOutstanding;
+    // ticket -> holder and expiry of a ticket not redeemed yet
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    public StreamTickets(@Value("${app.auth.stream-ticket.ttl-seconds:30}") long ttlSeconds,
+                         @Value("${app.auth.stream-ticket.max-outstanding:20000}") int maxOutstanding) {
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    /** A new ticket for {@code principal}, or null when too many tickets are outstanding. */
+    public String issue(AuthPrincipal principal) {
+        long now = System.currentTimeMillis();
+        if (tickets.size() >= maxOutstanding) {
+            tickets.values().removeIf(t -> t.expiresAtMillis() <= now);
+            if (tickets.size() >= maxOutstanding) return null;
+        }
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String ticket = B64.encodeToString(bytes);
+        tickets.put(ticket, new Ticket(principal, now + ttlMillis));
+        return ticket;
+    }
+
+    /** The holder of an unexpired ticket; a ticket can be redeemed once. */
+    public AuthPrincipal redeem(String ticket) {
+        if (ticket == null || ticket.isBlank()) return null;
+        Ticket t = tickets.remove(ticket);
+        if (t == null || t.expiresAtMillis() <= System.currentTimeMillis()) return null;
+        return t.principal();
+    }
+
+    public long ttlSeconds() {
+        return Duration.ofMillis(ttlMillis).toSeconds();
+    }
+
+    private record Ticket(AuthPrincipal principal, long expiresAtMillis) {}
+}
@@ -0,0 +1,53 @@
+package com.provider.service.auth;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying a login token in {@code X-Auth-Token} or {@code Authorization: Bearer}.
+ * The principal is an {@link AuthPrincipal} and the credentials are the token itself. Requests
+ * without a valid token continue anonymously.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String TOKEN_HEADER = "X-Auth-Token";
+
+    private final AuthTokenService tokens;
+
+    public TokenAuthenticationFilter(AuthTokenService tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = tokenOf(request);
+        if (token != null) {
+            tokens.authenticate(token).ifPresent(principal -> {
+                var authentication = new UsernamePasswordAuthenticationToken(principal, token,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            });
+        }
+        chain.doFilter(request, response);
+    }
+
+    public static String tokenOf(HttpServletRequest request) {
+        String token = request.getHeader(TOKEN_HEADER);
+        if (token != null && !token.isBlank()) return token.trim();
+        String authorization = request.getHeader("Authorization");
+        if (authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return authorization.substring(7).trim();
+        }
+        return null;
+    }
+}
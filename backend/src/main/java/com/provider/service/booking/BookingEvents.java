@@ -0,0 +1,41 @@
+package com.provider.service.booking;
+
+import com.provider.service.entity.BookingEntity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Types and payloads of the booking lifecycle events written to the outbox. The aggregate id of
+ * every event is the booking id.
+ */
+public final class BookingEvents {
+
+    public static final String PREFIX = "booking.";
+    public static final String CREATED = PREFIX + "created";
+    public static final String STATUS_CHANGED = PREFIX + "status-changed";
+    public static final String NOTES_CHANGED = PREFIX + "notes-changed";
+
+    private BookingEvents() {}
+
+    public static Map<String, Object> created(BookingEntity booking) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", booking.getUser() == null ? null : booking.getUser().getId());
+        payload.put("serviceId", booking.getService() == null ? null : booking.getService().getId());
+        payload.put("providerId", booking.getProviderId());
+        payload.put("date", booking.getDate() == null ? null : booking.getDate().toString());
+        payload.put("status", booking.getStatus() == null ? null : booking.getStatus().name());
+        return payload;
+    }
+
+    public static Map<String, Object> statusChanged(BookingStatus from, BookingStatus to) {
+        return Map.of("from", from.name(), "to", to.name());
+    }
+
+    public static Map<String, Object> notesChanged(BookingPatch patch) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        if (patch.setProviderNote()) payload.put("providerNote", patch.providerNote());
+        if (patch.setUserNote()) payload.put("userNote", patch.userNote());
+        return payload;
+    }
+}
@@ -0,0 +1,40 @@
+package com.provider.service.booking;
+
+import java.util.Map;
+
+/**
+ * Partial update of a booking's notes. A field is only written when its {@code set*} flag is
+ * true, so a patch can clear a note (set to null) as well as leave it untouched.
+ */
+public record BookingPatch(boolean setProviderNote, String providerNote,
+                           boolean setUserNote, String userNote) {
+
+    public static BookingPatch providerNote(String providerNote) {
+        return new BookingPatch(true, providerNote, false, null);
+    }
+
+    // JSON body of PATCH /{id} and POST /{id}/note: null notes clear the note
+    public static BookingPatch fromPayload(Map<String, Object> payload) {
+        Object providerNote = payload.get("providerNote");
+        Object userNote = payload.get("userNote");
+        return new BookingPatch(
+                payload.containsKey("providerNote"), providerNote == null ? null : providerNote.toString(),
+                payload.containsKey("userNote"), userNote == null ? null : userNote.toString());
+    }
+
+    // request parameters of POST /{id}/note-form: absent parameters are left untouched
+    public static BookingPatch fromParams(String providerNote, String userNote) {
+        return new BookingPatch(providerNote != null, providerNote, userNote != null, userNote);
+    }
+
+    public boolean isEmpty() {
+        return !setProviderNote && !setUserNote;
+    }
+
+    // fields set by the later patch win
+    public BookingPatch then(BookingPatch later) {
+        return new BookingPatch(
+                setProviderNote || later.setProviderNote, later.setProviderNote ? later.providerNote : providerNote,
+                setUserNote || later.setUserNote, later.setUserNote ? later.userNote : userNote);
+    }
+}
@@ -0,0 +1,117 @@
+package com.provider.service.booking;
+
+import com.provider.service.outbox.Outbox;
+import com.provider.service.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies booking status changes without locking the row.
+ *
+ * Each attempt reads the current status, checks the move against {@link BookingStatus#canMoveTo}
+ * and writes with {@code UPDATE ... WHERE id = ? AND status = <status read>}, bumping the
+ * {@code @Version} column. If another request changed the status in between, the update matches
+ * no row and the attempt is repeated against the new status, so contention costs a retry instead
+ * of a lock, and accept/cancel races can no longer overwrite each other.
+ *
+ * The update that wins and its {@link BookingEvents#STATUS_CHANGED} outbox event are committed in
+ * one transaction.
+ */
+@Component
+public class BookingStateMachine {
+
+    /** The write for one attempt; must only match the row while its status is still {@code from}. */
+    @FunctionalInterface
+    public interface ConditionalUpdate {
+        int apply(BookingStatus from);
+    }
+
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactions;
+    private final Outbox outbox;
+    private final int maxAttempts;
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    public BookingStateMachine(BookingRepository bookingRepository, ApplicationEventPublisher events,
+                               TransactionTemplate transactions, Outbox outbox,
+                               @Value("${app.bookings.transition.max-attempts:5}") int maxAttempts) {
+        this.bookingRepository = bookingRepository;
+        this.events = events;
+        this.transactions = transactions;
+        this.outbox = outbox;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Moves the booking to {@code target}, changing nothing else. Asking for the status the booking
+     * already has is a no-op (UNCHANGED): nothing is written and no event is recorded.
+     */
+    public BookingTransition transition(Long id, BookingStatus target) {
+        return transition(id, target, from -> bookingRepository.transitionStatus(id, from, target), false);
+    }
+
+    /**
+     * Moves the booking to {@code target} with a caller-supplied conditional update, for transitions
+     * that write other columns in the same statement. Asking for the status the booking already has
+     * is a no-op (UNCHANGED) unless that self-move is itself a transition, like re-quoting a payment.
+     */
+    public BookingTransition transition(Long id, BookingStatus target, ConditionalUpdate update) {
+        return transition(id, target, update, true);
+    }
+
+    private BookingTransition transition(Long id, BookingStatus target, ConditionalUpdate update, boolean allowSelfMove) {
+        BookingStatus current = null;
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            if (attempt > 0) retries.increment();
+            List<BookingStatus> read = bookingRepository.findStatusById(id);
+            if (read.isEmpty()) return new BookingTransition(BookingTransition.Outcome.NOT_FOUND, null, target);
+            // a row with a null status is treated like an unrecognised one
+            current = read.get(0) == null ? BookingStatus.UNKNOWN : read.get(0);
+            if (current == target && !allowSelfMove) return new BookingTransition(BookingTransition.Outcome.UNCHANGED, current, target);
+            if (!current.canMoveTo(target)) {
+                if (current == target) return new BookingTransition(BookingTransition.Outcome.UNCHANGED, current, target);
+                rejected.increment();
+                return new BookingTransition(BookingTransition.Outcome.NOT_ALLOWED, current, target);
+            }
+            if (current == BookingStatus.UNKNOWN) {
+                // give a legacy value a name the conditional update below can match on
+                bookingRepository.markStatusUnknown(id, BookingStatus.UNKNOWN, EnumSet.allOf(BookingStatus.class));
+            }
+            if (applyWithEvent(id, current, target, update)) {
+                applied.increment();
+                events.publishEvent(new BookingStatusChangedEvent(id, current, target));
+                return new BookingTransition(BookingTransition.Outcome.APPLIED, current, target);
+            }
+        }
+        conflicts.increment();
+        return new BookingTransition(BookingTransition.Outcome.CONFLICT, current, target);
+    }
+
+    private boolean applyWithEvent(Long id, BookingStatus from, BookingStatus target, ConditionalUpdate update) {
+        return Boolean.TRUE.equals(transactions.execute(status -> {
+            if (update.apply(from) != 1) return false;
+            outbox.append(BookingEvents.STATUS_CHANGED, id, BookingEvents.statusChanged(from, target));
+            return true;
+        }));
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "applied", applied.sum(),
+                "retries", retries.sum(),
+                "rejected", rejected.sum(),
+                "conflicts", conflicts.sum());
+    }
+}
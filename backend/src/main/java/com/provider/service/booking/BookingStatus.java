@@ -0,0 +1,70 @@
+package com.provider.service.booking;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lifecycle of a booking. Status changes are only applied when {@link #canMoveTo} allows them,
+ * and always as a conditional update on the status the caller read (see {@link BookingStateMachine}).
+ */
+public enum BookingStatus {
+    BOOKED,
+    // provider accepted with an amount; the Razorpay order is being created
+    PAYMENT_ORDER_PENDING,
+    AWAITING_PAYMENT,
+    PAID,
+    IN_PROGRESS,
+    COMPLETED,
+    REJECTED,
+    CANCELLED,
+    // a value in the table that is not one of the above (rows written before statuses were checked)
+    UNKNOWN;
+
+    private static final Map<BookingStatus, Set<BookingStatus>> NEXT = new EnumMap<>(BookingStatus.class);
+    // only reached through accepting a quote and verifying the Razorpay payment, never set by a client directly
+    private static final Set<BookingStatus> PAYMENT_FLOW = EnumSet.of(PAYMENT_ORDER_PENDING, AWAITING_PAYMENT, PAID);
+
+    static {
+        NEXT.put(BOOKED, EnumSet.of(PAYMENT_ORDER_PENDING, AWAITING_PAYMENT, IN_PROGRESS, REJECTED, CANCELLED));
+        NEXT.put(PAYMENT_ORDER_PENDING, EnumSet.of(AWAITING_PAYMENT, BOOKED, CANCELLED));
+        // AWAITING_PAYMENT -> AWAITING_PAYMENT / PAYMENT_ORDER_PENDING: the provider changes the amount
+        NEXT.put(AWAITING_PAYMENT, EnumSet.of(PAYMENT_ORDER_PENDING, AWAITING_PAYMENT, PAID, IN_PROGRESS, COMPLETED, CANCELLED));
+        NEXT.put(PAID, EnumSet.of(IN_PROGRESS, COMPLETED));
+        NEXT.put(IN_PROGRESS, EnumSet.of(COMPLETED, CANCELLED));
+        NEXT.put(COMPLETED, EnumSet.noneOf(BookingStatus.class));
+        NEXT.put(REJECTED, EnumSet.noneOf(BookingStatus.class));
+        NEXT.put(CANCELLED, EnumSet.noneOf(BookingStatus.class));
+        // legacy rows can be moved to any real status
+        NEXT.put(UNKNOWN, EnumSet.complementOf(EnumSet.of(UNKNOWN)));
+    }
+
+    public boolean canMoveTo(BookingStatus next) {
+        return NEXT.get(this).contains(next);
+    }
+
+    public boolean isSetByPaymentFlow() {
+        return PAYMENT_FLOW.contains(this);
+    }
+
+    public boolean isTerminal() {
+        return NEXT.get(this).isEmpty();
+    }
+
+    /**
+     * Lenient parse of client input and stored values: case, surrounding blanks and '-' or ' '
+     * instead of '_' are ignored. Null for null, blank or unrecognised values.
+     */
+    public static BookingStatus parse(String value) {
+        if (value == null) return null;
+        String name = value.trim().toUpperCase(Locale.ROOT).replace('-', '_').replace(' ', '_');
+        if (name.isEmpty()) return null;
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
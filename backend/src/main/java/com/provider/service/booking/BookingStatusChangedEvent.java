@@ -0,0 +1,6 @@
+package com.provider.service.booking;
+
+/**
+ * Published by {@link BookingStateMachine} after a status transition has been applied.
+ */
+public record BookingStatusChangedEvent(Long bookingId, BookingStatus from, BookingStatus to) {}
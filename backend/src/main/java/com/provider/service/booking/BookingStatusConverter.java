@@ -0,0 +1,25 @@
+package com.provider.service.booking;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link BookingStatus} by name in the existing varchar column. Values written before the
+ * enum existed are read leniently, and anything unrecognised loads as UNKNOWN instead of failing
+ * the whole query.
+ */
+@Converter
+public class BookingStatusConverter implements AttributeConverter<BookingStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(BookingStatus status) {
+        return status == null ? null : status.name();
+    }
+
+    @Override
+    public BookingStatus convertToEntityAttribute(String value) {
+        if (value == null) return null;
+        BookingStatus status = BookingStatus.parse(value);
+        return status == null ? BookingStatus.UNKNOWN : status;
+    }
+}
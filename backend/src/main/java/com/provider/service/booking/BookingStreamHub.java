@@ -0,0 +1,256 @@
+package com.provider.service.booking;
+
+import com.provider.service.dto.BookingView;
+import com.provider.service.outbox.OutboxConsumer;
+import com.provider.service.outbox.OutboxEvent;
+import com.provider.service.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes booking changes to the users and providers watching their bookings over server-sent events.
+ *
+ * Subscribers are kept per user id and per provider id. The hub consumes the booking events of the
+ * outbox: for each batch it reads the changed bookings' list rows with one query and sends every
+ * row as a "booking" event to the booking's user and provider, so clients merge single rows
+ * instead of re-fetching their lists. An open stream holds no thread, only its socket and emitter.
+ *
+ * Events are queued per subscriber (at most {@code app.bookings.stream.queue-size}) and written by
+ * a pool of {@code app.bookings.stream.writer-threads}, one subscriber at a time per thread, so a
+ * client that stops reading only stalls the writer blocked on its socket. Once such a client's
+ * queue is full it is dropped (counted in {@code app.bookings.stream.dropped}); EventSource
+ * reconnects and reloads its list. A periodic heartbeat comment keeps idle connections open.
+ *
+ * Only events dispatched by this instance are pushed, so with several instances a client sees the
+ * changes that instance's dispatcher delivers.
+ */
+@Component
+public class BookingStreamHub implements OutboxConsumer {
+
+    public enum Audience { USER, PROVIDER }
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingStreamHub.class);
+
+    private final BookingRepository bookingRepository;
+    private final long timeoutMs;
+    private final int maxConnections;
+    private final int queueSize;
+
+    private final Map<Long, Set<Subscriber>> users = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> providers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    // routes rows and heartbeats to the subscribers' queues; never writes to a socket itself
+    private final ScheduledExecutorService router;
+    private final ExecutorService writers;
+    private final Counter pushed;
+    private final Counter dropped;
+
+    public BookingStreamHub(BookingRepository bookingRepository, MeterRegistry registry,
+                            @Value("${app.bookings.stream.timeout-ms:1800000}") long timeoutMs,
+                            @Value("${app.bookings.stream.heartbeat-seconds:25}") long heartbeatSeconds,
+                            @Value("${app.bookings.stream.max-connections:20000}") int maxConnections,
+                            @Value("${app.bookings.stream.writer-threads:16}") int writerThreads,
+                            @Value("${app.bookings.stream.queue-size:100}") int queueSize) {
+        this.bookingRepository = bookingRepository;
+        this.timeoutMs = timeoutMs;
+        this.maxConnections = maxConnections;
+        this.queueSize = Math.max(1, queueSize);
+        this.router = Executors.newSingleThreadScheduledExecutor(daemon("booking-stream"));
+        this.writers = Executors.newFixedThreadPool(Math.max(1, writerThreads), daemon("booking-stream-writer"));
+        if (heartbeatSeconds > 0) {
+            router.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        }
+        Gauge.builder("app.bookings.stream.connections", connections, AtomicInteger::get)
+                .description("Open booking event streams")
+                .register(registry);
+        this.pushed = Counter.builder("app.bookings.stream.pushed")
+                .description("Booking rows sent to stream subscribers")
+                .register(registry);
+        this.dropped = Counter.builder("app.bookings.stream.dropped")
+                .description("Streams closed because their client fell too far behind")
+                .register(registry);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** Opens a stream of the bookings of one user or provider; null when the hub is at max-connections. */
+    public SseEmitter subscribe(Audience audience, Long id) {
+        return subscribe(audience, id, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(Audience audience, Long id, SseEmitter emitter) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return null;
+        }
+        Map<Long, Set<Subscriber>> channel = channel(audience);
+        Subscriber subscriber = new Subscriber(channel, id, emitter);
+        channel.compute(id, (key, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        Runnable remove = () -> unsubscribe(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        // sends the response headers now, so the client sees the stream as open
+        subscriber.enqueue(SseEmitter.event().comment("connected"), false);
+        return emitter;
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    @Override
+    public void accept(List<OutboxEvent> events) {
+        if (connections.get() == 0) return;
+        Set<Long> ids = new LinkedHashSet<>();
+        for (OutboxEvent event : events) {
+            if (event.type().startsWith(BookingEvents.PREFIX) && event.aggregateId() != null) ids.add(event.aggregateId());
+        }
+        if (ids.isEmpty()) return;
+        List<BookingView> rows = bookingRepository.findCurrentViewsByIdIn(ids);
+        router.execute(() -> rows.forEach(this::push));
+    }
+
+    private void push(BookingView row) {
+        Long userId = row.getUser() == null ? null : row.getUser().id();
+        Long providerId = row.getProviderId();
+        if (providerId == null && row.getService() != null && row.getService().provider() != null) {
+            providerId = row.getService().provider().id();
+        }
+        sendAll(users, userId, row);
+        sendAll(providers, providerId, row);
+    }
+
+    private void sendAll(Map<Long, Set<Subscriber>> channel, Long id, BookingView row) {
+        if (id == null) return;
+        Set<Subscriber> subscribers = channel.get(id);
+        if (subscribers == null) return;
+        for (Subscriber subscriber : subscribers) subscriber.enqueue(SseEmitter.event().name("booking").data(row), true);
+    }
+
+    private void heartbeat() {
+        for (Audience audience : Audience.values()) {
+            channel(audience).values().forEach(subscribers -> {
+                for (Subscriber subscriber : subscribers) subscriber.enqueue(SseEmitter.event().comment("ping"), false);
+            });
+        }
+    }
+
+    private boolean unsubscribe(Subscriber subscriber) {
+        boolean[] removed = {false};
+        subscriber.channel.computeIfPresent(subscriber.id, (key, subscribers) -> {
+            removed[0] = subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        if (removed[0]) connections.decrementAndGet();
+        return removed[0];
+    }
+
+    private Map<Long, Set<Subscriber>> channel(Audience audience) {
+        return audience == Audience.PROVIDER ? providers : users;
+    }
+
+    @PreDestroy
+    public void close() {
+        router.shutdownNow();
+        writers.shutdownNow();
+        for (Audience audience : Audience.values()) {
+            channel(audience).values().stream().flatMap(Set::stream).forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    private record Outgoing(SseEmitter.SseEventBuilder event, boolean row) {}
+
+    // one stream: its pending events, written in order by at most one writer thread at a time
+    private final class Subscriber {
+
+        private final Map<Long, Set<Subscriber>> channel;
+        private final Long id;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Outgoing> pending = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        Subscriber(Map<Long, Set<Subscriber>> channel, Long id, SseEmitter emitter) {
+            this.channel = channel;
+            this.id = id;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event, boolean row) {
+            if (!pending.offer(new Outgoing(event, row))) {
+                // the client has not read its last queue-size events: it is stalled or too slow
+                if (unsubscribe(this)) {
+                    dropped.increment();
+                    logger.debug("Dropping booking stream of {} {}: {} events pending",
+                            channel == providers ? "provider" : "user", id, queueSize);
+                    pending.clear();
+                    schedule(emitter::complete);
+                }
+                return;
+            }
+            if (writing.compareAndSet(false, true)) schedule(this::write);
+        }
+
+        private void write() {
+            while (true) {
+                Outgoing next;
+                while ((next = pending.poll()) != null) {
+                    try {
+                        emitter.send(next.event());
+                        if (next.row()) pushed.increment();
+                    } catch (Exception e) {
+                        // a failed send means the client is gone
+                        unsubscribe(this);
+                        pending.clear();
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                }
+                writing.set(false);
+                // an event queued after the last poll but before the flag was cleared
+                if (pending.isEmpty() || !writing.compareAndSet(false, true)) return;
+            }
+        }
+
+        private void schedule(Runnable task) {
+            try {
+                writers.execute(task);
+            } catch (RejectedExecutionException e) {
+                // the hub is closing
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.provider.service.booking;
+
+/**
+ * Result of {@link BookingStateMachine#transition}: what happened and the status the booking was
+ * in when the decision was made (null when it does not exist).
+ */
+public record BookingTransition(Outcome outcome, BookingStatus current, BookingStatus target) {
+
+    public enum Outcome {
+        // the conditional update matched and the status is now target
+        APPLIED,
+        // the booking already had the target status and no write was needed
+        UNCHANGED,
+        NOT_FOUND,
+        // current -> target is not a valid move
+        NOT_ALLOWED,
+        // the status kept changing underneath us; every attempt lost the race
+        CONFLICT
+    }
+
+    public boolean succeeded() {
+        return outcome == Outcome.APPLIED || outcome == Outcome.UNCHANGED;
+    }
+}
@@ -0,0 +1,178 @@
+package com.provider.service.booking;
+
+import com.provider.service.dto.BookingView;
+import com.provider.service.outbox.Outbox;
+import com.provider.service.repository.BookingRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind pipeline for booking note updates. Status changes are not batched; they go
+ * through {@link BookingStateMachine}.
+ *
+ * Patches are collected for a short window; patches to the same booking are merged, and the
+ * window is written as one JDBC batch of {@code UPDATE bookings ... WHERE id = ?} in a single
+ * transaction, without loading the entities. The updated bookings are then read back with one
+ * query and each caller's future completes with its booking's view (null if the id does not exist).
+ * Each updated booking gets a {@link BookingEvents#NOTES_CHANGED} outbox event in the same transaction.
+ */
+@Component
+public class BookingUpdateBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingUpdateBatcher.class);
+
+    // one statement shape for every patch so the whole window is a single batch
+    static final String UPDATE_SQL = "update bookings set "
+            + "provider_note = case when ? then ? else provider_note end, "
+            + "user_note = case when ? then ? else user_note end, "
+            + "version = version + 1 "
+            + "where id = ?";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final BookingRepository bookingRepository;
+    private final Outbox outbox;
+    private final long windowMs;
+    private final int maxBatch;
+    private final ScheduledExecutorService flusher;
+
+    private final Object lock = new Object();
+    // booking id -> merged patch and the callers waiting for it; guarded by lock
+    private Map<Long, Pending> pending = new LinkedHashMap<>();
+    private boolean flushScheduled = false;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+
+    public BookingUpdateBatcher(JdbcTemplate jdbc, TransactionTemplate transactions, BookingRepository bookingRepository,
+                                Outbox outbox,
+                                @Value("${app.bookings.write-behind.window-ms:20}") long windowMs,
+                                @Value("${app.bookings.write-behind.max-batch:200}") int maxBatch) {
+        this.jdbc = jdbc;
+        this.transactions = transactions;
+        this.bookingRepository = bookingRepository;
+        this.outbox = outbox;
+        this.windowMs = windowMs;
+        this.maxBatch = maxBatch;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "booking-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public CompletableFuture<BookingView> submit(Long bookingId, BookingPatch patch) {
+        CompletableFuture<BookingView> result = new CompletableFuture<>();
+        boolean flushNow = false;
+        synchronized (lock) {
+            Pending p = pending.get(bookingId);
+            if (p == null) {
+                pending.put(bookingId, new Pending(patch, result));
+            } else {
+                p.add(patch, result);
+                merged.increment();
+            }
+            if (pending.size() >= maxBatch) {
+                flushNow = true;
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                flusher.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        submitted.increment();
+        if (flushNow) flusher.execute(this::flush);
+        return result;
+    }
+
+    void flush() {
+        Map<Long, Pending> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        try {
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            batch.forEach((id, p) -> rows.add(new Object[]{
+                    p.patch.setProviderNote(), p.patch.providerNote(),
+                    p.patch.setUserNote(), p.patch.userNote(),
+                    id}));
+            List<BookingView> views = transactions.execute(status -> {
+                jdbc.batchUpdate(UPDATE_SQL, rows);
+                List<BookingView> updated = bookingRepository.findViewsByIdIn(batch.keySet());
+                for (BookingView v : updated) {
+                    outbox.append(BookingEvents.NOTES_CHANGED, v.getId(), BookingEvents.notesChanged(batch.get(v.getId()).patch));
+                }
+                return updated;
+            });
+            flushes.increment();
+            rowsWritten.add(rows.size());
+
+            Map<Long, BookingView> byId = new HashMap<>();
+            for (BookingView v : views) byId.put(v.getId(), v);
+            batch.forEach((id, p) -> p.complete(byId.get(id)));
+        } catch (Exception e) {
+            logger.error("Failed to write {} booking updates", batch.size(), e);
+            batch.values().forEach(p -> p.fail(e));
+        }
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "submitted", submitted.sum(),
+                "merged", merged.sum(),
+                "flushes", flushes.sum(),
+                "rowsWritten", rowsWritten.sum());
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        // write whatever is still pending before the datasource goes away
+        flusher.execute(this::flush);
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static final class Pending {
+
+        private BookingPatch patch;
+        private final List<CompletableFuture<BookingView>> waiters = new ArrayList<>(1);
+
+        Pending(BookingPatch patch, CompletableFuture<BookingView> waiter) {
+            this.patch = patch;
+            waiters.add(waiter);
+        }
+
+        void add(BookingPatch later, CompletableFuture<BookingView> waiter) {
+            patch = patch.then(later);
+            waiters.add(waiter);
+        }
+
+        void complete(BookingView view) {
+            waiters.forEach(w -> w.complete(view));
+        }
+
+        void fail(Throwable error) {
+            waiters.forEach(w -> w.completeExceptionally(error));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.provider.service.booking;
+
+import com.provider.service.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-provider schedule of upcoming bookings, used to refuse double bookings.
+ *
+ * Every booking occupies one slot of {@code app.bookings.slot-minutes} from its date. A
+ * provider's bookings are kept in a TreeMap keyed by start time. Because all slots have the same
+ * length, [from, to) is free exactly when no booking starts in (from - slot, to), which is one
+ * O(log n) range lookup. The next free slots are found by jumping past the latest overlapping
+ * booking, one lookup per step.
+ *
+ * {@link #reserve} checks the slot and inserts the booking while holding the provider's lock, so
+ * two concurrent requests for the same time cannot both succeed. The index is loaded from the
+ * bookings table at startup and only covers this instance's writes, so it assumes a single
+ * backend instance.
+ */
+@Component
+public class ProviderAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderAvailabilityIndex.class);
+
+    // bookings in these states no longer hold the provider's time
+    static final EnumSet<BookingStatus> RELEASED = EnumSet.of(BookingStatus.REJECTED, BookingStatus.CANCELLED);
+
+    private final BookingRepository bookingRepository;
+    private final Duration slot;
+    private final int maxSlots;
+    private final Duration horizon;
+
+    private final Map<Long, Schedule> schedules = new ConcurrentHashMap<>();
+    // booking id -> provider id, to release a booking's slot by id
+    private final Map<Long, Long> providerOfBooking = new ConcurrentHashMap<>();
+    // reservations hold the read lock through their insert, so a rebuild never misses one in flight
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    public ProviderAvailabilityIndex(BookingRepository bookingRepository,
+                                     @Value("${app.bookings.slot-minutes:60}") int slotMinutes,
+                                     @Value("${app.bookings.availability.max-slots:50}") int maxSlots,
+                                     @Value("${app.bookings.availability.horizon-days:30}") int horizonDays) {
+        this.bookingRepository = bookingRepository;
+        this.slot = Duration.ofMinutes(slotMinutes);
+        this.maxSlots = maxSlots;
+        this.horizon = Duration.ofDays(horizonDays);
+    }
+
+    public record Slot(LocalDateTime start, LocalDateTime end) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            // past bookings cannot conflict with new ones
+            List<ScheduledBooking> upcoming = bookingRepository.findSchedule(LocalDateTime.now().minus(slot), RELEASED);
+            schedules.clear();
+            providerOfBooking.clear();
+            for (ScheduledBooking b : upcoming) {
+                if (b.providerId() == null || b.start() == null) continue;
+                schedule(b.providerId()).add(b.start(), b.bookingId());
+                providerOfBooking.put(b.bookingId(), b.providerId());
+            }
+            logger.info("Availability index loaded {} upcoming bookings for {} providers", providerOfBooking.size(), schedules.size());
+        } catch (Exception e) {
+            logger.error("Failed to load availability index", e);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code insert} if the provider is free for the slot starting at {@code start}, and records
+     * the new booking under the same lock.
+     *
+     * @throws SlotUnavailableException when the slot overlaps an existing booking; insert is not called
+     */
+    public <T> T reserve(Long providerId, LocalDateTime start, Supplier<T> insert, Function<T, Long> idOf) {
+        rebuildLock.readLock().lock();
+        try {
+            Schedule schedule = schedule(providerId);
+            schedule.lock.lock();
+            try {
+                if (!schedule.isFree(start, start.plus(slot), slot)) throw new SlotUnavailableException(providerId, start);
+                T created = insert.get();
+                Long bookingId = idOf.apply(created);
+                schedule.add(start, bookingId);
+                providerOfBooking.put(bookingId, providerId);
+                schedule.prune(LocalDateTime.now().minus(slot), providerOfBooking);
+                return created;
+            } finally {
+                schedule.lock.unlock();
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public boolean isFree(Long providerId, LocalDateTime from, LocalDateTime to) {
+        Schedule schedule = schedules.get(providerId);
+        if (schedule == null) return true;
+        schedule.lock.lock();
+        try {
+            return schedule.isFree(from, to, slot);
+        } finally {
+            schedule.lock.unlock();
+        }
+    }
+
+    /** Up to {@code count} free slots starting at or after {@code from}, within the search horizon. */
+    public List<Slot> nextFreeSlots(Long providerId, LocalDateTime from, int count) {
+        int wanted = Math.max(0, Math.min(count, maxSlots));
+        List<Slot> free = new ArrayList<>(wanted);
+        LocalDateTime limit = from.plus(horizon);
+        Schedule schedule = schedules.get(providerId);
+        LocalDateTime t = from;
+        while (free.size() < wanted && t.isBefore(limit)) {
+            LocalDateTime blocking = null;
+            if (schedule != null) {
+                schedule.lock.lock();
+                try {
+                    blocking = schedule.latestOverlapping(t, t.plus(slot), slot);
+                } finally {
+                    schedule.lock.unlock();
+                }
+            }
+            if (blocking == null) {
+                free.add(new Slot(t, t.plus(slot)));
+                t = t.plus(slot);
+            } else {
+                // the earliest start that clears the booking in the way
+                t = blocking.plus(slot);
+            }
+        }
+        return free;
+    }
+
+    public Duration slotLength() {
+        return slot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        if (RELEASED.contains(event.to())) release(event.bookingId());
+    }
+
+    public void release(Long bookingId) {
+        Long providerId = providerOfBooking.remove(bookingId);
+        if (providerId == null) return;
+        Schedule schedule = schedules.get(providerId);
+        if (schedule == null) return;
+        schedule.lock.lock();
+        try {
+            schedule.remove(bookingId);
+        } finally {
+            schedule.lock.unlock();
+        }
+    }
+
+    private Schedule schedule(Long providerId) {
+        return schedules.computeIfAbsent(providerId, id -> new Schedule());
+    }
+
+    // one provider's bookings by start time; all access under lock. A ReentrantLock rather than
+    // synchronized so a reservation waiting on the database does not pin a virtual thread.
+    private static final class Schedule {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        // start -> booking ids; normally one, more only for overlaps written before this index existed
+        private final TreeMap<LocalDateTime, List<Long>> starts = new TreeMap<>();
+        private final Map<Long, LocalDateTime> startOf = new HashMap<>();
+
+        boolean isFree(LocalDateTime from, LocalDateTime to, Duration slot) {
+            return latestOverlapping(from, to, slot) == null;
+        }
+
+        // start of the last booking overlapping [from, to), or null
+        LocalDateTime latestOverlapping(LocalDateTime from, LocalDateTime to, Duration slot) {
+            LocalDateTime last = starts.lowerKey(to);
+            return last != null && last.isAfter(from.minus(slot)) ? last : null;
+        }
+
+        void add(LocalDateTime start, Long bookingId) {
+            starts.computeIfAbsent(start, s -> new ArrayList<>(1)).add(bookingId);
+            startOf.put(bookingId, start);
+        }
+
+        void remove(Long bookingId) {
+            LocalDateTime start = startOf.remove(bookingId);
+            if (start == null) return;
+            List<Long> ids = starts.get(start);
+            if (ids == null) return;
+            ids.remove(bookingId);
+            if (ids.isEmpty()) starts.remove(start);
+        }
+
+        // forget bookings that ended before cutoff
+        void prune(LocalDateTime cutoff, Map<Long, Long> providerOfBooking) {
+            NavigableMap<LocalDateTime, List<Long>> past = starts.headMap(cutoff, false);
+            if (past.isEmpty()) return;
+            for (List<Long> ids : past.values()) {
+                for (Long id : ids) {
+                    startOf.remove(id);
+                    providerOfBooking.remove(id);
+                }
+            }
+            past.clear();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.provider.service.booking;
+
+import java.time.LocalDateTime;
+
+// a booking that still holds its provider's time: loaded by BookingRepository.findSchedule
+public record ScheduledBooking(Long bookingId, Long providerId, LocalDateTime start) {}
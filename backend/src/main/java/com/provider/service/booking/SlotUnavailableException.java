@@ -0,0 +1,27 @@
+package com.provider.service.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thrown by {@link ProviderAvailabilityIndex#reserve} when the provider already has a booking
+ * overlapping the requested slot.
+ */
+public class SlotUnavailableException extends RuntimeException {
+
+    private final Long providerId;
+    private final LocalDateTime start;
+
+    public SlotUnavailableException(Long providerId, LocalDateTime start) {
+        super("Provider " + providerId + " is not available at " + start);
+        this.providerId = providerId;
+        this.start = start;
+    }
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+}
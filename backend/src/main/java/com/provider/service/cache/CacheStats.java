@@ -0,0 +1,12 @@
+package com.provider.service.cache;
+
+/**
+ * Point-in-time counters of a {@link LruTtlCache}, serialized as-is by the admin endpoints.
+ */
+public record CacheStats(String name, long hits, long misses, long evictions, long invalidations, int size, int maxEntries) {
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
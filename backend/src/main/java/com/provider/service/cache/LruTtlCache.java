@@ -0,0 +1,125 @@
+package com.provider.service.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Small thread-safe LRU cache with a per-entry time-to-live and hit/miss counters.
+ *
+ * Loads run outside the lock. If the key is invalidated while a load is in flight the
+ * loaded value is returned to the caller but not cached, so an invalidation is never
+ * undone by a slower concurrent read. Invalidations are tracked per key, and only for keys
+ * with a load in flight, so writes to one key do not keep loads of other keys from caching.
+ */
+public class LruTtlCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // bumped on every invalidation; a load started before the last invalidation of its key
+    // (or of all keys) is not cached
+    private long generation = 0;
+    private long allInvalidatedAt = 0;
+    private final Map<K, Loads> loading = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public LruTtlCache(String name, int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruTtlCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) return cached;
+
+        long startGeneration;
+        Loads loads;
+        synchronized (this) {
+            startGeneration = generation;
+            loads = loading.computeIfAbsent(key, k -> new Loads());
+            loads.inFlight++;
+        }
+        V loaded = null;
+        try {
+            loaded = loader.apply(key);
+        } finally {
+            synchronized (this) {
+                if (loaded != null && loads.invalidatedAt <= startGeneration && allInvalidatedAt <= startGeneration) {
+                    entries.put(key, new Entry<>(loaded, System.nanoTime() + ttlNanos));
+                }
+                if (--loads.inFlight == 0) loading.remove(key);
+            }
+        }
+        return loaded;
+    }
+
+    public V getIfPresent(K key) {
+        synchronized (this) {
+            Entry<V> e = entries.get(key);
+            if (e != null && e.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return e.value;
+            }
+            if (e != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    public synchronized void invalidate(K key) {
+        Loads loads = loading.get(key);
+        if (loads != null) loads.invalidatedAt = ++generation;
+        if (entries.remove(key) != null) invalidations.increment();
+    }
+
+    public synchronized void invalidateAll() {
+        allInvalidatedAt = ++generation;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(name, hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size(), maxEntries);
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    // loads of one key in flight, and the generation of the key's last invalidation during them
+    private static final class Loads {
+        int inFlight;
+        long invalidatedAt;
+    }
+}
@@ -0,0 +1,171 @@
+package com.provider.service.cache;
+
+import com.provider.service.catalog.CatalogChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory version numbers of cacheable resources, used for conditional GETs: an endpoint
+ * compares the client's {@code If-None-Match} with the resource's current ETag and answers
+ * {@code 304 Not Modified} before it runs a query or serializes anything.
+ *
+ * Writers call {@link #changed} after committing (catalog changes arrive as
+ * {@link CatalogChangedEvent}s). The version is read before the data, so a response can only
+ * carry an older ETag than its data, never a newer one. For a settle window after a change no
+ * ETag is given out, so a read from a replica (or index) that is still behind is not cached
+ * under the new version.
+ *
+ * Versions live in this instance only. ETags therefore carry an id of the instance, and a time
+ * bucket of {@code app.http.etag.ttl-seconds}, which bounds how long an instance can confirm a
+ * response that another instance has since changed.
+ */
+@Component
+public class ResourceVersions {
+
+    public enum Resource {
+        // everything listed by /api/services
+        CATALOG,
+        // a provider's reviews and rating
+        REVIEWS,
+        // a user's profile
+        USER
+    }
+
+    private record Stamp(long version, long atNanos) {}
+
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong(1L << 40), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    // changes of a whole resource (e.g. any catalog change), and of single ids
+    private final Map<Resource, Stamp> floors = new ConcurrentHashMap<>();
+    private final Map<Resource, Map<Long, Stamp>> stamps = new EnumMap<>(Resource.class);
+    private final Map<Resource, CacheControl> cacheControls = new EnumMap<>(Resource.class);
+    private final long settleNanos;
+    private final long ttlMs;
+
+    public ResourceVersions(@Value("${app.http.etag.settle-ms:2000}") long settleMs,
+                            @Value("${app.http.etag.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${app.http.cache.catalog-max-age-seconds:30}") long catalogMaxAge,
+                            @Value("${app.http.cache.reviews-max-age-seconds:60}") long reviewsMaxAge) {
+        this.settleNanos = Duration.ofMillis(Math.max(0, settleMs)).toNanos();
+        this.ttlMs = Duration.ofSeconds(Math.max(1, ttlSeconds)).toMillis();
+        for (Resource resource : Resource.values()) stamps.put(resource, new ConcurrentHashMap<>());
+        // public data may be kept by browsers and shared caches; profiles only by the browser, revalidated every time
+        cacheControls.put(Resource.CATALOG, CacheControl.maxAge(Duration.ofSeconds(catalogMaxAge)).cachePublic());
+        cacheControls.put(Resource.REVIEWS, CacheControl.maxAge(Duration.ofSeconds(reviewsMaxAge)).cachePublic());
+        cacheControls.put(Resource.USER, CacheControl.noCache().cachePrivate());
+    }
+
+    public void changed(Resource resource, Long id) {
+        if (id != null) stamps.get(resource).put(id, next());
+    }
+
+    public void changed(Resource resource, Collection<Long> ids) {
+        Stamp stamp = next();
+        for (Long id : ids) {
+            if (id != null) stamps.get(resource).put(id, stamp);
+        }
+    }
+
+    // every id of the resource changed, e.g. a name shown on all of them
+    public void changedAll(Resource resource) {
+        floors.put(resource, next());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        changedAll(Resource.CATALOG);
+    }
+
+    private Stamp next() {
+        return new Stamp(sequence.incrementAndGet(), System.nanoTime());
+    }
+
+    /**
+     * The current ETag of a resource (id null for the whole resource), or null while a change settles.
+     * ETags are weak: the same version may be sent gzip-compressed or not, and Tomcat does not
+     * compress responses with a strong ETag.
+     */
+    public String etag(Resource resource, Long id) {
+        Stamp latest = floors.get(resource);
+        Stamp own = id == null ? null : stamps.get(resource).get(id);
+        if (latest == null || (own != null && own.version() > latest.version())) latest = own;
+        if (latest != null && System.nanoTime() - latest.atNanos() < settleNanos) return null;
+        long version = latest == null ? 0 : latest.version();
+        return "W/\"" + resource.name().charAt(0) + "-" + instance + "-"
+                + Long.toString(System.currentTimeMillis() / ttlMs, 36) + "-" + version + "\"";
+    }
+
+    /**
+     * Answers a GET of the resource: 304 when the request's {@code If-None-Match} names its current
+     * ETag, otherwise the response of {@code load} with the ETag and the resource's Cache-Control
+     * (error responses are returned as they are). JSON and CBOR bodies get different ETags.
+     */
+    public ResponseEntity<?> respond(HttpHeaders request, Resource resource, Long id,
+                                     Supplier<? extends ResponseEntity<?>> load) {
+        String etag = etag(resource, id);
+        if (etag != null && prefersCbor(request)) etag = etag.substring(0, etag.length() - 1) + "-cbor\"";
+        CacheControl cacheControl = cacheControls.get(resource);
+        if (etag != null && matches(request.getFirst(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        ResponseEntity<?> response = load.get();
+        if (!response.getStatusCode().is2xxSuccessful()) return response;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT);
+        if (etag != null) builder.eTag(etag);
+        return builder.body(response.getBody());
+    }
+
+    // the representation content negotiation will pick: JSON unless CBOR is accepted with a higher quality
+    static boolean prefersCbor(HttpHeaders request) {
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(request.getAccept());
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.includes(MediaType.APPLICATION_JSON)) return false;
+            if (type.includes(MediaType.APPLICATION_CBOR)) return true;
+        }
+        return false;
+    }
+
+    // If-None-Match uses the weak comparison: W/ prefixes are ignored
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,32 @@
+package com.provider.service.catalog;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Published whenever something that appears in service listings changes: a service was
+ * saved, or providers' status or profile was updated. {@code providerIds} lists the changed
+ * providers (one event covers a whole bulk update) and {@code pincodes} every pincode whose
+ * listing may be affected (both old and new pincode when it changed).
+ */
+public record CatalogChangedEvent(Long serviceId, Set<Long> providerIds, Set<String> pincodes) {
+
+    public static CatalogChangedEvent serviceChanged(Long serviceId, String pincode) {
+        return new CatalogChangedEvent(serviceId, Set.of(), pincodesOf(Stream.of(pincode)));
+    }
+
+    public static CatalogChangedEvent providerChanged(Long providerId, String... pincodes) {
+        return new CatalogChangedEvent(null, Set.of(providerId), pincodesOf(Stream.of(pincodes)));
+    }
+
+    public static CatalogChangedEvent providersChanged(Collection<Long> providerIds, Collection<String> pincodes) {
+        return new CatalogChangedEvent(null, Set.copyOf(providerIds), pincodesOf(pincodes.stream()));
+    }
+
+    private static Set<String> pincodesOf(Stream<String> pincodes) {
+        return pincodes.filter(Objects::nonNull).filter(p -> !p.isBlank()).collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,51 @@
+package com.provider.service.catalog;
+
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.entity.UserEntity;
+
+/**
+ * Copies catalog entities into plain detached objects so they can be kept in memory
+ * and serialized from any thread without touching a Hibernate session.
+ */
+public final class CatalogSnapshots {
+
+    private CatalogSnapshots() {}
+
+    // the provider must already be initialized (e.g. loaded with a fetch join)
+    public static ServiceEntity copyOf(ServiceEntity s) {
+        ServiceEntity copy = new ServiceEntity();
+        copy.setId(s.getId());
+        copy.setServiceName(s.getServiceName());
+        copy.setDescription(s.getDescription());
+        copy.setPricingPerHour(s.getPricingPerHour());
+        copy.setStatus(s.getStatus());
+        if (s.getProvider() != null) copy.setProvider(copyOf(s.getProvider()));
+        return copy;
+    }
+
+    public static UserEntity copyOf(UserEntity u) {
+        UserEntity copy = new UserEntity();
+        copy.setId(u.getId());
+        copy.setName(u.getName());
+        copy.setEmail(u.getEmail());
+        copy.setRole(u.getRole());
+        copy.setStatus(u.getStatus());
+        copy.setStatus1(u.getStatus1());
+        copy.setServiceType(u.getServiceType());
+        copy.setPincode(u.getPincode());
+        copy.setAddress(u.getAddress());
+        copy.setState(u.getState());
+        copy.setDistrict(u.getDistrict());
+        copy.setPhoneNo(u.getPhoneNo());
+        // never keep the password hash in memory
+        return copy;
+    }
+
+    public static boolean isActiveProvider(ServiceEntity s) {
+        return s.getProvider() != null && "active".equalsIgnoreCase(s.getProvider().getStatus());
+    }
+
+    public static boolean hasPincode(ServiceEntity s, String pincode) {
+        return s.getProvider() != null && pincode.equals(s.getProvider().getPincode());
+    }
+}
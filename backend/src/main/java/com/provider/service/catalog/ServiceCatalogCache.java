@@ -0,0 +1,56 @@
+package com.provider.service.catalog;
+
+import com.provider.service.cache.CacheStats;
+import com.provider.service.cache.LruTtlCache;
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.repository.ServiceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read-through cache of the services offered by active providers, partitioned by pincode.
+ *
+ * Entries are detached snapshots and are dropped as soon as a {@link CatalogChangedEvent}
+ * touches their pincode; the TTL only bounds staleness for changes made outside this app.
+ */
+@Component
+public class ServiceCatalogCache {
+
+    private final ServiceRepository serviceRepository;
+    private final LruTtlCache<String, List<ServiceEntity>> byPincode;
+
+    public ServiceCatalogCache(ServiceRepository serviceRepository,
+                               @Value("${app.catalog.cache.max-entries:2000}") int maxEntries,
+                               @Value("${app.catalog.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.serviceRepository = serviceRepository;
+        this.byPincode = new LruTtlCache<>("serviceCatalog", maxEntries, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public List<ServiceEntity> activeServicesByPincode(String pincode) {
+        return byPincode.get(pincode, this::load);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.pincodes().isEmpty()) {
+            // we don't know which partition is affected, so drop them all
+            byPincode.invalidateAll();
+            return;
+        }
+        event.pincodes().forEach(byPincode::invalidate);
+    }
+
+    public CacheStats stats() {
+        return byPincode.stats();
+    }
+
+    private List<ServiceEntity> load(String pincode) {
+        return serviceRepository.findActiveWithProviderByPincode(pincode, "active").stream()
+                .map(CatalogSnapshots::copyOf)
+                .toList();
+    }
+}
@@ -0,0 +1,259 @@
+package com.provider.service.catalog;
+
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.repository.ServiceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over service names and descriptions.
+ *
+ * Every word of a service is stored in a sorted token map, so a query word matches
+ * any indexed word it is a prefix of ("elec" finds "Electrician"). Multi-word queries
+ * must match all words. The index keeps detached snapshots of the services (with their
+ * provider) so search results can be returned without a database round trip.
+ *
+ * A rebuild reads the whole catalog and then swaps it in. Services and providers reindexed
+ * while it reads are remembered and read again after the swap, so a change that committed
+ * during the rebuild is not overwritten by the rebuild's older copy.
+ */
+@Component
+public class ServiceSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceSearchIndex.class);
+
+    private final ServiceRepository serviceRepository;
+
+    // service id -> detached snapshot
+    private final Map<Long, ServiceEntity> docs = new ConcurrentHashMap<>();
+    // service id -> tokens it was indexed under (needed to remove stale postings)
+    private final Map<Long, Set<String>> docTokens = new ConcurrentHashMap<>();
+    // provider id -> ids of the provider's services
+    private final Map<Long, Set<Long>> byProvider = new ConcurrentHashMap<>();
+    // token -> service ids, sorted so prefix lookups are a range scan
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+
+    private volatile boolean ready = false;
+    // services and providers reindexed while a rebuild reads the catalog; null when none is running
+    private Set<Long> changedDuringRebuild;
+    private Set<Long> providersChangedDuringRebuild;
+    private final Object rebuildLock = new Object();
+
+    public ServiceSearchIndex(ServiceRepository serviceRepository) {
+        this.serviceRepository = serviceRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashSet<>();
+                providersChangedDuringRebuild = new HashSet<>();
+            }
+            Set<Long> changed;
+            Set<Long> providersChanged;
+            try {
+                List<ServiceEntity> all = serviceRepository.findAllWithProvider();
+                synchronized (this) {
+                    docs.clear();
+                    docTokens.clear();
+                    byProvider.clear();
+                    postings.clear();
+                    for (ServiceEntity s : all) put(CatalogSnapshots.copyOf(s));
+                    changed = changedDuringRebuild;
+                    providersChanged = providersChangedDuringRebuild;
+                }
+                ready = true;
+                logger.info("Service search index built with {} services", all.size());
+            } catch (Exception e) {
+                // searches keep falling back to the database until a rebuild succeeds
+                logger.error("Failed to build service search index", e);
+                return;
+            } finally {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                    providersChangedDuringRebuild = null;
+                }
+            }
+            // the swapped-in copies of these may predate their change: read them again
+            try {
+                changed.forEach(this::reindexService);
+                reindexProviders(providersChanged);
+            } catch (Exception e) {
+                logger.error("Failed to reindex services changed during the rebuild", e);
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.serviceId() != null) reindexService(event.serviceId());
+        if (!event.providerIds().isEmpty()) reindexProviders(event.providerIds());
+    }
+
+    // re-read a single service (and its provider) after it has been saved
+    public void reindexService(Long serviceId) {
+        if (serviceId == null) return;
+        synchronized (this) {
+            if (changedDuringRebuild != null) changedDuringRebuild.add(serviceId);
+        }
+        serviceRepository.findWithProviderById(serviceId).ifPresentOrElse(
+                s -> upsert(CatalogSnapshots.copyOf(s)),
+                () -> remove(serviceId));
+    }
+
+    // re-read every service of these providers with one query, e.g. after their status or pincode changed
+    public void reindexProviders(Collection<Long> providerIds) {
+        if (providerIds.isEmpty()) return;
+        synchronized (this) {
+            if (providersChangedDuringRebuild != null) providersChangedDuringRebuild.addAll(providerIds);
+        }
+        List<ServiceEntity> fresh = serviceRepository.findWithProviderByProviderIdIn(providerIds);
+        synchronized (this) {
+            for (Long providerId : providerIds) {
+                List<Long> stale = List.copyOf(byProvider.getOrDefault(providerId, Set.of()));
+                stale.forEach(this::removeInternal);
+            }
+            for (ServiceEntity s : fresh) put(CatalogSnapshots.copyOf(s));
+        }
+    }
+
+    public synchronized void upsert(ServiceEntity snapshot) {
+        removeInternal(snapshot.getId());
+        put(snapshot);
+    }
+
+    public synchronized void remove(Long serviceId) {
+        removeInternal(serviceId);
+    }
+
+    /**
+     * Services of active providers matching every word of {@code q}, optionally restricted to a pincode.
+     * Falls back to a case-insensitive substring match on the service name (the old SQL semantics)
+     * when no word-prefix match exists.
+     */
+    public List<ServiceEntity> search(String q, String pincode) {
+        List<String> terms = tokenize(q);
+        Set<Long> ids = null;
+        for (String term : terms) {
+            Set<Long> matches = prefixMatches(term);
+            if (ids == null) ids = matches;
+            else ids.retainAll(matches);
+            if (ids.isEmpty()) break;
+        }
+
+        Collection<ServiceEntity> candidates;
+        if (ids != null && !ids.isEmpty()) {
+            candidates = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                ServiceEntity s = docs.get(id);
+                if (s != null) candidates.add(s);
+            }
+        } else {
+            String needle = q.trim().toLowerCase(Locale.ROOT);
+            candidates = docs.values().stream()
+                    .filter(s -> s.getServiceName() != null && s.getServiceName().toLowerCase(Locale.ROOT).contains(needle))
+                    .toList();
+        }
+
+        List<ServiceEntity> result = new ArrayList<>();
+        for (ServiceEntity s : candidates) {
+            if (!CatalogSnapshots.isActiveProvider(s)) continue;
+            if (pincode != null && !CatalogSnapshots.hasPincode(s, pincode)) continue;
+            result.add(s);
+        }
+        result.sort(Comparator.comparing(ServiceEntity::getId));
+        return result;
+    }
+
+    // snapshots of all services (of any status) offered by a provider
+    public List<ServiceEntity> servicesOfProvider(Long providerId) {
+        Set<Long> ids = byProvider.get(providerId);
+        if (ids == null) return List.of();
+        List<ServiceEntity> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ServiceEntity s = docs.get(id);
+            if (s != null) result.add(s);
+        }
+        result.sort(Comparator.comparing(ServiceEntity::getId));
+        return result;
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    private Set<Long> prefixMatches(String term) {
+        NavigableMap<String, Set<Long>> range = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        Set<Long> ids = new HashSet<>();
+        for (Set<Long> posting : range.values()) ids.addAll(posting);
+        return ids;
+    }
+
+    private void put(ServiceEntity snapshot) {
+        Set<String> tokens = new HashSet<>(tokenize(snapshot.getServiceName()));
+        tokens.addAll(tokenize(snapshot.getDescription()));
+        docs.put(snapshot.getId(), snapshot);
+        docTokens.put(snapshot.getId(), tokens);
+        if (snapshot.getProvider() != null) {
+            byProvider.computeIfAbsent(snapshot.getProvider().getId(), k -> ConcurrentHashMap.newKeySet()).add(snapshot.getId());
+        }
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(snapshot.getId());
+        }
+    }
+
+    private void removeInternal(Long serviceId) {
+        ServiceEntity old = docs.remove(serviceId);
+        if (old != null && old.getProvider() != null) {
+            byProvider.computeIfPresent(old.getProvider().getId(), (k, ids) -> {
+                ids.remove(serviceId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        Set<String> tokens = docTokens.remove(serviceId);
+        if (tokens == null) return;
+        for (String token : tokens) {
+            postings.computeIfPresent(token, (t, ids) -> {
+                ids.remove(serviceId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) start = i;
+            else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,18 @@
+package com.provider.service.chat;
+
+/**
+ * Raised when a prompt needs an upstream call but the local request budget is used up.
+ */
+public class ChatRateLimitedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ChatRateLimitedException(long retryAfterSeconds) {
+        super("Chat rate limit reached");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
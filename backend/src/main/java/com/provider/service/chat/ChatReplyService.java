@@ -0,0 +1,137 @@
+package com.provider.service.chat;
+
+import com.provider.service.cache.CacheStats;
+import com.provider.service.cache.LruTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Answers chat prompts while keeping upstream traffic low.
+ *
+ * Prompts are normalized (case, whitespace, trailing punctuation) into a cache key. Cached
+ * replies are served directly; identical prompts arriving while an upstream call is in flight
+ * wait for that call instead of starting their own; and upstream calls are admitted by a
+ * token bucket so bursts are refused locally rather than by the provider's quota.
+ */
+@Component
+public class ChatReplyService {
+
+    private final GeminiClient gemini;
+    private final LruTtlCache<String, String> replies;
+    private final int maxCachedPromptLength;
+    private final TokenBucket upstreamBudget;
+
+    // normalized prompt -> reply of the upstream call currently answering it
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    public ChatReplyService(GeminiClient gemini,
+                            @Value("${app.chat.cache.max-entries:1000}") int maxEntries,
+                            @Value("${app.chat.cache.ttl-seconds:3600}") long ttlSeconds,
+                            @Value("${app.chat.cache.max-prompt-length:500}") int maxCachedPromptLength,
+                            @Value("${app.chat.rate-limit.enabled:true}") boolean rateLimitEnabled,
+                            @Value("${app.chat.rate-limit.requests-per-minute:15}") int requestsPerMinute,
+                            @Value("${app.chat.rate-limit.burst:5}") int burst) {
+        this.gemini = gemini;
+        this.replies = new LruTtlCache<>("chatReplies", maxEntries, Duration.ofSeconds(ttlSeconds));
+        this.maxCachedPromptLength = maxCachedPromptLength;
+        this.upstreamBudget = rateLimitEnabled ? new TokenBucket(burst, requestsPerMinute / 60d) : null;
+    }
+
+    /**
+     * Reply to {@code message}. Throws {@link ChatRateLimitedException} when an upstream call is
+     * needed but not allowed right now; upstream failures are rethrown unchanged.
+     */
+    public String reply(String message) throws Exception {
+        String key = normalize(message);
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.increment();
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Exception cause) throw cause;
+                throw e;
+            }
+        }
+
+        try {
+            String reply = cacheable(key) ? replies.getIfPresent(key) : null;
+            if (reply == null) {
+                acquireUpstreamPermit();
+                reply = gemini.generate(message);
+                remember(key, reply);
+            }
+            mine.complete(reply);
+            return reply;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // cached reply for a prompt, or null; used by the streaming endpoint, which can't coalesce
+    public String cachedReply(String message) {
+        String key = normalize(message);
+        return cacheable(key) ? replies.getIfPresent(key) : null;
+    }
+
+    /**
+     * Takes a token for one upstream call.
+     *
+     * @throws ChatRateLimitedException when the budget is used up
+     */
+    public void acquireUpstreamPermit() {
+        if (upstreamBudget != null && !upstreamBudget.tryAcquire()) {
+            rateLimited.increment();
+            throw new ChatRateLimitedException(Math.max(1, upstreamBudget.secondsUntilNextToken()));
+        }
+        upstreamCalls.increment();
+    }
+
+    public void rememberReply(String message, String reply) {
+        remember(normalize(message), reply);
+    }
+
+    private void remember(String key, String reply) {
+        // don't pin a failed generation in the cache
+        if (cacheable(key) && reply != null && !reply.isEmpty() && !GeminiClient.NO_REPLY.equals(reply)) {
+            replies.put(key, reply);
+        }
+    }
+
+    private boolean cacheable(String key) {
+        return key.length() <= maxCachedPromptLength;
+    }
+
+    public ChatReplyStats stats() {
+        return new ChatReplyStats(replies.stats(), upstreamCalls.sum(), coalesced.sum(), rateLimited.sum());
+    }
+
+    // "  What are your  timings?? " and "what are your timings" share a cache entry
+    static String normalize(String message) {
+        String collapsed = message.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        int end = collapsed.length();
+        while (end > 0 && isTrailingPunctuation(collapsed.charAt(end - 1))) end--;
+        return collapsed.substring(0, end).trim();
+    }
+
+    private static boolean isTrailingPunctuation(char c) {
+        return c == '?' || c == '!' || c == '.' || c == ' ';
+    }
+
+    public record ChatReplyStats(CacheStats cache, long upstreamCalls, long coalesced, long rateLimited) {}
+}
@@ -0,0 +1,217 @@
+package com.provider.service.chat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.provider.service.observability.OutboundCalls;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Sends prompts to the Gemini API.
+ *
+ * {@link #generate} waits for the complete generateContent reply. {@link #stream} calls
+ * streamGenerateContent over a shared non-blocking {@link HttpClient} and hands each text
+ * fragment to the caller as soon as its server-sent event line arrives. Both are timed as
+ * {@link OutboundCalls#METRIC}; a stream is timed until its last fragment.
+ */
+@Component
+public class GeminiClient {
+
+    static final String NO_REPLY = "Unable to generate response";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String apiKey;
+    private final String apiUrl;
+    private final String streamUrl;
+    private final Duration streamResponseTimeout;
+    private final HttpClient httpClient;
+    private final MeterRegistry registry;
+
+    public GeminiClient(RestTemplate restTemplate,
+                        ObjectMapper objectMapper,
+                        @Value("${gemini.api.key:}") String apiKey,
+                        @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent}") String apiUrl,
+                        @Value("${gemini.api.stream-url:https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:streamGenerateContent}") String streamUrl,
+                        @Value("${gemini.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                        @Value("${gemini.http.stream-response-timeout-ms:10000}") long streamResponseTimeoutMs,
+                        @Qualifier("applicationTaskExecutor") Executor executor,
+                        MeterRegistry registry) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.apiKey = apiKey;
+        this.apiUrl = apiUrl;
+        this.streamUrl = streamUrl;
+        this.streamResponseTimeout = Duration.ofMillis(streamResponseTimeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(executor)
+                .build();
+        this.registry = registry;
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isEmpty();
+    }
+
+    public String generate(String message) throws Exception {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            // the key is a URI variable so it stays out of the http.client.requests uri tag
+            String response = restTemplate.postForObject(apiUrl + "?key={key}", buildRequest(message), String.class, apiKey);
+            String reply = parseResponse(response);
+            OutboundCalls.record(registry, "gemini", "generate", sample, null);
+            return reply;
+        } catch (Exception e) {
+            OutboundCalls.record(registry, "gemini", "generate", sample, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a streaming generation. {@code onText} is called for every text fragment, in order,
+     * on an HTTP client thread; the returned future completes with the whole reply. Cancelling
+     * the future aborts the upstream call. A non-2xx upstream status fails the future with a
+     * message containing the status code.
+     */
+    public CompletableFuture<String> stream(String message, Consumer<String> onText) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(streamUrl + "?alt=sse&key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8)))
+                    // bounds the wait for the response headers, not the whole stream
+                    .timeout(streamResponseTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "text/event-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(buildRequest(message))))
+                    .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        Timer.Sample sample = Timer.start(registry);
+        EventLineSubscriber lines = new EventLineSubscriber(onText);
+        CompletableFuture<HttpResponse<Void>> exchange = httpClient.sendAsync(request, info ->
+                info.statusCode() / 100 == 2
+                        ? HttpResponse.BodySubscribers.fromLineSubscriber(lines)
+                        : HttpResponse.BodySubscribers.replacing(null));
+        exchange.whenComplete((response, error) -> {
+            if (error != null) lines.fail(error);
+            else if (response.statusCode() / 100 != 2) {
+                lines.fail(new IllegalStateException("Gemini stream failed: " + response.statusCode()));
+            }
+        });
+        lines.reply.whenComplete((reply, error) -> {
+            OutboundCalls.record(registry, "gemini", "stream", sample, error);
+            if (lines.reply.isCancelled()) {
+                lines.cancel();
+                exchange.cancel(true);
+            }
+        });
+        return lines.reply;
+    }
+
+    @PreDestroy
+    public void close() {
+        httpClient.close();
+    }
+
+    private Map<String, Object> buildRequest(String message) {
+        return Map.of("contents", List.of(Map.of("parts", List.of(Map.of("text", message)))));
+    }
+
+    private String parseResponse(String response) throws Exception {
+        String text = firstCandidateText(objectMapper.readTree(response));
+        return text != null ? text : NO_REPLY;
+    }
+
+    private static String firstCandidateText(JsonNode root) {
+        if (root.has("candidates") && root.get("candidates").size() > 0) {
+            JsonNode candidate = root.get("candidates").get(0);
+            if (candidate.has("content")) {
+                JsonNode parts = candidate.get("content").get("parts");
+                if (parts != null && parts.size() > 0 && parts.get(0).has("text")) {
+                    return parts.get(0).get("text").asText();
+                }
+            }
+        }
+        return null;
+    }
+
+    // reads "data: {...}" lines of the upstream event stream, one line at a time
+    private final class EventLineSubscriber implements Flow.Subscriber<String> {
+
+        private final Consumer<String> onText;
+        private final StringBuilder text = new StringBuilder();
+        final CompletableFuture<String> reply = new CompletableFuture<>();
+        private volatile Flow.Subscription subscription;
+
+        EventLineSubscriber(Consumer<String> onText) {
+            this.onText = onText;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (reply.isDone()) subscription.cancel();
+            else subscription.request(1);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (reply.isDone()) return;
+            try {
+                if (line.startsWith("data:")) {
+                    String fragment = firstCandidateText(objectMapper.readTree(line.substring(5)));
+                    if (fragment != null && !fragment.isEmpty()) {
+                        text.append(fragment);
+                        onText.accept(fragment);
+                    }
+                }
+                subscription.request(1);
+            } catch (Exception e) {
+                // unreadable event or the downstream consumer went away
+                fail(e);
+                cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            fail(error);
+        }
+
+        @Override
+        public void onComplete() {
+            reply.complete(text.isEmpty() ? NO_REPLY : text.toString());
+        }
+
+        void fail(Throwable error) {
+            reply.completeExceptionally(error);
+        }
+
+        void cancel() {
+            Flow.Subscription s = subscription;
+            if (s != null) s.cancel();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.provider.service.chat;
+
+/**
+ * Thread-safe token bucket: holds up to {@code capacity} tokens and refills continuously
+ * at {@code refillPerSecond}. A full bucket allows a burst of {@code capacity} calls, after
+ * which calls are admitted at the refill rate.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(int capacity, double refillPerSecond) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        if (refillPerSecond <= 0) throw new IllegalArgumentException("refillPerSecond must be positive");
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    // seconds until the next token is available (0 when one is available now)
+    public synchronized long secondsUntilNextToken() {
+        refill();
+        if (tokens >= 1) return 0;
+        return (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000_000d);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+    }
+}
@@ -1,33 +1,41 @@
 package com.provider.service.config;
 
+import com.provider.service.auth.AdaptiveBCryptPasswordEncoder;
+import com.provider.service.auth.AuthTokenService;
+import com.provider.service.auth.TokenAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.auth.bcrypt.strength:10}") int strength) {
+        // the cost is fixed by configuration so every instance hashes alike; hashes with another cost
+        // are re-hashed on login (AdaptiveBCryptPasswordEncoder#main prints a calibrated value to set here)
+        return new AdaptiveBCryptPasswordEncoder(strength);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthTokenService authTokens) throws Exception {
         // Development-friendly configuration: allow all requests so login/registration
         // can work without a full authentication mechanism. Change before production.
+        // A valid login token still authenticates the request (see /api/users/me).
         http
             .cors(Customizer.withDefaults())
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .anyRequest().permitAll()
             )
-            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new TokenAuthenticationFilter(authTokens), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,14 +1,35 @@
 package com.provider.service.controller;
 
+import com.provider.service.admin.BulkUserUpdates;
+import com.provider.service.admin.UserStatusRow;
+import com.provider.service.auth.AuthTokenService;
+import com.provider.service.cache.ResourceVersions;
+import com.provider.service.catalog.CatalogChangedEvent;
+import com.provider.service.catalog.ServiceCatalogCache;
+import com.provider.service.chat.ChatReplyService;
+import com.provider.service.datasource.DataSourcePools;
+import com.provider.service.dto.BookingView;
 import com.provider.service.dto.UserDto;
 import com.provider.service.entity.UserEntity;
-import com.provider.service.entity.BookingEntity;
 import com.provider.service.repository.UserRepository;
 import com.provider.service.repository.BookingRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @RestController
@@ -18,10 +39,43 @@ public class AdminController {
 
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ServiceCatalogCache catalogCache;
+    private final ChatReplyService chatReplies;
+    private final AuthTokenService authTokens;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final DataSourcePools dataSourcePools;
+    private final BulkUserUpdates bulkUpdates;
+    private final ResourceVersions versions;
 
-    public AdminController(UserRepository userRepository, BookingRepository bookingRepository) {
+    @Value("${app.bookings.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${app.bookings.page.max-size:500}")
+    private int maxPageSize;
+
+    // rows fetched per round trip by the NDJSON export
+    @Value("${app.bookings.export.chunk-size:500}")
+    private int exportChunkSize;
+
+    // ids per bulk verify/status request, named or matched by its filter
+    @Value("${app.admin.bulk.max-ids:1000}")
+    private int maxBulkIds;
+
+    public AdminController(UserRepository userRepository, BookingRepository bookingRepository,
+                           ServiceCatalogCache catalogCache, ChatReplyService chatReplies,
+                           AuthTokenService authTokens, ApplicationEventPublisher events, ObjectMapper objectMapper,
+                           DataSourcePools dataSourcePools, BulkUserUpdates bulkUpdates, ResourceVersions versions) {
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
+        this.catalogCache = catalogCache;
+        this.chatReplies = chatReplies;
+        this.authTokens = authTokens;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.dataSourcePools = dataSourcePools;
+        this.bulkUpdates = bulkUpdates;
+        this.versions = versions;
     }
 
     private UserDto toDto(UserEntity e) {
@@ -69,6 +123,9 @@ public class AdminController {
                         provider.setStatus("active");
                         provider.setStatus1("verified");
                         UserEntity saved = userRepository.save(provider);
+                        authTokens.forgetProfile(saved.getId());
+                        versions.changed(ResourceVersions.Resource.USER, saved.getId());
+                        events.publishEvent(CatalogChangedEvent.providerChanged(saved.getId(), saved.getPincode()));
                         return ResponseEntity.ok(toDto(saved));
                     })
                     .orElse(ResponseEntity.notFound().build());
@@ -94,6 +151,13 @@ public class AdminController {
                         }
                         user.setStatus(status);
                         UserEntity saved = userRepository.save(user);
+                        // open sessions carry the old status; make the account log in again
+                        authTokens.revokeAllFor(saved.getId());
+                        versions.changed(ResourceVersions.Resource.USER, saved.getId());
+                        // only services of active providers are listed
+                        if ("PROVIDER".equals(saved.getRole())) {
+                            events.publishEvent(CatalogChangedEvent.providerChanged(saved.getId(), saved.getPincode()));
+                        }
                         return ResponseEntity.ok(toDto(saved));
                     })
                     .orElse(ResponseEntity.notFound().build());
@@ -119,6 +183,7 @@ public class AdminController {
                         }
                         user.setStatus1(status1);
                         UserEntity saved = userRepository.save(user);
+                        versions.changed(ResourceVersions.Resource.USER, saved.getId());
                         return ResponseEntity.ok(toDto(saved));
                     })
                     .orElse(ResponseEntity.notFound().build());
@@ -127,6 +192,109 @@ public class AdminController {
         }
     }
 
+    // Bulk versions of the three endpoints above, one transaction and one UPDATE per call.
+    // Body: {"ids": [1, 2, ...]} or {"filter": {"status": "pending", "pincode": "411001"}} (plus "role"
+    // for the status updates), and "status" / "status1" for the status updates. Responds with the
+    // outcome per id; caches and search indexes are refreshed once for the whole batch.
+    @PostMapping("/providers/verify")
+    public ResponseEntity<?> verifyProviders(@RequestBody Map<String, Object> payload) {
+        try {
+            BulkUserUpdates.Result result = bulkUpdates.verifyProviders(bulkTargets(payload, "PROVIDER"));
+            result.changedIds().forEach(authTokens::forgetProfile);
+            versions.changed(ResourceVersions.Resource.USER, result.changedIds());
+            publishProvidersChanged(result.changed());
+            return bulkResponse(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to verify providers"));
+        }
+    }
+
+    @PostMapping("/users/status")
+    public ResponseEntity<?> updateUsersStatus(@RequestBody Map<String, Object> payload) {
+        try {
+            if (!(payload.get("status") instanceof String status)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Status is required"));
+            }
+            BulkUserUpdates.Result result = bulkUpdates.updateStatus(bulkTargets(payload, null), status);
+            // open sessions carry the old status; make the accounts log in again
+            result.changedIds().forEach(authTokens::revokeAllFor);
+            versions.changed(ResourceVersions.Resource.USER, result.changedIds());
+            publishProvidersChanged(result.changed());
+            return bulkResponse(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to update status"));
+        }
+    }
+
+    @PostMapping("/users/status1")
+    public ResponseEntity<?> updateUsersStatus1(@RequestBody Map<String, Object> payload) {
+        try {
+            if (!(payload.get("status1") instanceof String status1)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Status1 is required"));
+            }
+            BulkUserUpdates.Result result = bulkUpdates.updateStatus1(bulkTargets(payload, null), status1);
+            versions.changed(ResourceVersions.Resource.USER, result.changedIds());
+            return bulkResponse(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to update status1"));
+        }
+    }
+
+    // the ids a bulk request names, or the ids its filter matches (role fixed when given)
+    private List<Long> bulkTargets(Map<String, Object> payload, String role) {
+        if (payload.get("ids") instanceof List<?> list) {
+            if (list.isEmpty()) throw new IllegalArgumentException("ids must not be empty");
+            if (list.size() > maxBulkIds) throw new IllegalArgumentException("At most " + maxBulkIds + " ids per request");
+            List<Long> ids = new ArrayList<>(list.size());
+            for (Object o : list) {
+                if (!(o instanceof Number n)) throw new IllegalArgumentException("ids must be numbers");
+                ids.add(n.longValue());
+            }
+            return ids;
+        }
+        if (payload.get("filter") instanceof Map<?, ?> filter) {
+            String byRole = role != null ? role : textOf(filter.get("role"));
+            String status = textOf(filter.get("status"));
+            String pincode = textOf(filter.get("pincode"));
+            if (byRole == null && status == null && pincode == null) {
+                throw new IllegalArgumentException("filter needs at least one of role, status, pincode");
+            }
+            List<Long> ids = userRepository.findIdsByFilter(byRole, status, pincode, Limit.of(maxBulkIds + 1));
+            if (ids.size() > maxBulkIds) {
+                throw new IllegalArgumentException("filter matches more than " + maxBulkIds + " users; narrow it or pass ids");
+            }
+            return ids;
+        }
+        throw new IllegalArgumentException("ids or filter is required");
+    }
+
+    private static String textOf(Object value) {
+        return value instanceof String s && !s.isBlank() ? s : null;
+    }
+
+    // one event for every provider the batch changed, so listings and indexes refresh once
+    private void publishProvidersChanged(List<UserStatusRow> changed) {
+        List<UserStatusRow> providers = changed.stream().filter(UserStatusRow::isProvider).toList();
+        if (providers.isEmpty()) return;
+        events.publishEvent(CatalogChangedEvent.providersChanged(
+                providers.stream().map(UserStatusRow::id).toList(),
+                providers.stream().map(UserStatusRow::pincode).filter(Objects::nonNull).collect(Collectors.toSet())));
+    }
+
+    private static ResponseEntity<?> bulkResponse(BulkUserUpdates.Result result) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("requested", result.outcomes().size());
+        body.put("updated", result.changed().size());
+        body.put("results", result.outcomes());
+        return ResponseEntity.ok(body);
+    }
+
     @GetMapping("/users")
     public ResponseEntity<?> getAllUsers() {
         try {
@@ -140,13 +308,56 @@ public class AdminController {
         }
     }
 
+    // keyset-paginated: ?afterId=<last id of previous page>&limit=<n>, next cursor in X-Next-Cursor
     @GetMapping("/bookings")
-    public ResponseEntity<?> getAllBookings() {
+    public ResponseEntity<?> getAllBookings(@RequestParam(required = false) Long afterId,
+                                            @RequestParam(required = false) Integer limit) {
         try {
-            List<BookingEntity> bookings = bookingRepository.findAll();
-            return ResponseEntity.ok(bookings);
+            int size = Paging.pageSize(limit, defaultPageSize, maxPageSize);
+            List<BookingView> rows = bookingRepository.findViews(Paging.after(afterId), Paging.probe(size));
+            return Paging.page(rows, size, BookingView::getId);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", "Failed to fetch bookings"));
         }
     }
-}
\ No newline at end of file
+
+    // Streams every booking as newline-delimited JSON. Rows are fetched in keyset chunks and
+    // written as they arrive, so memory use does not grow with the size of the table.
+    @GetMapping(value = "/bookings/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportBookings() {
+        StreamingResponseBody body = out -> {
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.setRootValueSeparator(new SerializedString("\n"));
+                long after = 0L;
+                long written = 0L;
+                while (true) {
+                    // DTO rows are not managed, so nothing accumulates in the persistence context
+                    List<BookingView> chunk = bookingRepository.findViews(after, Limit.of(exportChunkSize));
+                    for (BookingView b : chunk) writer.writeValue(gen, b);
+                    written += chunk.size();
+                    if (chunk.size() < exportChunkSize) break;
+                    after = chunk.get(chunk.size() - 1).getId();
+                    gen.flush();
+                }
+                if (written > 0) gen.writeRaw('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    // hit/miss counters of the in-memory caches, used to size them
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok(Map.of(
+                "serviceCatalog", catalogCache.stats(),
+                "chat", chatReplies.stats(),
+                "authTokens", authTokens.stats()));
+    }
+
+    // connection pool gauges per pool (primary and read replicas) and how many connections each was routed
+    @GetMapping("/datasource-stats")
+    public ResponseEntity<?> getDataSourceStats() {
+        return ResponseEntity.ok(dataSourcePools.stats());
+    }
+}
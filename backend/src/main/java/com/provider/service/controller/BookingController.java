@@ -1,24 +1,42 @@
 package com.provider.service.controller;
 
+import com.provider.service.auth.AuthPrincipal;
+import com.provider.service.auth.StreamTickets;
+import com.provider.service.booking.BookingEvents;
+import com.provider.service.booking.BookingPatch;
+import com.provider.service.booking.BookingStateMachine;
+import com.provider.service.booking.BookingStatus;
+import com.provider.service.booking.BookingStreamHub;
+import com.provider.service.booking.BookingTransition;
+import com.provider.service.booking.BookingUpdateBatcher;
+import com.provider.service.booking.ProviderAvailabilityIndex;
+import com.provider.service.booking.SlotUnavailableException;
+import com.provider.service.dto.BookingView;
 import com.provider.service.entity.BookingEntity;
 import com.provider.service.entity.ServiceEntity;
+import com.provider.service.outbox.Outbox;
+import com.provider.service.payment.PaymentGatewayException;
+import com.provider.service.payment.RazorpayGatewayClient;
+import com.provider.service.payment.RazorpaySignatureVerifier;
 import com.provider.service.repository.ServiceRepository;
 import com.provider.service.repository.BookingRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import org.json.JSONObject;
-
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -27,20 +45,45 @@ public class BookingController {
     private final BookingRepository bookingRepository;
     private final ServiceRepository serviceRepository;
     private final com.provider.service.repository.UserRepository userRepository;
+    private final RazorpayGatewayClient paymentGateway;
+    private final RazorpaySignatureVerifier signatureVerifier;
+    private final BookingUpdateBatcher updateBatcher;
+    private final BookingStateMachine stateMachine;
+    private final ProviderAvailabilityIndex availability;
+    private final TransactionTemplate transactions;
+    private final Outbox outbox;
+    private final BookingStreamHub streams;
+    private final StreamTickets streamTickets;
 
     private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
 
-    public BookingController(BookingRepository bookingRepository, ServiceRepository serviceRepository, com.provider.service.repository.UserRepository userRepository) {
+    public BookingController(BookingRepository bookingRepository, ServiceRepository serviceRepository, com.provider.service.repository.UserRepository userRepository,
+                             RazorpayGatewayClient paymentGateway, RazorpaySignatureVerifier signatureVerifier,
+                             BookingUpdateBatcher updateBatcher, BookingStateMachine stateMachine,
+                             ProviderAvailabilityIndex availability, TransactionTemplate transactions, Outbox outbox,
+                             BookingStreamHub streams, StreamTickets streamTickets) {
         this.bookingRepository = bookingRepository;
         this.serviceRepository = serviceRepository;
         this.userRepository = userRepository;
+        this.paymentGateway = paymentGateway;
+        this.signatureVerifier = signatureVerifier;
+        this.updateBatcher = updateBatcher;
+        this.stateMachine = stateMachine;
+        this.availability = availability;
+        this.transactions = transactions;
+        this.outbox = outbox;
+        this.streams = streams;
+        this.streamTickets = streamTickets;
     }
 
     @Value("${razorpay.key_id:}")
     private String razorpayKeyId;
 
-    @Value("${razorpay.key_secret:}")
-    private String razorpayKeySecret;
+    @Value("${app.bookings.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${app.bookings.page.max-size:500}")
+    private int maxPageSize;
 
     @PostMapping
     public ResponseEntity<?> createBooking(@RequestBody java.util.Map<String, Object> payload) {
@@ -62,19 +105,97 @@ public class BookingController {
             booking.setAddress((String) payload.getOrDefault("address", ""));
             booking.setProviderNote((String) payload.getOrDefault("providerNote", null));
             booking.setUserNote((String) payload.getOrDefault("userNote", null));
-            booking.setStatus("BOOKED");
+            booking.setStatus(BookingStatus.BOOKED);
             if(payload.get("date") == null) booking.setDate(LocalDateTime.now());
             else booking.setDate(LocalDateTime.parse(payload.get("date").toString()));
 
-            BookingEntity saved = bookingRepository.save(booking);
+            // refuse a second booking in an occupied slot; the check and the insert happen under the provider's lock
+            Long providerId = booking.getProviderId();
+            BookingEntity saved = providerId == null
+                    ? insert(booking)
+                    : availability.reserve(providerId, booking.getDate(), () -> insert(booking), BookingEntity::getId);
             return ResponseEntity.ok(saved);
+        }catch(SlotUnavailableException taken){
+            return ResponseEntity.status(409).body(Map.of(
+                    "error", "Provider is not available at that time",
+                    "nextFreeSlots", availability.nextFreeSlots(taken.getProviderId(), taken.getStart(), 3)));
         }catch(Exception e){
             logger.error("Failed to create booking", e);
             return ResponseEntity.status(500).body("Failed to create booking: " + e.getMessage());
         }
     }
 
-    // Provider accepts booking and sets an amount. This creates a Razorpay order and sets booking to AWAITING_PAYMENT.
+    // the booking and its outbox event are committed together
+    private BookingEntity insert(BookingEntity booking) {
+        return transactions.execute(status -> {
+            BookingEntity saved = bookingRepository.save(booking);
+            outbox.append(BookingEvents.CREATED, saved.getId(), BookingEvents.created(saved));
+            return saved;
+        });
+    }
+
+    // Server-sent "booking" events carrying the list row of each of the caller's bookings as it changes
+    // (created, status, notes), so dashboards merge rows instead of re-fetching their lists. ?as=provider
+    // streams a provider's bookings (the default for providers), ?as=user the bookings the caller made.
+    // EventSource cannot send headers, so it passes a ?ticket= from POST /stream/ticket instead of the login token.
+    @GetMapping("/stream")
+    public ResponseEntity<?> streamBookings(@AuthenticationPrincipal AuthPrincipal current,
+                                            @RequestParam(required = false) String ticket,
+                                            @RequestParam(required = false) String as) {
+        AuthPrincipal principal = current != null ? current : streamTickets.redeem(ticket);
+        if (principal == null) return ResponseEntity.status(401).body(Map.of("error", "Login required"));
+        boolean provider = "PROVIDER".equals(principal.role());
+        BookingStreamHub.Audience audience = as == null
+                ? (provider ? BookingStreamHub.Audience.PROVIDER : BookingStreamHub.Audience.USER)
+                : "provider".equalsIgnoreCase(as) ? BookingStreamHub.Audience.PROVIDER : BookingStreamHub.Audience.USER;
+        if (audience == BookingStreamHub.Audience.PROVIDER && !provider) {
+            return ResponseEntity.status(403).body(Map.of("error", "Only providers can stream provider bookings"));
+        }
+        SseEmitter emitter = streams.subscribe(audience, principal.userId());
+        if (emitter == null) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", "Too many open booking streams"));
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    // short-lived, single-use ticket that opens one /stream for the logged-in caller
+    @PostMapping("/stream/ticket")
+    public ResponseEntity<?> streamTicket(@AuthenticationPrincipal AuthPrincipal current) {
+        if (current == null) return ResponseEntity.status(401).body(Map.of("error", "Login required"));
+        String ticket = streamTickets.issue(current);
+        if (ticket == null) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", "Too many pending stream tickets"));
+        }
+        return ResponseEntity.ok(Map.of("ticket", ticket, "expiresInSeconds", streamTickets.ttlSeconds()));
+    }
+
+    // Is the provider free for [from, to)? "to" defaults to one slot after "from".
+    @GetMapping("/availability")
+    public ResponseEntity<?> availability(@RequestParam Long providerId,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to == null ? from.plus(availability.slotLength()) : to;
+        if (!end.isAfter(from)) return ResponseEntity.badRequest().body(Map.of("error", "to must be after from"));
+        return ResponseEntity.ok(Map.of("providerId", providerId, "from", from, "to", end,
+                "free", availability.isFree(providerId, from, end)));
+    }
+
+    // next free slots of a provider from "from" (default now)
+    @GetMapping("/slots")
+    public ResponseEntity<?> freeSlots(@RequestParam Long providerId,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                       @RequestParam(defaultValue = "5") int count) {
+        LocalDateTime start = from == null ? LocalDateTime.now().withSecond(0).withNano(0) : from;
+        return ResponseEntity.ok(Map.of("providerId", providerId,
+                "slotMinutes", availability.slotLength().toMinutes(),
+                "slots", availability.nextFreeSlots(providerId, start, count)));
+    }
+
+    // Provider accepts booking and sets an amount. The booking moves to PAYMENT_ORDER_PENDING and the
+    // Razorpay order is created in the background; the booking moves to AWAITING_PAYMENT once the gateway answers.
+    // Accepting is a conditional transition, so it cannot overwrite a concurrent cancel or reject.
     @PostMapping("/{id}/accept")
     public ResponseEntity<?> acceptBooking(@PathVariable Long id, @RequestBody java.util.Map<String, Object> payload) {
         try {
@@ -92,106 +213,67 @@ public class BookingController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Invalid amount; must be a positive number"));
             }
             String providerNote = payload.get("providerNote") == null ? null : payload.get("providerNote").toString();
-            if (amount == null) return ResponseEntity.badRequest().body(Map.of("error", "amount is required"));
-
-            BookingEntity booking = bookingRepository.findById(id).orElse(null);
-            if (booking == null) return ResponseEntity.notFound().build();
+            // amount in paise
+            long amtPaise = Math.round(amount * 100);
+            if (amtPaise <= 0) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Amount too small after conversion; must be at least 0.01"));
+            }
 
-            booking.setProviderAmount(amount);
-            if (providerNote != null) booking.setProviderNote(providerNote);
-            booking.setStatus("AWAITING_PAYMENT");
+            boolean createOrder = paymentGateway.isConfigured();
+            BookingStatus target = createOrder ? BookingStatus.PAYMENT_ORDER_PENDING : BookingStatus.AWAITING_PAYMENT;
+            final Double quoted = amount;
+            BookingTransition accepted = stateMachine.transition(id, target,
+                    from -> bookingRepository.acceptQuote(id, from, target, quoted, providerNote));
+            if (accepted.outcome() != BookingTransition.Outcome.APPLIED) return transitionFailed(accepted);
 
-            // create razorpay order if keys available
-            if (razorpayKeyId != null && !razorpayKeyId.isBlank() && razorpayKeySecret != null && !razorpayKeySecret.isBlank()) {
+            if (createOrder) {
                 try {
-                    JSONObject orderRequest = new JSONObject();
-                    // amount in paise
-                    int amtPaise = (int) Math.round(amount * 100);
-                    if (amtPaise <= 0) {
-                        return ResponseEntity.badRequest().body(Map.of("error", "Amount too small after conversion; must be at least 0.01"));
-                    }
-                    orderRequest.put("amount", amtPaise);
-                    orderRequest.put("currency", "INR");
-                    orderRequest.put("receipt", "booking_" + id);
-                    orderRequest.put("payment_capture", 1);
-
-                    java.net.URL url = new java.net.URL("https://api.razorpay.com/v1/orders");
-                    java.net.HttpURLConnection conn = (java.net.HttpURLConnection) url.openConnection();
-                    conn.setRequestMethod("POST");
-                    conn.setDoOutput(true);
-                    String auth = razorpayKeyId + ":" + razorpayKeySecret;
-                    String encoded = java.util.Base64.getEncoder().encodeToString(auth.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                    conn.setRequestProperty("Authorization", "Basic " + encoded);
-                    conn.setRequestProperty("Content-Type", "application/json");
-
-                    try (java.io.OutputStream os = conn.getOutputStream()) {
-                        byte[] input = orderRequest.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
-                        os.write(input, 0, input.length);
-                    }
-
-                    int status = conn.getResponseCode();
-                    java.io.InputStream is = status >= 200 && status < 300 ? conn.getInputStream() : conn.getErrorStream();
-                    java.io.StringWriter sw = new java.io.StringWriter();
-                    try (java.io.BufferedReader br = new java.io.BufferedReader(new java.io.InputStreamReader(is, java.nio.charset.StandardCharsets.UTF_8))) {
-                        String line;
-                        while ((line = br.readLine()) != null) {
-                            sw.write(line);
+                    paymentGateway.createOrder(amtPaise, "booking_" + id).whenComplete((orderId, error) -> {
+                        if (error == null) {
+                            settlePaymentOrder(id, BookingStatus.AWAITING_PAYMENT, () -> bookingRepository.completePaymentOrder(id, orderId));
+                        } else {
+                            logger.error("Failed to create payment order for booking {}", id, error);
+                            settlePaymentOrder(id, BookingStatus.BOOKED, () -> bookingRepository.revertPaymentOrder(id));
                         }
-                    }
-                    String respText = sw.toString();
-                    if (status < 200 || status >= 300) {
-                        return ResponseEntity.status(502).body(Map.of("error", "Razorpay order creation failed", "details", respText));
-                    }
-                    JSONObject respJson = new JSONObject(respText);
-                    String orderId = respJson.optString("id", null);
-                    if (orderId == null) {
-                        return ResponseEntity.status(502).body(Map.of("error", "Razorpay response missing order id", "response", respJson.toString()));
-                    }
-                    booking.setRazorpayOrderId(orderId);
-                } catch (Exception re) {
-                    logger.error("Failed to create payment order", re);
-                    return ResponseEntity.status(502).body(Map.of("error", "Failed to create payment order: " + re.getMessage()));
+                    });
+                } catch (PaymentGatewayException busy) {
+                    settlePaymentOrder(id, BookingStatus.BOOKED, () -> bookingRepository.revertPaymentOrder(id));
+                    return ResponseEntity.status(503).body(Map.of("error", busy.getMessage()));
                 }
             }
-
-            // read some fields before saving to avoid lazy-loading after session close
-            Long svcId = null;
-            String svcName = null;
-            Long uId = null;
-            String uName = null;
-            try {
-                if (booking.getService() != null) {
-                    svcId = booking.getService().getId();
-                    svcName = booking.getService().getServiceName();
-                }
-            } catch (Exception ignore) {}
-            try {
-                if (booking.getUser() != null) {
-                    uId = booking.getUser().getId();
-                    uName = booking.getUser().getName();
-                }
-            } catch (Exception ignore) {}
-
-            BookingEntity saved = bookingRepository.save(booking);
             // construct a minimal DTO to avoid lazy-loading/serialization problems
+            BookingView saved = bookingRepository.findViewsByIdIn(List.of(id)).get(0);
             java.util.Map<String, Object> binfo = new java.util.HashMap<>();
             binfo.put("id", saved.getId());
-            binfo.put("status", saved.getStatus());
+            binfo.put("status", target.name());
             binfo.put("providerAmount", saved.getProviderAmount());
-            binfo.put("razorpayOrderId", saved.getRazorpayOrderId());
+            binfo.put("razorpayOrderId", null);
             binfo.put("razorpayPaymentId", saved.getRazorpayPaymentId());
             binfo.put("providerId", saved.getProviderId());
-            if (svcId != null) binfo.put("serviceId", svcId);
-            if (svcName != null) binfo.put("serviceName", svcName);
-            if (uId != null) binfo.put("userId", uId);
-            if (uName != null) binfo.put("userName", uName);
-            return ResponseEntity.ok(Map.of("booking", binfo, "keyId", razorpayKeyId));
+            if (saved.getService() != null) {
+                binfo.put("serviceId", saved.getService().id());
+                binfo.put("serviceName", saved.getService().serviceName());
+            }
+            if (saved.getUser() != null) {
+                binfo.put("userId", saved.getUser().id());
+                binfo.put("userName", saved.getUser().name());
+            }
+            return ResponseEntity.status(createOrder ? 202 : 200).body(Map.of("booking", binfo, "keyId", razorpayKeyId));
         } catch (Exception e) {
             logger.error("Failed to accept booking", e);
             return ResponseEntity.status(500).body(Map.of("error", "Failed to accept booking: " + e.getMessage()));
         }
     }
 
+    // ends PAYMENT_ORDER_PENDING; the status change and its outbox event are committed together
+    private void settlePaymentOrder(Long id, BookingStatus to, java.util.function.IntSupplier update) {
+        transactions.executeWithoutResult(status -> {
+            if (update.getAsInt() == 1) {
+                outbox.append(BookingEvents.STATUS_CHANGED, id, BookingEvents.statusChanged(BookingStatus.PAYMENT_ORDER_PENDING, to));
+            }
+        });
+    }
+
     // Verify payment signature sent from client after successful payment
     @PostMapping("/{id}/verify")
     public ResponseEntity<?> verifyPayment(@PathVariable Long id, @RequestBody java.util.Map<String, Object> payload) {
@@ -204,28 +286,16 @@ public class BookingController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Missing payment verification parameters"));
             }
 
-            // compute expected signature: HMAC_SHA256(orderId + "|" + paymentId, secret)
-            String data = razorpayOrderId + "|" + razorpayPaymentId;
-            Mac sha256_HMAC = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secret_key = new SecretKeySpec(razorpayKeySecret.getBytes(), "HmacSHA256");
-            sha256_HMAC.init(secret_key);
-            byte[] hash = sha256_HMAC.doFinal(data.getBytes());
-            // convert to hex lowercase
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hash) sb.append(String.format("%02x", b & 0xff));
-            String expected = sb.toString();
-
-            if (!expected.equals(razorpaySignature)) {
+            // signature = hex(HMAC_SHA256(orderId + "|" + paymentId, secret))
+            if (!signatureVerifier.verify(razorpayOrderId, razorpayPaymentId, razorpaySignature)) {
                 return ResponseEntity.status(400).body(Map.of("error", "Invalid signature"));
             }
 
-            // mark booking as paid
-            BookingEntity booking = bookingRepository.findById(id).orElse(null);
-            if (booking == null) return ResponseEntity.notFound().build();
-            booking.setRazorpayPaymentId(razorpayPaymentId);
-            booking.setStatus("PAID");
-            BookingEntity saved = bookingRepository.save(booking);
-            return ResponseEntity.ok(Map.of("booking", saved));
+            // mark booking as paid; a repeated verify of a paid booking just returns it
+            BookingTransition paid = stateMachine.transition(id, BookingStatus.PAID,
+                    from -> bookingRepository.markPaid(id, from, BookingStatus.PAID, razorpayPaymentId));
+            if (!paid.succeeded()) return transitionFailed(paid);
+            return ResponseEntity.ok(Map.of("booking", bookingRepository.findViewsByIdIn(List.of(id)).get(0)));
         } catch (Exception e) {
             logger.error("Failed to verify payment", e);
             return ResponseEntity.status(500).body(Map.of("error", "Failed to verify payment: " + e.getMessage()));
@@ -236,6 +306,10 @@ public class BookingController {
     @GetMapping("/{id}/order")
     public ResponseEntity<?> getOrderInfo(@PathVariable Long id) {
         return bookingRepository.findById(id).map(b -> {
+            if (b.getRazorpayOrderId() == null) {
+                // order creation is still running (PAYMENT_ORDER_PENDING) or was never requested
+                return ResponseEntity.status(409).body(Map.of("error", "Payment order not available", "status", String.valueOf(b.getStatus())));
+            }
             return ResponseEntity.ok(Map.of(
                 "orderId", b.getRazorpayOrderId(),
                 "amount", b.getProviderAmount(),
@@ -245,88 +319,110 @@ public class BookingController {
         }).orElse(ResponseEntity.notFound().build());
     }
 
+    // keyset-paginated: ?afterId=<last id of previous page>&limit=<n>, next cursor in X-Next-Cursor
+    // (admins export every booking as NDJSON from /api/admin/bookings/export)
     @GetMapping
-    public List<BookingEntity> listBookings(@RequestParam(required = false) Long userId,
-                                           @RequestParam(required = false) Long providerId) {
+    public ResponseEntity<List<BookingView>> listBookings(@RequestParam(required = false) Long userId,
+                                                            @RequestParam(required = false) Long providerId,
+                                                            @RequestParam(required = false) Long afterId,
+                                                            @RequestParam(required = false) Integer limit) {
         try {
-            if (userId != null) return bookingRepository.findByUserId(userId);
-            if (providerId != null) {
-                // prefer the direct providerId column lookup if available
-                try {
-                    return bookingRepository.findByProviderId(providerId);
-                } catch (Exception e) {
-                    // fallback to joining via service.provider
-                    return bookingRepository.findByService_Provider_Id(providerId);
-                }
+            BiFunction<Long, Limit, List<BookingView>> query;
+            if (userId != null) {
+                query = (after, max) -> bookingRepository.findViewsByUserId(userId, after, max);
+            } else if (providerId != null) {
+                query = (after, max) -> {
+                    // prefer the direct providerId column lookup if available
+                    try {
+                        return bookingRepository.findViewsByProviderId(providerId, after, max);
+                    } catch (Exception e) {
+                        // fallback to joining via service.provider
+                        return bookingRepository.findViewsByServiceProviderId(providerId, after, max);
+                    }
+                };
+            } else {
+                query = bookingRepository::findViews;
             }
-            return bookingRepository.findAll();
+            int size = Paging.pageSize(limit, defaultPageSize, maxPageSize);
+            return Paging.page(query.apply(Paging.after(afterId), Paging.probe(size)), size, BookingView::getId);
         } catch (Exception e) {
             logger.error("Failed to list bookings", e);
             throw new RuntimeException("Failed to list bookings: " + e.getMessage());
         }
     }
 
+    // Status changes are conditional transitions (BookingStateMachine); note changes go through the
+    // write-behind batcher, which merges concurrent updates to the same booking into one JDBC batch.
+    // All of these answer with the booking's list row.
     @PutMapping("/{id}/status")
-    public ResponseEntity<?> updateStatus(@PathVariable Long id, @RequestParam String status) {
-        // support optional providerNote when updating status
-        return bookingRepository.findById(id).map(b -> {
-            b.setStatus(status);
-            return ResponseEntity.ok(bookingRepository.save(b));
-        }).orElse(ResponseEntity.notFound().build());
+    public CompletableFuture<ResponseEntity<?>> updateStatus(@PathVariable Long id, @RequestParam String status) {
+        return applyUpdate(id, status, BookingPatch.fromParams(null, null));
     }
 
-    // Patch booking: accept JSON body with optional fields { status, providerNote }
+    // Patch booking: accept JSON body with optional fields { status, providerNote, userNote }
     @PatchMapping("/{id}")
-    public ResponseEntity<?> patchBooking(@PathVariable Long id, @RequestBody java.util.Map<String, Object> payload) {
-        return bookingRepository.findById(id).map(b -> {
-            if (payload.containsKey("status") && payload.get("status") != null) {
-                b.setStatus(payload.get("status").toString());
-            }
-            if (payload.containsKey("providerNote")) {
-                Object note = payload.get("providerNote");
-                b.setProviderNote(note == null ? null : note.toString());
-            }
-            if (payload.containsKey("userNote")) {
-                Object un = payload.get("userNote");
-                b.setUserNote(un == null ? null : un.toString());
-            }
-            BookingEntity saved = bookingRepository.save(b);
-            return ResponseEntity.ok(saved);
-        }).orElse(ResponseEntity.notFound().build());
+    public CompletableFuture<ResponseEntity<?>> patchBooking(@PathVariable Long id, @RequestBody java.util.Map<String, Object> payload) {
+        return applyUpdate(id, statusOf(payload), BookingPatch.fromPayload(payload));
     }
 
     // Fallback POST endpoint for environments where PATCH may not be available from client
     @PostMapping("/{id}/note")
-    public ResponseEntity<?> postProviderNote(@PathVariable Long id, @RequestBody java.util.Map<String, Object> payload) {
-        return bookingRepository.findById(id).map(b -> {
-            if (payload.containsKey("providerNote")) {
-                Object note = payload.get("providerNote");
-                b.setProviderNote(note == null ? null : note.toString());
-            }
-            if (payload.containsKey("userNote")) {
-                Object un = payload.get("userNote");
-                b.setUserNote(un == null ? null : un.toString());
-            }
-            if (payload.containsKey("status") && payload.get("status") != null) {
-                b.setStatus(payload.get("status").toString());
-            }
-            BookingEntity saved = bookingRepository.save(b);
-            return ResponseEntity.ok(saved);
-        }).orElse(ResponseEntity.notFound().build());
+    public CompletableFuture<ResponseEntity<?>> postProviderNote(@PathVariable Long id, @RequestBody java.util.Map<String, Object> payload) {
+        return applyUpdate(id, statusOf(payload), BookingPatch.fromPayload(payload));
     }
 
     // Alternate POST endpoint accepting providerNote and status as request parameters (form/url-encoded)
     @PostMapping("/{id}/note-form")
-    public ResponseEntity<?> postProviderNoteForm(@PathVariable Long id,
+    public CompletableFuture<ResponseEntity<?>> postProviderNoteForm(@PathVariable Long id,
                                                   @RequestParam(required = false) String providerNote,
                                                   @RequestParam(required = false) String status,
                                                   @RequestParam(required = false) String userNote) {
-        return bookingRepository.findById(id).map(b -> {
-            if (providerNote != null) b.setProviderNote(providerNote);
-            if (userNote != null) b.setUserNote(userNote);
-            if (status != null) b.setStatus(status);
-            BookingEntity saved = bookingRepository.save(b);
-            return ResponseEntity.ok(saved);
-        }).orElse(ResponseEntity.notFound().build());
+        return applyUpdate(id, status, BookingPatch.fromParams(providerNote, userNote));
+    }
+
+    private static String statusOf(java.util.Map<String, Object> payload) {
+        Object status = payload.get("status");
+        return status == null ? null : status.toString();
+    }
+
+    private CompletableFuture<ResponseEntity<?>> applyUpdate(Long id, String status, BookingPatch notes) {
+        if (status != null) {
+            BookingStatus target = BookingStatus.parse(status);
+            if (target == null || target == BookingStatus.UNKNOWN) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", "Unknown booking status: " + status)));
+            }
+            // quotes go through /accept and payments through /verify, which checks the Razorpay signature
+            if (target.isSetByPaymentFlow()) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                        "error", "Booking status " + target + " is set by the payment flow, not directly")));
+            }
+            BookingTransition moved = stateMachine.transition(id, target);
+            if (!moved.succeeded()) return CompletableFuture.completedFuture(transitionFailed(moved));
+        }
+        if (notes.isEmpty()) {
+            List<BookingView> rows = bookingRepository.findViewsByIdIn(List.of(id));
+            ResponseEntity<?> response = rows.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(rows.get(0));
+            return CompletableFuture.completedFuture(response);
+        }
+        return updateBatcher.submit(id, notes).handle((view, error) -> {
+            if (error != null) {
+                logger.error("Failed to update booking {}", id, error);
+                return ResponseEntity.status(500).body(Map.of("error", "Failed to update booking: " + error.getMessage()));
+            }
+            return view == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(view);
+        });
+    }
+
+    // 404 for a missing booking, 409 with the current status when the move is not allowed or kept losing races
+    private static ResponseEntity<?> transitionFailed(BookingTransition transition) {
+        return switch (transition.outcome()) {
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case CONFLICT -> ResponseEntity.status(409).body(Map.of(
+                    "error", "Booking was updated concurrently, please retry",
+                    "status", String.valueOf(transition.current())));
+            default -> ResponseEntity.status(409).body(Map.of(
+                    "error", "Cannot change booking from " + transition.current() + " to " + transition.target(),
+                    "status", String.valueOf(transition.current())));
+        };
     }
 }
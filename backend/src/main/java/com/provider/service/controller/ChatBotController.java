@@ -1,33 +1,41 @@
 package com.provider.service.controller;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.provider.service.chat.ChatRateLimitedException;
+import com.provider.service.chat.ChatReplyService;
+import com.provider.service.chat.GeminiClient;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.HashMap;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/chat")
 @CrossOrigin(origins = "*")
 public class ChatBotController {
 
-    @Value("${gemini.api.key:}")
-    private String apiKey;
+    private final GeminiClient gemini;
+    private final ChatReplyService chatReplies;
 
-    @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent}")
-    private String apiUrl;
+    // upper bound for one streamed reply; the emitter is closed after this
+    @Value("${app.chat.stream.timeout-ms:60000}")
+    private long streamTimeoutMs;
 
-    @Autowired
-    private RestTemplate restTemplate;
+    public ChatBotController(GeminiClient gemini, ChatReplyService chatReplies) {
+        this.gemini = gemini;
+        this.chatReplies = chatReplies;
+    }
 
     @PostMapping
     public ResponseEntity<?> chat(@RequestBody ChatRequest request) {
         try {
-            if (apiKey == null || apiKey.isEmpty()) {
+            if (!gemini.isConfigured()) {
                 return ResponseEntity.ok(Map.of("reply", "API key not configured"));
             }
 
@@ -36,48 +44,92 @@ public class ChatBotController {
                 return ResponseEntity.ok(Map.of("reply", "Message cannot be empty"));
             }
 
-            Map<String, Object> reqBody = buildRequest(message);
-            String response = restTemplate.postForObject(apiUrl + "?key=" + apiKey, reqBody, String.class);
-            String reply = parseResponse(response);
-
+            String reply = chatReplies.reply(message);
             return ResponseEntity.ok(Map.of("reply", reply));
 
+        } catch (ChatRateLimitedException e) {
+            return rateLimited(e);
         } catch (Exception e) {
-            if (e.getMessage() != null && e.getMessage().contains("429")) {
-                return ResponseEntity.ok(Map.of(
-                    "reply", "Quota exceeded. Enable billing at https://console.cloud.google.com to continue."
-                ));
-            }
-            return ResponseEntity.ok(Map.of("reply", "Error: " + e.getMessage()));
+            return ResponseEntity.ok(Map.of("reply", errorReply(e)));
         }
     }
 
-    private Map<String, Object> buildRequest(String message) {
-        Map<String, Object> request = new HashMap<>();
-        Map<String, Object> content = new HashMap<>();
-        Map<String, String> part = new HashMap<>();
-
-        part.put("text", message);
-        content.put("parts", new Object[]{part});
-        request.put("contents", new Object[]{content});
+    /**
+     * Relays the model's streaming output as server-sent events: a "chunk" event ({@code {"text": ...}})
+     * per fragment, then "done" ({@code {"reply": <full text>}}) or "error" ({@code {"reply": <message>}}).
+     * The request thread is released immediately; fragments are written from the HTTP client's threads.
+     * Accepts {@code ?message=} (for EventSource) or the same JSON body as {@code POST /api/chat}.
+     */
+    @RequestMapping(value = "/stream", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<?> stream(@RequestParam(required = false) String message,
+                                    @RequestBody(required = false) ChatRequest request) {
+        String prompt = request != null && request.getMessage() != null ? request.getMessage() : message;
+        if (!gemini.isConfigured()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("reply", "API key not configured"));
+        }
+        if (prompt == null || prompt.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("reply", "Message cannot be empty"));
+        }
 
-        return request;
-    }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        String cached = chatReplies.cachedReply(prompt);
+        if (cached != null) {
+            try {
+                emitter.send(SseEmitter.event().name("chunk").data(Map.of("text", cached)));
+                emitter.send(SseEmitter.event().name("done").data(Map.of("reply", cached)));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+            return ResponseEntity.ok(emitter);
+        }
 
-    private String parseResponse(String response) throws Exception {
-        JsonNode root = new ObjectMapper().readTree(response);
+        try {
+            chatReplies.acquireUpstreamPermit();
+        } catch (ChatRateLimitedException e) {
+            return rateLimited(e);
+        }
 
-        if (root.has("candidates") && root.get("candidates").size() > 0) {
-            JsonNode candidate = root.get("candidates").get(0);
-            if (candidate.has("content")) {
-                JsonNode parts = candidate.get("content").get("parts");
-                if (parts.size() > 0 && parts.get(0).has("text")) {
-                    return parts.get(0).get("text").asText();
+        CompletableFuture<String> reply = gemini.stream(prompt, fragment -> {
+            try {
+                emitter.send(SseEmitter.event().name("chunk").data(Map.of("text", fragment)));
+            } catch (IOException e) {
+                // client went away; failing here cancels the upstream call
+                throw new UncheckedIOException(e);
+            }
+        });
+        reply.whenComplete((full, error) -> {
+            if (reply.isCancelled()) return;
+            try {
+                if (error == null) {
+                    chatReplies.rememberReply(prompt, full);
+                    emitter.send(SseEmitter.event().name("done").data(Map.of("reply", full)));
+                } else {
+                    emitter.send(SseEmitter.event().name("error").data(Map.of("reply", errorReply(error))));
                 }
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
             }
-        }
+        });
+        // stop generating when the client disconnects or the emitter times out
+        emitter.onCompletion(() -> reply.cancel(true));
+        emitter.onError(e -> reply.cancel(true));
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static ResponseEntity<?> rateLimited(ChatRateLimitedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("reply", "The assistant is busy right now. Please try again in a few seconds."));
+    }
 
-        return "Unable to generate response";
+    private static String errorReply(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause.getMessage() != null && cause.getMessage().contains("429")) {
+            return "Quota exceeded. Enable billing at https://console.cloud.google.com to continue.";
+        }
+        return "Error: " + cause.getMessage();
     }
 
     public static class ChatRequest {
@@ -0,0 +1,43 @@
+package com.provider.service.controller;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination helpers shared by the list endpoints.
+ *
+ * A page is requested with {@code afterId} (the last id of the previous page) and {@code limit}.
+ * The body stays a plain JSON array; when more rows exist the id to pass as the next
+ * {@code afterId} is returned in the {@value #NEXT_CURSOR_HEADER} header.
+ */
+final class Paging {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private Paging() {}
+
+    static int pageSize(Integer requested, int defaultSize, int maxSize) {
+        if (requested == null || requested <= 0) return defaultSize;
+        return Math.min(requested, maxSize);
+    }
+
+    static long after(Long afterId) {
+        return afterId == null ? 0L : afterId;
+    }
+
+    // fetch one row more than the page size to find out whether another page exists
+    static Limit probe(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    static <T> ResponseEntity<List<T>> page(List<T> rows, int pageSize, Function<T, Long> idOf) {
+        if (rows.size() <= pageSize) return ResponseEntity.ok(rows);
+        List<T> page = rows.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(idOf.apply(page.get(pageSize - 1))))
+                .body(page);
+    }
+}
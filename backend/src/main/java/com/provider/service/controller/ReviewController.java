@@ -1,14 +1,20 @@
 package com.provider.service.controller;
 
+import com.provider.service.cache.ResourceVersions;
+import com.provider.service.dto.ReviewView;
 import com.provider.service.entity.ReviewEntity;
 import com.provider.service.entity.UserEntity;
+import com.provider.service.rating.ProviderRatingSummary;
+import com.provider.service.rating.RatingTotals;
 import com.provider.service.repository.ReviewRepository;
 import com.provider.service.repository.UserRepository;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -20,37 +26,57 @@ public class ReviewController {
 
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
+    private final ProviderRatingSummary ratingSummary;
+    private final ResourceVersions versions;
 
-    public ReviewController(ReviewRepository reviewRepository, UserRepository userRepository) {
+    // upper bound on ids accepted by the batch rating endpoint
+    private static final int MAX_RATING_IDS = 500;
+
+    public ReviewController(ReviewRepository reviewRepository, UserRepository userRepository, ProviderRatingSummary ratingSummary,
+                            ResourceVersions versions) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
+        this.ratingSummary = ratingSummary;
+        this.versions = versions;
     }
 
     // DTO for response
-    private Map<String, Object> toDto(ReviewEntity r) {
+    private Map<String, Object> toDto(ReviewView r) {
         return Map.of(
-                "id", r.getId(),
-                "rating", r.getRating(),
-                "comment", r.getComment(),
-                "createdAt", r.getCreatedAt(),
-                "user", Map.of("id", r.getUser().getId(), "name", r.getUser().getName())
+                "id", r.id(),
+                "rating", r.rating(),
+                "comment", r.comment(),
+                "createdAt", r.createdAt(),
+                "user", Map.of("id", r.userId(), "name", r.userName())
         );
     }
 
+    // reviews and rating of a provider share one version, bumped when a review is added
     @GetMapping("/{providerId}/reviews")
-    public ResponseEntity<?> listReviews(@PathVariable Long providerId) {
-        try {
-            List<ReviewEntity> reviews = reviewRepository.findByProvider_IdOrderByCreatedAtDesc(providerId);
-            List<Map<String, Object>> data = reviews.stream().map(this::toDto).collect(Collectors.toList());
-            return ResponseEntity.ok(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to fetch reviews"));
-        }
+    public ResponseEntity<?> listReviews(@PathVariable Long providerId,
+                                         @RequestHeader HttpHeaders headers) {
+        return versions.respond(headers, ResourceVersions.Resource.REVIEWS, providerId, () -> {
+            try {
+                List<ReviewView> reviews = reviewRepository.findViewsByProviderId(providerId);
+                List<Map<String, Object>> data = reviews.stream().map(this::toDto).collect(Collectors.toList());
+                return ResponseEntity.ok(data);
+            } catch (Exception e) {
+                return ResponseEntity.internalServerError().body(Map.of("error", "Failed to fetch reviews"));
+            }
+        });
     }
 
     @GetMapping("/{providerId}/rating")
-    public ResponseEntity<?> getRating(@PathVariable Long providerId) {
+    public ResponseEntity<?> getRating(@PathVariable Long providerId,
+                                       @RequestHeader HttpHeaders headers) {
+        return versions.respond(headers, ResourceVersions.Resource.REVIEWS, providerId, () -> rating(providerId));
+    }
+
+    private ResponseEntity<?> rating(Long providerId) {
         try {
+            if (ratingSummary.isReady()) {
+                return ResponseEntity.ok(toRatingDto(ratingSummary.get(providerId)));
+            }
             Double avg = reviewRepository.findAverageRatingByProviderId(providerId);
             Long count = reviewRepository.countByProviderId(providerId);
             if (avg == null) avg = 0.0;
@@ -60,6 +86,26 @@ public class ReviewController {
         }
     }
 
+    // Ratings of many providers at once: /api/providers/ratings?ids=1,2,3 -> { "1": {average, count}, ... }
+    @GetMapping("/ratings")
+    public ResponseEntity<?> getRatings(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_RATING_IDS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_RATING_IDS + " ids per request"));
+        }
+        if (!ratingSummary.isReady()) {
+            return ResponseEntity.status(503).body(Map.of("error", "Ratings are still loading"));
+        }
+        Map<Long, Map<String, Object>> data = new LinkedHashMap<>();
+        for (Long id : ids) {
+            if (id != null) data.put(id, toRatingDto(ratingSummary.get(id)));
+        }
+        return ResponseEntity.ok(data);
+    }
+
+    private Map<String, Object> toRatingDto(RatingTotals t) {
+        return Map.of("average", t.average(), "count", t.count());
+    }
+
     @PostMapping("/{providerId}/reviews")
     public ResponseEntity<?> addReview(@PathVariable Long providerId, @RequestBody Map<String, Object> payload) {
         try {
@@ -104,6 +150,8 @@ public class ReviewController {
             r.setComment(comment);
 
             ReviewEntity saved = reviewRepository.save(r);
+            ratingSummary.recordReview(providerId, saved.getId(), saved.getRating());
+            versions.changed(ResourceVersions.Resource.REVIEWS, providerId);
             return ResponseEntity.ok(Map.of("id", saved.getId()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", "Failed to save review"));
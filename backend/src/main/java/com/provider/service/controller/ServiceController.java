@@ -1,45 +1,147 @@
 package com.provider.service.controller;
 
+import com.provider.service.cache.ResourceVersions;
+import com.provider.service.catalog.CatalogChangedEvent;
+import com.provider.service.catalog.ServiceCatalogCache;
+import com.provider.service.catalog.CatalogSnapshots;
+import com.provider.service.catalog.ServiceSearchIndex;
+import com.provider.service.dto.CompactServiceList;
+import com.provider.service.dto.NearbyServiceDto;
 import com.provider.service.entity.ServiceEntity;
+import com.provider.service.geo.GeoPoint;
+import com.provider.service.geo.PincodeLocator;
+import com.provider.service.geo.ProviderGeoIndex;
 import com.provider.service.repository.ServiceRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/services")
 public class ServiceController {
 
     private final ServiceRepository serviceRepository;
+    private final ServiceSearchIndex searchIndex;
+    private final ServiceCatalogCache catalogCache;
+    private final ApplicationEventPublisher events;
+    private final PincodeLocator pincodeLocator;
+    private final ProviderGeoIndex geoIndex;
+    private final ResourceVersions versions;
 
-    public ServiceController(ServiceRepository serviceRepository) {
+    private static final double MAX_RADIUS_KM = 200.0;
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_COMPACT = "compact";
+
+    public ServiceController(ServiceRepository serviceRepository, ServiceSearchIndex searchIndex,
+                             ServiceCatalogCache catalogCache, ApplicationEventPublisher events,
+                             PincodeLocator pincodeLocator, ProviderGeoIndex geoIndex, ResourceVersions versions) {
         this.serviceRepository = serviceRepository;
+        this.searchIndex = searchIndex;
+        this.catalogCache = catalogCache;
+        this.events = events;
+        this.pincodeLocator = pincodeLocator;
+        this.geoIndex = geoIndex;
+        this.versions = versions;
     }
 
+    // listings change only through CatalogChangedEvents, so a client holding the current ETag gets a 304.
+    // ?view=compact lists each provider once instead of embedding it in every service (CompactServiceList).
     @GetMapping
-    public List<ServiceEntity> listServices(@RequestParam(required = false) String q, @RequestParam(required = false) String pincode) {
+    public ResponseEntity<?> listServices(@RequestParam(required = false) String q, @RequestParam(required = false) String pincode,
+                                          @RequestParam(required = false) String view, @RequestHeader HttpHeaders headers) {
+        if (!isKnownView(view)) return unknownView();
+        return versions.respond(headers, ResourceVersions.Resource.CATALOG, null,
+                () -> ResponseEntity.ok(inView(view, findServices(q, pincode))));
+    }
+
+    private static boolean isKnownView(String view) {
+        return view == null || VIEW_FULL.equals(view) || VIEW_COMPACT.equals(view);
+    }
+
+    private static ResponseEntity<?> unknownView() {
+        return ResponseEntity.badRequest().body(Map.of("error", "view must be " + VIEW_FULL + " or " + VIEW_COMPACT));
+    }
+
+    private static Object inView(String view, List<ServiceEntity> services) {
+        return VIEW_COMPACT.equals(view) ? CompactServiceList.of(services) : services;
+    }
+
+    private List<ServiceEntity> findServices(String q, String pincode) {
         String activeStatus = "active"; // Only show services from active providers
-        
+
+        // name searches are answered from the in-memory index once it has been built;
+        // the LIKE queries below are only used while it is warming up
+        if (q != null && !q.isBlank() && searchIndex.isReady()) {
+            return searchIndex.search(q, pincode == null || pincode.isBlank() ? null : pincode);
+        }
+
         // If both q (service type) and pincode are provided, return intersection
         if (q != null && !q.isBlank() && pincode != null && !pincode.isBlank()) {
-            return serviceRepository.findByServiceNameContainingIgnoreCaseAndProvider_PincodeAndProvider_Status(q, pincode, activeStatus);
+            String needle = q.toLowerCase(Locale.ROOT);
+            return catalogCache.activeServicesByPincode(pincode).stream()
+                    .filter(s -> s.getServiceName() != null && s.getServiceName().toLowerCase(Locale.ROOT).contains(needle))
+                    .toList();
         }
         // If only q provided, search by service name
         if (q != null && !q.isBlank()) {
             return serviceRepository.findByServiceNameContainingIgnoreCaseAndProvider_Status(q, activeStatus);
         }
-        // If only pincode provided, search by provider pincode
+        // If only pincode provided, search by provider pincode (cached per pincode)
         if (pincode != null && !pincode.isBlank()) {
-            return serviceRepository.findByProvider_PincodeAndProvider_Status(pincode, activeStatus);
+            return catalogCache.activeServicesByPincode(pincode);
         }
         // default: return all from active providers
         return serviceRepository.findByProvider_Status(activeStatus);
     }
 
+    // Services of active providers within radiusKm of the given pincode, nearest first:
+    // /api/services/nearby?pincode=422001&radiusKm=15&q=plumber
+    @GetMapping("/nearby")
+    public ResponseEntity<?> listNearby(@RequestParam String pincode,
+                                        @RequestParam(defaultValue = "10") double radiusKm,
+                                        @RequestParam(required = false) String q) {
+        if (!Double.isFinite(radiusKm) || radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            return ResponseEntity.badRequest().body(Map.of("error", "radiusKm must be between 0 and " + MAX_RADIUS_KM));
+        }
+        GeoPoint center = pincodeLocator.locate(pincode).orElse(null);
+        if (center == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown pincode"));
+        }
+        if (!searchIndex.isReady()) {
+            return ResponseEntity.status(503).body(Map.of("error", "Service index is still loading"));
+        }
+
+        Set<Long> matching = null;
+        if (q != null && !q.isBlank()) {
+            matching = searchIndex.search(q, null).stream().map(ServiceEntity::getId).collect(Collectors.toSet());
+        }
+        List<NearbyServiceDto> result = new ArrayList<>();
+        for (ProviderGeoIndex.Hit hit : geoIndex.within(center, radiusKm)) {
+            double distance = Math.round(hit.distanceKm() * 10.0) / 10.0;
+            for (ServiceEntity s : searchIndex.servicesOfProvider(hit.providerId())) {
+                if (!CatalogSnapshots.isActiveProvider(s)) continue;
+                if (matching != null && !matching.contains(s.getId())) continue;
+                result.add(new NearbyServiceDto(distance, s));
+            }
+        }
+        return ResponseEntity.ok(result);
+    }
+
     // Allow filtering by providerId: /api/services?providerId=123
     @GetMapping(params = "providerId")
-    public List<ServiceEntity> listByProvider(@RequestParam Long providerId) {
-        return serviceRepository.findByProvider_Id(providerId);
+    public ResponseEntity<?> listByProvider(@RequestParam Long providerId, @RequestParam(required = false) String view,
+                                            @RequestHeader HttpHeaders headers) {
+        if (!isKnownView(view)) return unknownView();
+        return versions.respond(headers, ResourceVersions.Resource.CATALOG, null,
+                () -> ResponseEntity.ok(inView(view, serviceRepository.findByProvider_Id(providerId))));
     }
 
     // Update service fields (provider should already own the service in real app)
@@ -49,7 +151,10 @@ public class ServiceController {
             if (incoming.getDescription() != null) s.setDescription(incoming.getDescription());
             if (incoming.getPricingPerHour() != null) s.setPricingPerHour(incoming.getPricingPerHour());
             if (incoming.getStatus() != null) s.setStatus(incoming.getStatus());
-            return serviceRepository.save(s);
+            ServiceEntity saved = serviceRepository.save(s);
+            String pincode = saved.getProvider() == null ? null : saved.getProvider().getPincode();
+            events.publishEvent(CatalogChangedEvent.serviceChanged(saved.getId(), pincode));
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Service not found"));
     }
 }
@@ -1,17 +1,27 @@
 package com.provider.service.controller;
 
+import com.provider.service.auth.AuthPrincipal;
+import com.provider.service.auth.AuthTokenService;
+import com.provider.service.auth.TokenAuthenticationFilter;
+import com.provider.service.cache.ResourceVersions;
+import com.provider.service.catalog.CatalogChangedEvent;
 import com.provider.service.dto.UserDto;
 import com.provider.service.dto.UserRegistrationRequest;
 import com.provider.service.entity.UserEntity;
 import com.provider.service.entity.ServiceEntity;
 import com.provider.service.repository.ServiceRepository;
 import com.provider.service.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Optional;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/users")
@@ -20,11 +30,18 @@ public class UserController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ServiceRepository serviceRepository;
+    private final ApplicationEventPublisher events;
+    private final AuthTokenService authTokens;
+    private final ResourceVersions versions;
 
-    public UserController(UserRepository userRepository, PasswordEncoder passwordEncoder, ServiceRepository serviceRepository) {
+    public UserController(UserRepository userRepository, PasswordEncoder passwordEncoder, ServiceRepository serviceRepository,
+                          ApplicationEventPublisher events, AuthTokenService authTokens, ResourceVersions versions) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.serviceRepository = serviceRepository;
+        this.events = events;
+        this.authTokens = authTokens;
+        this.versions = versions;
     }
 
     private UserDto toDto(UserEntity e) {
@@ -73,7 +90,8 @@ public class UserController {
             svc.setPricingPerHour(req.getPricingPerHour() == null ? 0.0 : req.getPricingPerHour());
             svc.setStatus(req.getServiceStatus() == null ? "AVAILABLE" : req.getServiceStatus());
             svc.setProvider(saved);
-            serviceRepository.save(svc);
+            ServiceEntity savedSvc = serviceRepository.save(svc);
+            events.publishEvent(CatalogChangedEvent.serviceChanged(savedSvc.getId(), saved.getPincode()));
         }
 
         return ResponseEntity.ok(toDto(saved));
@@ -81,6 +99,7 @@ public class UserController {
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody UserRegistrationRequest login) {
+        // always checks the password; a client that already holds a token asks GET /me instead
         Optional<UserEntity> u = userRepository.findByEmail(login.getEmail());
         if (!u.isPresent() || !passwordEncoder.matches(login.getPassword(), u.get().getPassword())) {
             return ResponseEntity.status(401).body("Invalid credentials");
@@ -93,20 +112,60 @@ public class UserController {
         if ("USER".equals(user.getRole()) && "inactive".equals(user.getStatus())) {
             return ResponseEntity.status(403).body("Account has been deactivated");
         }
-        
-        return ResponseEntity.ok(toDto(user));
+
+        // the configured BCrypt cost changed since this hash was made: re-hash while we have the password
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(login.getPassword()));
+            user = userRepository.save(user);
+        }
+
+        UserDto dto = toDto(user);
+        return ResponseEntity.ok()
+                .header(TokenAuthenticationFilter.TOKEN_HEADER, authTokens.issue(dto))
+                .body(dto);
+    }
+
+    // profile of the token holder, usually served from the login cache
+    @GetMapping("/me")
+    public ResponseEntity<?> me(@AuthenticationPrincipal AuthPrincipal current) {
+        if (current == null) {
+            return ResponseEntity.status(401).body("Not logged in");
+        }
+        UserDto cached = authTokens.cachedProfile(current.userId());
+        if (cached != null) {
+            return ResponseEntity.ok(cached);
+        }
+        return userRepository.findById(current.userId())
+                .<ResponseEntity<?>>map(user -> {
+                    UserDto dto = toDto(user);
+                    authTokens.rememberProfile(dto);
+                    return ResponseEntity.ok(dto);
+                })
+                .orElse(ResponseEntity.status(401).body("Not logged in"));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        String token = TokenAuthenticationFilter.tokenOf(request);
+        if (token != null) {
+            authTokens.revoke(token);
+        }
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProfile(@PathVariable Long id) {
-        return userRepository.findById(id)
+    public ResponseEntity<?> getProfile(@PathVariable Long id,
+                                        @RequestHeader HttpHeaders headers) {
+        return versions.respond(headers, ResourceVersions.Resource.USER, id, () -> userRepository.findById(id)
                 .map(u -> ResponseEntity.ok(toDto(u)))
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> editProfile(@PathVariable Long id, @RequestBody UserRegistrationRequest updated) {
         return userRepository.findById(id).map(u -> {
+            String oldPincode = u.getPincode();
+            String oldName = u.getName();
             // allow email update if not taken
             if (updated.getEmail() != null && !updated.getEmail().isBlank() && !updated.getEmail().equals(u.getEmail())) {
                 if (userRepository.findByEmail(updated.getEmail()).isPresent()) {
@@ -121,6 +180,14 @@ public class UserController {
             u.setPincode(updated.getPincode());
             u.setPhoneNo(updated.getPhoneNo());
             UserEntity saved = userRepository.save(u);
+            authTokens.forgetProfile(saved.getId());
+            versions.changed(ResourceVersions.Resource.USER, saved.getId());
+            // reviews show their author's name
+            if (!Objects.equals(oldName, saved.getName())) versions.changedAll(ResourceVersions.Resource.REVIEWS);
+            // provider details (name, pincode) are part of the indexed service snapshots
+            if ("PROVIDER".equals(saved.getRole())) {
+                events.publishEvent(CatalogChangedEvent.providerChanged(saved.getId(), oldPincode, saved.getPincode()));
+            }
             return ResponseEntity.ok(toDto(saved));
         }).orElse(ResponseEntity.notFound().build());
     }
@@ -136,6 +203,8 @@ public class UserController {
             }
             u.setPassword(passwordEncoder.encode(newPassword));
             userRepository.save(u);
+            // sign out every session that was opened with the old password
+            authTokens.revokeAllFor(u.getId());
             return ResponseEntity.ok("Password changed");
         }).orElse(ResponseEntity.notFound().build());
     }
@@ -0,0 +1,32 @@
+package com.provider.service.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-pool connection gauges for {@code /api/admin/datasource-stats}, whether the app runs on
+ * the single auto-configured pool or on {@link ReplicaRoutingDataSource}.
+ */
+@Component
+public class DataSourcePools {
+
+    private final DataSource dataSource;
+
+    public DataSourcePools(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public Map<String, Object> stats() {
+        DataSource target = dataSource;
+        while (target instanceof DelegatingDataSource delegating) target = delegating.getTargetDataSource();
+        if (target instanceof ReplicaRoutingDataSource routing) return routing.stats();
+        Map<String, Object> pools = new LinkedHashMap<>();
+        if (target instanceof HikariDataSource pool) pools.put(pool.getPoolName(), ReplicaRoutingDataSource.poolStats(pool));
+        return pools;
+    }
+}
@@ -0,0 +1,87 @@
+package com.provider.service.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured datasource with a primary pool plus one pool per read replica
+ * when {@code app.datasource.replicas.urls} is set. Every pool takes its settings from
+ * {@code spring.datasource.hikari.*}. Replica connections are opened read-only, so a write routed
+ * there by mistake fails instead of diverging from the primary.
+ *
+ * The pools are not beans, so Boot does not bind their metrics; each one reports its
+ * {@code hikaricp.connections.*} meters (active, pending, acquire time...) tagged with its pool name.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replicas.urls:}'.isBlank()")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariConfig hikariSettings() {
+        return new HikariConfig();
+    }
+
+    @Bean(destroyMethod = "close")
+    ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, HikariConfig hikariSettings,
+                                                      @Value("${app.datasource.replicas.urls}") List<String> replicaUrls,
+                                                      @Value("${app.datasource.replicas.username:}") String replicaUsername,
+                                                      @Value("${app.datasource.replicas.password:}") String replicaPassword,
+                                                      @Value("${app.datasource.read-your-writes-ms:2000}") long readYourWritesMs,
+                                                      @Value("${app.datasource.read-your-writes.max-clients:10000}") int maxClients,
+                                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        MetricsTrackerFactory metrics = registry != null ? new MicrometerMetricsTrackerFactory(registry) : null;
+        HikariDataSource primary = pool(hikariSettings, "primary", properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), properties.determineDriverClassName(), false, metrics);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) continue;
+            replicas.add(pool(hikariSettings, "replica-" + (replicas.size() + 1), url.trim(),
+                    replicaUsername.isEmpty() ? properties.determineUsername() : replicaUsername,
+                    replicaUsername.isEmpty() ? properties.determinePassword() : replicaPassword,
+                    properties.determineDriverClassName(), true, metrics));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, Duration.ofMillis(readYourWritesMs), maxClients);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static HikariDataSource pool(HikariConfig settings, String name, String url, String username,
+                                         String password, String driverClassName, boolean readOnly,
+                                         MetricsTrackerFactory metrics) {
+        HikariConfig config = new HikariConfig();
+        settings.copyStateTo(config);
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        if (driverClassName != null) config.setDriverClassName(driverClassName);
+        config.setReadOnly(readOnly);
+        if (metrics != null) config.setMetricsTrackerFactory(metrics);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,154 @@
+package com.provider.service.datasource;
+
+import com.provider.service.auth.AuthPrincipal;
+import com.provider.service.cache.LruTtlCache;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections for read-only transactions ({@code @Transactional(readOnly = true)}, which
+ * includes Spring Data's find methods) to the read replicas in round-robin order, and everything
+ * else to the primary.
+ *
+ * The repositories are {@code @Transactional(readOnly = true)} at interface level, so their query
+ * methods go to a replica by default. Writes, and reads that must not see a lagging replica (such
+ * as rows about to be updated), are annotated {@code @Transactional} per method and use the primary.
+ *
+ * Read-your-writes: when a read-write transaction made by a logged-in user's request commits,
+ * that user is pinned to the primary for the configured window, so reads issued right after a
+ * write do not see a replica that is still behind. Anonymous requests and background threads
+ * (such as the booking write-behind and the outbox dispatcher) are not tracked; under one shared
+ * key every background write would send all anonymous reads to the primary.
+ *
+ * The routing key is decided when a connection is first used, so this must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}. The transaction
+ * manager acquires its connection before the read-only flag is visible.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    // clients that committed a write within the window; null when the window is 0
+    private final LruTtlCache<String, Boolean> recentWriters;
+
+    private final Map<String, LongAdder> routed = new HashMap<>();
+    private final LongAdder pinnedReads = new LongAdder();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    Duration readYourWritesWindow, int maxTrackedClients) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, new LongAdder());
+        for (HikariDataSource replica : this.replicas) {
+            targets.put(replica.getPoolName(), replica);
+            replicaKeys.add(replica.getPoolName());
+            routed.put(replica.getPoolName(), new LongAdder());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.recentWriters = readYourWritesWindow.isZero() ? null
+                : new LruTtlCache<>("readYourWrites", maxTrackedClients, readYourWritesWindow);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = route();
+        routed.get(key).increment();
+        return key;
+    }
+
+    private String route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            String client = recentWriters == null ? null : clientKey();
+            if (client != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(client, Boolean.TRUE);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty()) return PRIMARY;
+        if (recentWriters != null) {
+            String client = clientKey();
+            if (client != null && recentWriters.getIfPresent(client) != null) {
+                pinnedReads.increment();
+                return PRIMARY;
+            }
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    // the logged-in user of the current request; null for anonymous requests and background threads
+    private static String clientKey() {
+        if (RequestContextHolder.getRequestAttributes() == null) return null;
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthPrincipal p) return "user:" + p.userId();
+        return null;
+    }
+
+    /** Connection pool gauges and the number of connections routed to each pool. */
+    public Map<String, Object> stats() {
+        Map<String, Object> pools = new LinkedHashMap<>();
+        for (HikariDataSource pool : pools()) {
+            Map<String, Object> stats = poolStats(pool);
+            stats.put("routed", routed.get(keyOf(pool)).sum());
+            pools.put(pool.getPoolName(), stats);
+        }
+        pools.put("readsPinnedToPrimary", pinnedReads.sum());
+        return pools;
+    }
+
+    private String keyOf(HikariDataSource pool) {
+        return pool == primary ? PRIMARY : pool.getPoolName();
+    }
+
+    public List<HikariDataSource> pools() {
+        List<HikariDataSource> all = new ArrayList<>(replicas.size() + 1);
+        all.add(primary);
+        all.addAll(replicas);
+        return all;
+    }
+
+    static Map<String, Object> poolStats(HikariDataSource pool) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxSize", pool.getMaximumPoolSize());
+        HikariPoolMXBean mx = pool.getHikariPoolMXBean();
+        // the pool starts on its first connection
+        if (mx != null) {
+            stats.put("active", mx.getActiveConnections());
+            stats.put("idle", mx.getIdleConnections());
+            stats.put("total", mx.getTotalConnections());
+            stats.put("waiting", mx.getThreadsAwaitingConnection());
+        }
+        return stats;
+    }
+
+    public void close() {
+        pools().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,65 @@
+package com.provider.service.dto;
+
+import com.provider.service.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for booking lists, filled by a single JPQL constructor expression that joins
+ * user, service and provider. Serializes with the same nested shape as BookingEntity
+ * ({@code user}, {@code service.provider}) but never touches a lazy association.
+ */
+public class BookingView {
+    private final Long id;
+    private final LocalDateTime date;
+    private final String status;
+    private final String address;
+    private final Double providerAmount;
+    private final String razorpayOrderId;
+    private final String razorpayPaymentId;
+    private final Long providerId;
+    private final String providerNote;
+    private final String userNote;
+    private final PersonRef user;
+    private final ServiceRef service;
+
+    public BookingView(Long id, LocalDateTime date, BookingStatus status, String address, Double providerAmount,
+                       String razorpayOrderId, String razorpayPaymentId, Long providerId, String providerNote, String userNote,
+                       Long userId, String userName, String userEmail, String userPhoneNo,
+                       Long serviceId, String serviceName, String serviceDescription, Double pricingPerHour, String serviceStatus,
+                       Long serviceProviderId, String serviceProviderName, String serviceProviderEmail, String serviceProviderPhoneNo) {
+        this.id = id;
+        this.date = date;
+        this.status = status == null ? null : status.name();
+        this.address = address;
+        this.providerAmount = providerAmount;
+        this.razorpayOrderId = razorpayOrderId;
+        this.razorpayPaymentId = razorpayPaymentId;
+        this.providerId = providerId;
+        this.providerNote = providerNote;
+        this.userNote = userNote;
+        this.user = userId == null ? null : new PersonRef(userId, userName, userEmail, userPhoneNo);
+        PersonRef provider = serviceProviderId == null ? null
+                : new PersonRef(serviceProviderId, serviceProviderName, serviceProviderEmail, serviceProviderPhoneNo);
+        this.service = serviceId == null ? null
+                : new ServiceRef(serviceId, serviceName, serviceDescription, pricingPerHour, serviceStatus, provider);
+    }
+
+    // getters
+    public Long getId() { return id; }
+    public LocalDateTime getDate() { return date; }
+    public String getStatus() { return status; }
+    public String getAddress() { return address; }
+    public Double getProviderAmount() { return providerAmount; }
+    public String getRazorpayOrderId() { return razorpayOrderId; }
+    public String getRazorpayPaymentId() { return razorpayPaymentId; }
+    public Long getProviderId() { return providerId; }
+    public String getProviderNote() { return providerNote; }
+    public String getUserNote() { return userNote; }
+    public PersonRef getUser() { return user; }
+    public ServiceRef getService() { return service; }
+
+    public record PersonRef(Long id, String name, String email, String phoneNo) {}
+
+    public record ServiceRef(Long id, String serviceName, String description, Double pricingPerHour, String status, PersonRef provider) {}
+}
@@ -0,0 +1,35 @@
+package com.provider.service.dto;
+
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.entity.UserEntity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lean form of a service listing ({@code ?view=compact}): each service names its provider by id,
+ * and every provider appears once in {@code providers}, keyed by id, with only the fields a
+ * listing shows instead of the whole user row repeated for each of its services.
+ */
+public record CompactServiceList(List<Item> services, Map<Long, ProviderRef> providers) {
+
+    public record Item(Long id, String serviceName, String description, Double pricingPerHour, String status, Long providerId) {}
+
+    public record ProviderRef(Long id, String name, String pincode, String district) {}
+
+    public static CompactServiceList of(List<ServiceEntity> services) {
+        List<Item> items = new ArrayList<>(services.size());
+        Map<Long, ProviderRef> providers = new LinkedHashMap<>();
+        for (ServiceEntity s : services) {
+            UserEntity p = s.getProvider();
+            Long providerId = p == null ? null : p.getId();
+            items.add(new Item(s.getId(), s.getServiceName(), s.getDescription(), s.getPricingPerHour(), s.getStatus(), providerId));
+            if (providerId != null && !providers.containsKey(providerId)) {
+                providers.put(providerId, new ProviderRef(providerId, p.getName(), p.getPincode(), p.getDistrict()));
+            }
+        }
+        return new CompactServiceList(items, providers);
+    }
+}
@@ -0,0 +1,19 @@
+package com.provider.service.dto;
+
+import com.provider.service.entity.ServiceEntity;
+
+public class NearbyServiceDto {
+    private double distanceKm;
+    private ServiceEntity service;
+
+    public NearbyServiceDto(double distanceKm, ServiceEntity service) {
+        this.distanceKm = distanceKm;
+        this.service = service;
+    }
+
+    // getters and setters
+    public double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(double distanceKm) { this.distanceKm = distanceKm; }
+    public ServiceEntity getService() { return service; }
+    public void setService(ServiceEntity service) { this.service = service; }
+}
@@ -0,0 +1,8 @@
+package com.provider.service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for review lists, filled by a JPQL constructor expression joined to the reviewer.
+ */
+public record ReviewView(Long id, Integer rating, String comment, LocalDateTime createdAt, Long userId, String userName) {}
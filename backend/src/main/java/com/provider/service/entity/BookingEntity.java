@@ -1,10 +1,18 @@
 package com.provider.service.entity;
 
+import com.provider.service.booking.BookingStatus;
+import com.provider.service.booking.BookingStatusConverter;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+// keyset pages are "where provider_id/user_id = ? and id > ? order by id", so id is part of the index;
+// the availability index is loaded with "date >= ?"
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_provider_id", columnList = "provider_id, id"),
+        @Index(name = "idx_bookings_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_bookings_date", columnList = "date")
+})
 public class BookingEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,6 +24,10 @@ public class BookingEntity {
     @com.fasterxml.jackson.annotation.JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "password"})
     private com.provider.service.entity.UserEntity user;
 
+    // read-only view of the user_id column so queries can filter and page on it without joining users
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long userId;
+
     // link to the service that was booked
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "service_id")
@@ -35,7 +47,9 @@ public class BookingEntity {
 
     private LocalDateTime date;
 
-    private String status; // BOOKED, IN_PROGRESS, COMPLETED, CANCELLED
+    // changed through BookingStateMachine; see BookingStatus for the allowed moves
+    @Convert(converter = BookingStatusConverter.class)
+    private BookingStatus status;
     private String address;
     // amount set by provider when accepting a booking (in INR)
     private Double providerAmount;
@@ -44,6 +58,10 @@ public class BookingEntity {
     // razorpay payment id after successful payment
     private String razorpayPaymentId;
 
+    // optimistic lock: bumped by every write, including the conditional UPDATEs in BookingRepository
+    @Version
+    private long version;
+
     // getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -57,8 +75,8 @@ public class BookingEntity {
     public void setUserNote(String userNote) { this.userNote = userNote; }
     public LocalDateTime getDate() { return date; }
     public void setDate(LocalDateTime date) { this.date = date; }
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public BookingStatus getStatus() { return status; }
+    public void setStatus(BookingStatus status) { this.status = status; }
     public String getAddress() { return address; }
     public void setAddress(String address) { this.address = address; }
     public Double getProviderAmount() { return providerAmount; }
@@ -69,4 +87,5 @@ public class BookingEntity {
     public void setRazorpayPaymentId(String razorpayPaymentId) { this.razorpayPaymentId = razorpayPaymentId; }
     public Long getProviderId() { return providerId; }
     public void setProviderId(Long providerId) { this.providerId = providerId; }
+    public long getVersion() { return version; }
 }
@@ -0,0 +1,84 @@
+package com.provider.service.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+// undelivered events are reloaded with "dispatched_at is null order by id"
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_pending", columnList = "dispatched_at, id")
+})
+public class OutboxEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // e.g. booking.created, see BookingEvents
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    // id of the row the event is about (the booking id for booking events)
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    // JSON
+    @Column(length = 2000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // set once every consumer has handled the event
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    // failed deliveries so far
+    @Column(nullable = false)
+    private int attempts;
+
+    public OutboxEventEntity() {}
+
+    public OutboxEventEntity(String type, Long aggregateId, String payload) {
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        if (this.createdAt == null) this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getDispatchedAt() {
+        return dispatchedAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+}
@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+// provider review lists are ordered by created_at; the duplicate-review check looks up provider + user
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_provider_created", columnList = "provider_id, created_at"),
+        @Index(name = "idx_reviews_provider_user", columnList = "provider_id, user_id")
+})
 public class ReviewEntity {
 
     @Id
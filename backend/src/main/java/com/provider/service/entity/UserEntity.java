@@ -7,7 +7,11 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 
 @Entity
-@Table(name = "users")
+// indexes for the hot filters: providers by role + status, and active providers by pincode
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role_status", columnList = "role, status"),
+        @Index(name = "idx_users_status_pincode", columnList = "status, pincode")
+})
 public class UserEntity {
 
     @Id
@@ -0,0 +1,86 @@
+package com.provider.service.geo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves Indian pincodes to coordinates using the bundled pincode table.
+ *
+ * Pincodes that are not in the table are placed at the centroid of the known pincodes
+ * with the same first three digits, which share a sorting district.
+ */
+@Component
+public class PincodeLocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PincodeLocator.class);
+    private static final int MAX_LOGGED_BAD_LINES = 10;
+
+    private final Map<String, GeoPoint> exact = new HashMap<>();
+    private final Map<String, GeoPoint> byDistrictPrefix = new HashMap<>();
+
+    public PincodeLocator(ResourceLoader resourceLoader,
+                          @Value("${app.geo.pincode-file:classpath:geo/pincodes.csv}") String location) throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        Map<String, double[]> sums = new HashMap<>();
+        int lineNo = 0;
+        int skipped = 0;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] cols = line.split(",");
+                String pincode = cols[0].trim();
+                GeoPoint p = cols.length < 3 ? null : parse(pincode, cols[1], cols[2]);
+                if (p == null) {
+                    // a bad row loses one pincode (it falls back to its district centroid), not the whole table
+                    if (++skipped <= MAX_LOGGED_BAD_LINES) logger.warn("Skipping malformed line {} of {}: {}", lineNo, location, line);
+                    continue;
+                }
+                exact.put(pincode, p);
+                double[] acc = sums.computeIfAbsent(pincode.substring(0, 3), k -> new double[3]);
+                acc[0] += p.lat();
+                acc[1] += p.lon();
+                acc[2]++;
+            }
+        }
+        sums.forEach((prefix, acc) -> byDistrictPrefix.put(prefix, new GeoPoint(acc[0] / acc[2], acc[1] / acc[2])));
+        if (skipped > 0) logger.warn("Skipped {} malformed lines of {}", skipped, location);
+        logger.info("Loaded {} pincode locations from {}", exact.size(), location);
+    }
+
+    // null unless the pincode has six digits and the coordinates are numbers in range
+    private static GeoPoint parse(String pincode, String lat, String lon) {
+        if (pincode.length() != 6 || !pincode.chars().allMatch(Character::isDigit)) return null;
+        try {
+            double la = Double.parseDouble(lat.trim());
+            double lo = Double.parseDouble(lon.trim());
+            if (!(Math.abs(la) <= 90) || !(Math.abs(lo) <= 180)) return null;
+            return new GeoPoint(la, lo);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Optional<GeoPoint> locate(String pincode) {
+        if (pincode == null) return Optional.empty();
+        String p = pincode.trim();
+        if (p.length() != 6) return Optional.empty();
+        GeoPoint point = exact.get(p);
+        if (point == null) point = byDistrictPrefix.get(p.substring(0, 3));
+        return Optional.ofNullable(point);
+    }
+}
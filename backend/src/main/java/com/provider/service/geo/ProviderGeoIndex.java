@@ -0,0 +1,126 @@
+package com.provider.service.geo;
+
+import com.provider.service.catalog.CatalogChangedEvent;
+import com.provider.service.entity.UserEntity;
+import com.provider.service.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uniform lat/long grid over the locations of active providers.
+ *
+ * A radius query only visits the grid cells overlapping the query's bounding box and
+ * computes exact distances for the providers in them, so its cost depends on local
+ * density rather than on the total number of providers.
+ */
+@Component
+public class ProviderGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderGeoIndex.class);
+
+    // ~11 km per cell in latitude
+    private static final double CELL_DEGREES = 0.1;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private final UserRepository userRepository;
+    private final PincodeLocator pincodeLocator;
+
+    private final Map<Long, GeoPoint> providerPoints = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    public ProviderGeoIndex(UserRepository userRepository, PincodeLocator pincodeLocator) {
+        this.userRepository = userRepository;
+        this.pincodeLocator = pincodeLocator;
+    }
+
+    public record Hit(Long providerId, double distanceKm) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<UserEntity> providers = userRepository.findByRoleAndStatus("PROVIDER", "active");
+            synchronized (this) {
+                providerPoints.clear();
+                cells.clear();
+                for (UserEntity p : providers) place(p);
+            }
+            logger.info("Provider geo index built with {} of {} active providers located", providerPoints.size(), providers.size());
+        } catch (Exception e) {
+            logger.error("Failed to build provider geo index", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // only provider-level changes (status, pincode) move a provider
+        if (event.providerIds().isEmpty()) return;
+        List<UserEntity> providers = userRepository.findAllById(event.providerIds());
+        synchronized (this) {
+            event.providerIds().forEach(this::removeInternal);
+            providers.forEach(this::place);
+        }
+    }
+
+    public List<Hit> within(GeoPoint center, double radiusKm) {
+        double latSpan = radiusKm / KM_PER_DEGREE_LAT;
+        double lonSpan = radiusKm / (KM_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(center.lat()))));
+        int minLat = cellOf(center.lat() - latSpan), maxLat = cellOf(center.lat() + latSpan);
+        int minLon = cellOf(center.lon() - lonSpan), maxLon = cellOf(center.lon() + lonSpan);
+
+        List<Hit> hits = new ArrayList<>();
+        for (int la = minLat; la <= maxLat; la++) {
+            for (int lo = minLon; lo <= maxLon; lo++) {
+                Set<Long> ids = cells.get(key(la, lo));
+                if (ids == null) continue;
+                for (Long id : ids) {
+                    GeoPoint p = providerPoints.get(id);
+                    if (p == null) continue;
+                    double d = center.distanceKm(p);
+                    if (d <= radiusKm) hits.add(new Hit(id, d));
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparing(Hit::providerId));
+        return hits;
+    }
+
+    public int size() {
+        return providerPoints.size();
+    }
+
+    private void place(UserEntity provider) {
+        if (!"PROVIDER".equals(provider.getRole()) || !"active".equalsIgnoreCase(provider.getStatus())) return;
+        pincodeLocator.locate(provider.getPincode()).ifPresent(p -> {
+            providerPoints.put(provider.getId(), p);
+            cells.computeIfAbsent(key(cellOf(p.lat()), cellOf(p.lon())), k -> ConcurrentHashMap.newKeySet()).add(provider.getId());
+        });
+    }
+
+    private void removeInternal(Long providerId) {
+        GeoPoint p = providerPoints.remove(providerId);
+        if (p == null) return;
+        cells.computeIfPresent(key(cellOf(p.lat()), cellOf(p.lon())), (k, ids) -> {
+            ids.remove(providerId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long key(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,21 @@
+package com.provider.service.migration;
+
+/**
+ * A data change applied to existing rows of one table in id order, a chunk at a time, by
+ * {@link BackfillRunner}. Implementations must be idempotent: a chunk that fails is rolled back
+ * and run again on the next attempt.
+ */
+public interface BackfillJob {
+
+    /** Stable name, used as the checkpoint key in {@code backfill_checkpoints}. */
+    String name();
+
+    /** Table whose {@code id} column the job walks. */
+    String table();
+
+    /**
+     * Applies the change to rows with {@code afterId < id <= upToId} and returns how many rows it
+     * updated. Runs inside the chunk's transaction.
+     */
+    int backfill(long afterId, long upToId);
+}
@@ -0,0 +1,144 @@
+package com.provider.service.migration;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Runs the {@link BackfillJob}s against the live database in the background after startup.
+ *
+ * Each job walks its table in id order, {@code app.backfill.chunk-size} rows per transaction, so
+ * row locks are held only for one short chunk. The chunk and the job's checkpoint row in
+ * {@code backfill_checkpoints} are committed together, so a restart or a failed chunk resumes
+ * after the last committed chunk. The runner sleeps {@code app.backfill.pause-ms} between chunks
+ * to leave room for request traffic and replication. The checkpoint row is read with
+ * {@code for update}, so two instances never process the same chunk.
+ */
+@Component
+public class BackfillRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackfillRunner.class);
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final List<BackfillJob> jobs;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final long pauseMs;
+
+    private volatile boolean stopping = false;
+    private volatile Thread worker;
+
+    public BackfillRunner(JdbcTemplate jdbc, TransactionTemplate transactions, List<BackfillJob> jobs,
+                          @Value("${app.backfill.enabled:true}") boolean enabled,
+                          @Value("${app.backfill.chunk-size:1000}") int chunkSize,
+                          @Value("${app.backfill.pause-ms:100}") long pauseMs) {
+        this.jdbc = jdbc;
+        this.transactions = transactions;
+        this.jobs = jobs;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pauseMs = pauseMs;
+    }
+
+    // one chunk: rows with afterId < id <= upToId; upToId is null once the table is exhausted
+    record Chunk(long afterId, Long upToId, int updated) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || jobs.isEmpty()) return;
+        Thread t = new Thread(this::runAll, "backfill");
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+    }
+
+    public void runAll() {
+        for (BackfillJob job : jobs) {
+            if (stopping) return;
+            run(job);
+        }
+    }
+
+    // returns true when the job has processed its whole table
+    boolean run(BackfillJob job) {
+        try {
+            if (!prepareCheckpoint(job)) return true;
+            long chunks = 0;
+            long updated = 0;
+            while (!stopping) {
+                Chunk chunk = transactions.execute(status -> nextChunk(job));
+                if (chunk.upToId() == null) {
+                    logger.info("Backfill {} complete: {} rows updated in {} chunks this run", job.name(), updated, chunks);
+                    return true;
+                }
+                chunks++;
+                updated += chunk.updated();
+                logger.debug("Backfill {}: ids ({}, {}] updated {} rows", job.name(), chunk.afterId(), chunk.upToId(), chunk.updated());
+                if (pauseMs > 0) Thread.sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // the failed chunk was rolled back; the next start resumes from the checkpoint
+            logger.error("Backfill {} stopped", job.name(), e);
+        }
+        return false;
+    }
+
+    // creates the job's checkpoint on its first run; false when it has already completed
+    private boolean prepareCheckpoint(BackfillJob job) {
+        List<LocalDateTime> completed = jdbc.queryForList(
+                "select completed_at from backfill_checkpoints where name = ?", LocalDateTime.class, job.name());
+        if (completed.isEmpty()) {
+            try {
+                jdbc.update("insert into backfill_checkpoints (name, last_id, rows_updated, updated_at) values (?, 0, 0, ?)",
+                        job.name(), LocalDateTime.now());
+                logger.info("Backfill {} starting", job.name());
+            } catch (DuplicateKeyException startedElsewhere) {
+                // another instance created it first; carry on from its checkpoint
+            }
+            return true;
+        }
+        if (completed.get(0) != null) return false;
+        logger.info("Backfill {} resuming from its checkpoint", job.name());
+        return true;
+    }
+
+    private Chunk nextChunk(BackfillJob job) {
+        long afterId = jdbc.queryForObject(
+                "select last_id from backfill_checkpoints where name = ? for update", Long.class, job.name());
+        Long upToId = jdbc.queryForObject(
+                "select max(id) from (select id from " + job.table() + " where id > ? order by id limit ?) chunk",
+                Long.class, afterId, chunkSize);
+        LocalDateTime now = LocalDateTime.now();
+        if (upToId == null) {
+            jdbc.update("update backfill_checkpoints set completed_at = ?, updated_at = ? where name = ?", now, now, job.name());
+            return new Chunk(afterId, null, 0);
+        }
+        int updated = job.backfill(afterId, upToId);
+        jdbc.update("update backfill_checkpoints set last_id = ?, rows_updated = rows_updated + ?, updated_at = ? where name = ?",
+                upToId, updated, now, job.name());
+        return new Chunk(afterId, upToId, updated);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping = true;
+        Thread t = worker;
+        if (t != null) {
+            t.interrupt();
+            t.join(5000);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.provider.service.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills {@code bookings.provider_id} for rows written before bookings stored it, from the
+ * booked service's provider. The version is bumped so a stale entity loaded before the backfill
+ * cannot write the null back.
+ */
+@Component
+public class BookingProviderIdBackfill implements BackfillJob {
+
+    static final String UPDATE_SQL = "update bookings set "
+            + "provider_id = (select s.provider_id from services s where s.id = bookings.service_id), "
+            + "version = version + 1 "
+            + "where id > ? and id <= ? and provider_id is null "
+            + "and exists (select 1 from services s where s.id = bookings.service_id and s.provider_id is not null)";
+
+    private final JdbcTemplate jdbc;
+
+    public BookingProviderIdBackfill(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public String name() {
+        return "bookings.provider_id";
+    }
+
+    @Override
+    public String table() {
+        return "bookings";
+    }
+
+    @Override
+    public int backfill(long afterId, long upToId) {
+        return jdbc.update(UPDATE_SQL, afterId, upToId);
+    }
+}
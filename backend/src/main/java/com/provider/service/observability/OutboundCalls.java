@@ -0,0 +1,34 @@
+package com.provider.service.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Latency of calls to third-party APIs, as the {@code app.outbound.calls} timer tagged with the
+ * client, the operation and whether the call succeeded, failed or was cancelled.
+ */
+public final class OutboundCalls {
+
+    public static final String METRIC = "app.outbound.calls";
+
+    private OutboundCalls() {}
+
+    /** Stops {@code sample}; {@code error} is null for a successful call. */
+    public static void record(MeterRegistry registry, String client, String operation, Timer.Sample sample, Throwable error) {
+        sample.stop(Timer.builder(METRIC)
+                .description("Calls to third-party APIs")
+                .tag("client", client)
+                .tag("operation", operation)
+                .tag("outcome", outcomeOf(error))
+                .register(registry));
+    }
+
+    private static String outcomeOf(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) error = error.getCause();
+        if (error == null) return "success";
+        return error instanceof CancellationException ? "cancelled" : "error";
+    }
+}
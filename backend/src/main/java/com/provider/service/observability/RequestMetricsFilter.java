@@ -0,0 +1,93 @@
+package com.provider.service.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Records how many SQL statements each request prepared ({@code app.http.sql.statements}, tagged
+ * like {@code http.server.requests} with the method and the matched URI pattern), and logs
+ * requests slower than {@code app.observability.slow-request-ms} together with that SQL.
+ *
+ * Latency itself is measured by Spring MVC's {@code http.server.requests} timer. For an async
+ * request (e.g. a server-sent event stream) only the initial dispatch is covered.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry registry;
+    private final long slowRequestMs;
+    private final int maxLoggedStatements;
+
+    public RequestMetricsFilter(MeterRegistry registry,
+                                @Value("${app.observability.slow-request-ms:1000}") long slowRequestMs,
+                                @Value("${app.observability.slow-request.max-statements:50}") int maxLoggedStatements) {
+        this.registry = registry;
+        this.slowRequestMs = slowRequestMs;
+        this.maxLoggedStatements = maxLoggedStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try (SqlStatementRecorder.Recording sql = SqlStatementRecorder.start(slowRequestMs > 0 ? maxLoggedStatements : 0)) {
+            Exception failure = null;
+            try {
+                chain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                failure = e;
+                throw e;
+            } finally {
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                String uri = uriPattern(request);
+                DistributionSummary.builder("app.http.sql.statements")
+                        .description("SQL statements prepared while handling a request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(registry)
+                        .record(sql.count());
+                if (slowRequestMs > 0 && elapsedMs >= slowRequestMs) {
+                    Object outcome = failure != null ? failure.getClass().getSimpleName() : response.getStatus();
+                    logger.warn("Slow request {} {} ({}) -> {} in {} ms, {} SQL statements{}", request.getMethod(),
+                            request.getRequestURI(), uri, outcome, elapsedMs, sql.count(),
+                            listed(sql.statements(), sql.count()));
+                }
+            }
+        }
+    }
+
+    // the handler's mapping pattern keeps the tag bounded; the raw path only goes to the log
+    private static String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private static String listed(List<String> statements, int count) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < statements.size(); i++) {
+            out.append(System.lineSeparator()).append("  ").append(i + 1).append(". ").append(statements.get(i));
+        }
+        if (count > statements.size()) {
+            out.append(System.lineSeparator()).append("  ... ").append(count - statements.size()).append(" more");
+        }
+        return out.toString();
+    }
+}
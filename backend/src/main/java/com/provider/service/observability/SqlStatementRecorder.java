@@ -0,0 +1,63 @@
+package com.provider.service.observability;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a {@link Recording}
+ * is open, keeping the text of the first few. Registered as the session factory's statement
+ * inspector ({@code hibernate.session_factory.statement_inspector}); without an open recording
+ * it only passes the statement through.
+ *
+ * Statements sent with a plain JdbcTemplate do not go through Hibernate and are not seen.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final ThreadLocal<Recording> current = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Recording recording = current.get();
+        if (recording != null) recording.add(sql);
+        return sql;
+    }
+
+    /** Starts recording this thread's statements, keeping the text of at most {@code maxStatements}. */
+    public static Recording start(int maxStatements) {
+        Recording recording = new Recording(maxStatements);
+        current.set(recording);
+        return recording;
+    }
+
+    public static final class Recording implements AutoCloseable {
+
+        private final int maxStatements;
+        private final List<String> statements = new ArrayList<>();
+        private int count;
+
+        private Recording(int maxStatements) {
+            this.maxStatements = maxStatements;
+        }
+
+        private void add(String sql) {
+            count++;
+            if (statements.size() < maxStatements) statements.add(sql);
+        }
+
+        public int count() {
+            return count;
+        }
+
+        // the first maxStatements statements, in the order they were prepared
+        public List<String> statements() {
+            return statements;
+        }
+
+        @Override
+        public void close() {
+            if (current.get() == this) current.remove();
+        }
+    }
+}
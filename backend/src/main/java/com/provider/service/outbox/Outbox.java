@@ -0,0 +1,60 @@
+package com.provider.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.provider.service.entity.OutboxEventEntity;
+import com.provider.service.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Transactional outbox. {@link #append} stores an event in {@code outbox_events} within the
+ * caller's transaction, so the event exists exactly when the change it describes was committed.
+ * After the commit the event is offered to the {@link OutboxDispatcher}; the caller never waits
+ * for the consumers.
+ */
+@Component
+public class Outbox {
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+    private final OutboxDispatcher dispatcher;
+
+    public Outbox(OutboxEventRepository repository, ObjectMapper objectMapper, OutboxDispatcher dispatcher) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Appends an event to the current transaction.
+     *
+     * @throws IllegalStateException when no transaction is active
+     */
+    public OutboxEvent append(String type, Long aggregateId, Map<String, ?> payload) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox event " + type + " must be appended inside a transaction");
+        }
+        OutboxEventEntity saved = repository.save(new OutboxEventEntity(type, aggregateId, json(payload)));
+        OutboxEvent event = new OutboxEvent(saved.getId(), saved.getType(), saved.getAggregateId(),
+                saved.getPayload(), saved.getCreatedAt());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.offer(event);
+            }
+        });
+        return event;
+    }
+
+    private String json(Map<String, ?> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.provider.service.outbox;
+
+import java.util.List;
+
+/**
+ * Side effect of outbox events (notifications, analytics...). Beans of this type are called by
+ * {@link OutboxDispatcher} on its background thread, with batches of events in id order.
+ *
+ * Delivery is at least once: a batch is handed out again when any consumer throws or the process
+ * stops before the batch was marked dispatched, so consumers must tolerate seeing an event twice.
+ */
+public interface OutboxConsumer {
+
+    void accept(List<OutboxEvent> events);
+}
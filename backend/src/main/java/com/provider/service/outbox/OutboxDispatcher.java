@@ -0,0 +1,225 @@
+package com.provider.service.outbox;
+
+import com.provider.service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands outbox events to the {@link OutboxConsumer}s on one background thread.
+ *
+ * Committed events are offered to a bounded in-memory queue by {@link Outbox}; the thread takes up
+ * to {@code app.outbox.batch-size} of them at a time, calls every consumer with the batch and marks
+ * the batch dispatched in one statement. Offering never blocks the request: when the queue is full
+ * the event is simply left in the table. Every {@code app.outbox.poll-ms} the thread reloads
+ * undelivered rows, at most as many as the queue has room for, which picks up those events, events
+ * of batches a consumer failed (up to {@code app.outbox.max-attempts} tries) and events committed
+ * before a crash or restart.
+ *
+ * Events that used up their attempts are logged with their ids, counted in
+ * {@code app.outbox.events{result=given_up}} and {@code app.outbox.given-up} (those still stored),
+ * and kept for {@code app.outbox.retention-hours} for inspection before they are deleted.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final Duration CLEANUP_INTERVAL = Duration.ofMinutes(1);
+
+    private final OutboxEventRepository repository;
+    private final List<OutboxConsumer> consumers;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollMs;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final BlockingQueue<OutboxEvent> queue;
+    // ids in the queue or in the batch being delivered, so a reload does not queue them twice
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final Counter dispatched;
+    private final Counter failed;
+    private final Counter overflowed;
+    private final Counter givenUp;
+    private final AtomicLong givenUpStored = new AtomicLong();
+
+    private volatile boolean stopping = false;
+    private volatile Thread worker;
+    private long lastCleanup = System.nanoTime();
+
+    public OutboxDispatcher(OutboxEventRepository repository, List<OutboxConsumer> consumers, MeterRegistry registry,
+                            @Value("${app.outbox.enabled:true}") boolean enabled,
+                            @Value("${app.outbox.queue-capacity:10000}") int queueCapacity,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.poll-ms:1000}") long pollMs,
+                            @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${app.outbox.retention-hours:24}") long retentionHours) {
+        this.repository = repository;
+        this.consumers = List.copyOf(consumers);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.pollMs = Math.max(1, pollMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retention = Duration.ofHours(retentionHours);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        Gauge.builder("app.outbox.queue.size", queue, BlockingQueue::size)
+                .description("Committed outbox events waiting for the dispatcher")
+                .register(registry);
+        this.dispatched = events(registry, "dispatched");
+        this.failed = events(registry, "failed");
+        this.overflowed = events(registry, "overflowed");
+        this.givenUp = events(registry, "given_up");
+        Gauge.builder("app.outbox.given-up", givenUpStored, AtomicLong::get)
+                .description("Stored outbox events no consumer will be asked to handle again")
+                .register(registry);
+    }
+
+    private static Counter events(MeterRegistry registry, String result) {
+        return Counter.builder("app.outbox.events").tag("result", result).register(registry);
+    }
+
+    /**
+     * Queues a committed event without blocking. Returns false when the queue is full; the event
+     * then stays in the table until a reload finds room for it.
+     */
+    public boolean offer(OutboxEvent event) {
+        if (!queued.add(event.id())) return true;
+        if (queue.offer(event)) return true;
+        queued.remove(event.id());
+        overflowed.increment();
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        Thread t = new Thread(this::run, "outbox-dispatcher");
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+    }
+
+    private void run() {
+        long nextReload = System.nanoTime();
+        while (!stopping) {
+            try {
+                if (System.nanoTime() - nextReload >= 0) {
+                    reload();
+                    nextReload = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pollMs);
+                }
+                deliverNext(pollMs);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                // the events stay undelivered in the table and are reloaded on the next poll
+                logger.error("Outbox dispatch failed", e);
+                try {
+                    Thread.sleep(pollMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // delivers the next batch, waiting up to waitMs for its first event; returns the batch size
+    int deliverNext(long waitMs) throws InterruptedException {
+        OutboxEvent first = queue.poll(waitMs, TimeUnit.MILLISECONDS);
+        if (first == null) return 0;
+        List<OutboxEvent> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        deliver(batch);
+        return batch.size();
+    }
+
+    private void deliver(List<OutboxEvent> batch) {
+        List<Long> ids = batch.stream().map(OutboxEvent::id).toList();
+        boolean delivered = true;
+        for (OutboxConsumer consumer : consumers) {
+            try {
+                consumer.accept(batch);
+            } catch (RuntimeException e) {
+                logger.error("Outbox consumer {} failed on events {}..{}", consumer.getClass().getSimpleName(),
+                        ids.get(0), ids.get(ids.size() - 1), e);
+                delivered = false;
+            }
+        }
+        try {
+            if (delivered) {
+                repository.markDispatched(ids, LocalDateTime.now());
+                dispatched.increment(batch.size());
+            } else {
+                repository.recordFailedAttempt(ids);
+                failed.increment(batch.size());
+                List<Long> exhausted = repository.findGivenUpIdsIn(ids, maxAttempts);
+                if (!exhausted.isEmpty()) {
+                    logger.error("Outbox events {} failed {} times and will not be retried", exhausted, maxAttempts);
+                    givenUp.increment(exhausted.size());
+                }
+            }
+        } finally {
+            queued.removeAll(ids);
+        }
+    }
+
+    // queues undelivered events the queue has room for; returns how many were queued
+    int reload() {
+        cleanUp();
+        int room = Math.min(queue.remainingCapacity(), batchSize * 10);
+        if (room == 0) return 0;
+        // events younger than one poll are usually still on their way from the committing request
+        LocalDateTime createdBefore = LocalDateTime.now().minus(Duration.ofMillis(pollMs));
+        int offered = 0;
+        for (OutboxEvent event : repository.findPending(maxAttempts, createdBefore, Limit.of(room))) {
+            if (queued.contains(event.id())) continue;
+            if (!offer(event)) break;
+            offered++;
+        }
+        return offered;
+    }
+
+    private void cleanUp() {
+        if (System.nanoTime() - lastCleanup < CLEANUP_INTERVAL.toNanos()) return;
+        lastCleanup = System.nanoTime();
+        cleanUp(LocalDateTime.now().minus(retention));
+    }
+
+    // deletes delivered and given-up events older than before, and refreshes the given-up gauge
+    void cleanUp(LocalDateTime before) {
+        int deleted = repository.deleteDispatchedBefore(before);
+        if (deleted > 0) logger.debug("Deleted {} dispatched outbox events", deleted);
+        int dropped = repository.deleteGivenUpBefore(maxAttempts, before);
+        if (dropped > 0) logger.warn("Deleted {} outbox events that were never delivered", dropped);
+        givenUpStored.set(repository.countGivenUp(maxAttempts));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping = true;
+        Thread t = worker;
+        if (t != null) {
+            t.interrupt();
+            t.join(5000);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.provider.service.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event stored in the outbox, as handed to {@link OutboxConsumer}s. {@code payload} is JSON.
+ */
+public record OutboxEvent(Long id, String type, Long aggregateId, String payload, LocalDateTime createdAt) {}
@@ -0,0 +1,32 @@
+package com.provider.service.payment;
+
+/**
+ * Raised when the payment gateway cannot create an order: the upstream call failed,
+ * timed out, returned an unexpected response, or the client's concurrency limit was reached.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    private final boolean busy;
+
+    public PaymentGatewayException(String message) {
+        this(message, null, false);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    private PaymentGatewayException(String message, Throwable cause, boolean busy) {
+        super(message, cause);
+        this.busy = busy;
+    }
+
+    public static PaymentGatewayException busy() {
+        return new PaymentGatewayException("Payment gateway is busy, try again shortly", null, true);
+    }
+
+    // true when the call was rejected locally by the bulkhead without reaching the gateway
+    public boolean isBusy() {
+        return busy;
+    }
+}
@@ -0,0 +1,131 @@
+package com.provider.service.payment;
+
+import com.provider.service.observability.OutboundCalls;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Non-blocking client for the Razorpay Orders API.
+ *
+ * One shared {@link HttpClient} keeps connections to the gateway alive between calls.
+ * Every call has a connect and a response timeout, and at most {@code max-concurrent}
+ * calls may be in flight; further calls are rejected immediately instead of queueing
+ * behind a slow gateway. Call latency is recorded as {@link OutboundCalls#METRIC}.
+ */
+@Component
+public class RazorpayGatewayClient {
+
+    private final String baseUrl;
+    private final String keyId;
+    private final String authorization;
+    private final Duration readTimeout;
+    private final Semaphore bulkhead;
+    private final HttpClient httpClient;
+    private final boolean configured;
+    private final MeterRegistry registry;
+
+    public RazorpayGatewayClient(@Value("${razorpay.api-base-url:https://api.razorpay.com}") String baseUrl,
+                                 @Value("${razorpay.key_id:}") String keyId,
+                                 @Value("${razorpay.key_secret:}") String keySecret,
+                                 @Value("${razorpay.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                                 @Value("${razorpay.http.read-timeout-ms:5000}") long readTimeoutMs,
+                                 @Value("${razorpay.http.max-concurrent:16}") int maxConcurrent,
+                                 @Qualifier("applicationTaskExecutor") Executor executor,
+                                 MeterRegistry registry) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.keyId = keyId;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((keyId + ":" + keySecret).getBytes(StandardCharsets.UTF_8));
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                // response handling runs on the shared task executor (virtual threads when enabled)
+                .executor(executor)
+                .build();
+        this.configured = !keyId.isBlank() && !keySecret.isBlank();
+        this.registry = registry;
+    }
+
+    public boolean isConfigured() {
+        return configured;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * Starts creating an order and returns its Razorpay order id when the gateway answers.
+     *
+     * @throws PaymentGatewayException with {@code isBusy()} set when too many calls are already in flight
+     */
+    public CompletableFuture<String> createOrder(long amountPaise, String receipt) {
+        if (!bulkhead.tryAcquire()) throw PaymentGatewayException.busy();
+
+        JSONObject orderRequest = new JSONObject();
+        orderRequest.put("amount", amountPaise);
+        orderRequest.put("currency", "INR");
+        orderRequest.put("receipt", receipt);
+        orderRequest.put("payment_capture", 1);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/orders"))
+                .timeout(readTimeout)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(orderRequest.toString(), StandardCharsets.UTF_8))
+                .build();
+
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                    .thenApply(RazorpayGatewayClient::orderIdOf)
+                    .whenComplete((id, error) -> {
+                        bulkhead.release();
+                        OutboundCalls.record(registry, "razorpay", "create-order", sample, error);
+                    });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    private static String orderIdOf(HttpResponse<String> response) {
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new CompletionException(new PaymentGatewayException(
+                    "Razorpay order creation failed with HTTP " + response.statusCode() + ": " + response.body()));
+        }
+        String orderId = new JSONObject(response.body()).optString("id", null);
+        if (orderId == null) {
+            throw new CompletionException(new PaymentGatewayException("Razorpay response missing order id: " + response.body()));
+        }
+        return orderId;
+    }
+
+    public int availablePermits() {
+        return bulkhead.availablePermits();
+    }
+
+    @PreDestroy
+    public void close() {
+        httpClient.close();
+    }
+}
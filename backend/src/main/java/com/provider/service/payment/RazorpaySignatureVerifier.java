@@ -0,0 +1,142 @@
+package com.provider.service.payment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Checks Razorpay payment signatures: hex(HMAC_SHA256(orderId + "|" + paymentId, key_secret)).
+ *
+ * Keyed {@link Mac} instances are pooled together with their scratch buffers, so a verification
+ * does no provider lookup, key setup or hex string building. A pool is used rather than a
+ * ThreadLocal because with virtual threads every request runs on a fresh thread. The signature
+ * is decoded with a lookup table and compared in constant time.
+ */
+@Component
+public class RazorpaySignatureVerifier {
+
+    private static final int MAC_LENGTH = 32;
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) HEX_VALUES['0' + i] = (byte) i;
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUES['a' + i] = (byte) (10 + i);
+            HEX_VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private final SecretKeySpec key;
+    private final ArrayBlockingQueue<Verification> pool;
+
+    public RazorpaySignatureVerifier(@Value("${razorpay.key_secret:}") String keySecret,
+                                     @Value("${razorpay.signature.pool-size:64}") int poolSize) {
+        this.key = keySecret == null || keySecret.isEmpty()
+                ? null
+                : new SecretKeySpec(keySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    public boolean isConfigured() {
+        return key != null;
+    }
+
+    /**
+     * True when {@code signature} is the lowercase or uppercase hex HMAC of {@code orderId|paymentId}.
+     *
+     * @throws IllegalStateException when no key secret is configured
+     */
+    public boolean verify(String orderId, String paymentId, String signature) {
+        if (key == null) throw new IllegalStateException("razorpay.key_secret is not configured");
+        if (orderId == null || paymentId == null || signature == null || signature.length() != MAC_LENGTH * 2) {
+            return false;
+        }
+        Verification v = pool.poll();
+        if (v == null) v = new Verification(newMac());
+        try {
+            v.computeMac(orderId, paymentId);
+            return matches(v.digest, signature);
+        } finally {
+            // extra instances created under a burst are simply dropped
+            pool.offer(v);
+        }
+    }
+
+    // constant time over the digest; only the (public) length and hex format end it early
+    private static boolean matches(byte[] digest, String hex) {
+        int diff = 0;
+        for (int i = 0; i < MAC_LENGTH; i++) {
+            char hi = hex.charAt(2 * i);
+            char lo = hex.charAt(2 * i + 1);
+            if (hi >= 128 || lo >= 128) return false;
+            int h = HEX_VALUES[hi];
+            int l = HEX_VALUES[lo];
+            if ((h | l) < 0) return false;
+            diff |= (digest[i] & 0xff) ^ ((h << 4) | l);
+        }
+        return diff == 0;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    // a keyed Mac plus reusable input and output buffers; used by one thread at a time
+    private static final class Verification {
+
+        private final Mac mac;
+        private final byte[] digest = new byte[MAC_LENGTH];
+        private byte[] data = new byte[64];
+
+        Verification(Mac mac) {
+            this.mac = mac;
+        }
+
+        void computeMac(String orderId, String paymentId) {
+            int length = orderId.length() + 1 + paymentId.length();
+            if (data.length < length) data = new byte[Math.max(length, data.length * 2)];
+            int n = putAscii(orderId, 0);
+            if (n >= 0) {
+                data[n++] = '|';
+                n = putAscii(paymentId, n);
+            }
+            if (n < 0) {
+                // Razorpay ids are ASCII; anything else takes the slow path
+                byte[] utf8 = (orderId + "|" + paymentId).getBytes(StandardCharsets.UTF_8);
+                mac.update(utf8);
+            } else {
+                mac.update(data, 0, n);
+            }
+            try {
+                mac.doFinal(digest, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        // copies an ASCII string into data at offset; -1 if it has other characters
+        private int putAscii(String s, int offset) {
+            if (offset < 0) return -1;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c >= 128) return -1;
+                data[offset + i] = (byte) c;
+            }
+            return offset + s.length();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.provider.service.rating;
+
+import com.provider.service.repository.ReviewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running rating sum/count per provider, loaded with one GROUP BY query at startup and
+ * then updated incrementally as reviews are saved, so ratings are served without
+ * running AVG/COUNT queries.
+ *
+ * A rebuild totals the reviews up to the highest review id it saw first. Reviews recorded
+ * before it finishes are buffered and those with a higher id are added afterwards, so a review
+ * saved while the query runs is counted exactly once.
+ */
+@Component
+public class ProviderRatingSummary {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderRatingSummary.class);
+
+    private record Recorded(Long providerId, Long reviewId, int rating) {}
+
+    private final ReviewRepository reviewRepository;
+    private volatile Map<Long, RatingTotals> totals = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+    // reviews recorded until the next rebuild finishes; null once ready and not rebuilding
+    private List<Recorded> pending = new ArrayList<>();
+    private final Object rebuildLock = new Object();
+
+    public ProviderRatingSummary(ReviewRepository reviewRepository) {
+        this.reviewRepository = reviewRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                if (pending == null) pending = new ArrayList<>();
+            }
+            try {
+                long upToId = reviewRepository.findMaxId();
+                Map<Long, RatingTotals> fresh = new ConcurrentHashMap<>();
+                for (RatingTotals t : reviewRepository.findRatingTotals(upToId)) fresh.put(t.providerId(), t);
+                synchronized (this) {
+                    for (Recorded r : pending) {
+                        if (r.reviewId() != null && r.reviewId() > upToId) add(fresh, r.providerId(), r.rating());
+                    }
+                    pending = null;
+                    totals = fresh;
+                    ready = true;
+                }
+                logger.info("Rating summary loaded for {} providers", fresh.size());
+            } catch (Exception e) {
+                // ratings keep being computed with aggregate queries until a rebuild succeeds
+                logger.error("Failed to load rating summary", e);
+                synchronized (this) {
+                    // the current totals are still kept up to date; only a first load needs the buffer
+                    if (ready) pending = null;
+                }
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // call after a review has been saved
+    public synchronized void recordReview(Long providerId, Long reviewId, int rating) {
+        if (pending != null) pending.add(new Recorded(providerId, reviewId, rating));
+        if (ready) add(totals, providerId, rating);
+    }
+
+    private static void add(Map<Long, RatingTotals> totals, Long providerId, int rating) {
+        totals.merge(providerId, new RatingTotals(providerId, (long) rating, 1L), (old, added) -> old.plus(rating));
+    }
+
+    public RatingTotals get(Long providerId) {
+        return totals.getOrDefault(providerId, new RatingTotals(providerId, 0L, 0L));
+    }
+}
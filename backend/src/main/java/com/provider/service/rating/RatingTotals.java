@@ -0,0 +1,16 @@
+package com.provider.service.rating;
+
+/**
+ * Sum and number of review ratings of one provider.
+ */
+public record RatingTotals(Long providerId, Long sum, Long count) {
+
+    public RatingTotals plus(int rating) {
+        return new RatingTotals(providerId, sum + rating, count + 1);
+    }
+
+    // average rounded to one decimal, 0.0 when there are no reviews
+    public double average() {
+        return count == 0 ? 0.0 : Math.round((double) sum / count * 10.0) / 10.0;
+    }
+}
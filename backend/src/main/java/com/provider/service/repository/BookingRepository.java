@@ -1,14 +1,118 @@
 package com.provider.service.repository;
 
+import com.provider.service.booking.BookingStatus;
+import com.provider.service.booking.ScheduledBooking;
+import com.provider.service.dto.BookingView;
 import com.provider.service.entity.BookingEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+@Transactional(readOnly = true)
 public interface BookingRepository extends JpaRepository<BookingEntity, Long> {
+
+    // single-query read model for list endpoints: user, service and provider columns are joined in
+    String BOOKING_VIEW = "select new com.provider.service.dto.BookingView("
+            + "b.id, b.date, b.status, b.address, b.providerAmount, b.razorpayOrderId, b.razorpayPaymentId, "
+            + "b.providerId, b.providerNote, b.userNote, "
+            + "u.id, u.name, u.email, u.phoneNo, "
+            + "s.id, s.serviceName, s.description, s.pricingPerHour, s.status, "
+            + "p.id, p.name, p.email, p.phoneNo) "
+            + "from BookingEntity b left join b.user u left join b.service s left join s.provider p ";
+
+    // resolves to the userId column, so no join to users is needed
     List<BookingEntity> findByUserId(Long userId);
     // find bookings where the service's provider has the given id
     List<BookingEntity> findByService_Provider_Id(Long providerId);
     // convenience method using stored providerId column
     List<BookingEntity> findByProviderId(Long providerId);
+
+    // keyset pages of the list read model, ordered by id: pass the last id of the previous page (0 for the first page)
+    @Query(BOOKING_VIEW + "where b.id > :afterId order by b.id")
+    List<BookingView> findViews(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(BOOKING_VIEW + "where b.userId = :userId and b.id > :afterId order by b.id")
+    List<BookingView> findViewsByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(BOOKING_VIEW + "where b.providerId = :providerId and b.id > :afterId order by b.id")
+    List<BookingView> findViewsByProviderId(@Param("providerId") Long providerId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(BOOKING_VIEW + "where s.provider.id = :providerId and b.id > :afterId order by b.id")
+    List<BookingView> findViewsByServiceProviderId(@Param("providerId") Long providerId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(BOOKING_VIEW + "where b.id in :ids order by b.id")
+    List<BookingView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // rows that were just changed; read from the primary, which a lagging replica may not have caught up with
+    @Transactional
+    @Query(BOOKING_VIEW + "where b.id in :ids order by b.id")
+    List<BookingView> findCurrentViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // bookings from the given time on that still hold their provider's time (see ProviderAvailabilityIndex)
+    @Query("select new com.provider.service.booking.ScheduledBooking(b.id, coalesce(b.providerId, p.id), b.date) "
+            + "from BookingEntity b left join b.service s left join s.provider p "
+            + "where b.date >= :from and (b.status is null or b.status not in :released)")
+    List<ScheduledBooking> findSchedule(@Param("from") LocalDateTime from, @Param("released") Collection<BookingStatus> released);
+
+    // one element (possibly null) when the booking exists, none when it does not. Read from the
+    // primary: it decides the conditional status update that follows, which a lagging replica would fail
+    @Transactional
+    @Query("select b.status from BookingEntity b where b.id = :id")
+    List<BookingStatus> findStatusById(@Param("id") Long id);
+
+    // status transitions are conditional on the status they were decided from and bump the version,
+    // so a concurrent writer either sees the change or has its own update match no row
+    @Transactional
+    @Modifying
+    @Query("update BookingEntity b set b.status = :to, b.version = b.version + 1 where b.id = :id and b.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") BookingStatus from, @Param("to") BookingStatus to);
+
+    @Transactional
+    @Modifying
+    @Query("update BookingEntity b set b.status = :to, b.providerAmount = :amount, "
+            + "b.providerNote = coalesce(:providerNote, b.providerNote), b.razorpayOrderId = null, b.version = b.version + 1 "
+            + "where b.id = :id and b.status = :from")
+    int acceptQuote(@Param("id") Long id, @Param("from") BookingStatus from, @Param("to") BookingStatus to,
+                    @Param("amount") Double amount, @Param("providerNote") String providerNote);
+
+    @Transactional
+    @Modifying
+    @Query("update BookingEntity b set b.status = :to, b.razorpayPaymentId = :paymentId, b.version = b.version + 1 "
+            + "where b.id = :id and b.status = :from")
+    int markPaid(@Param("id") Long id, @Param("from") BookingStatus from, @Param("to") BookingStatus to,
+                 @Param("paymentId") String paymentId);
+
+    // rewrite a null or unrecognised stored status as UNKNOWN (pass every enum value as known)
+    @Transactional
+    @Modifying
+    @Query("update BookingEntity b set b.status = :unknown, b.version = b.version + 1 "
+            + "where b.id = :id and (b.status is null or b.status not in :known)")
+    int markStatusUnknown(@Param("id") Long id, @Param("unknown") BookingStatus unknown,
+                          @Param("known") Collection<BookingStatus> known);
+
+    // completion of the asynchronous payment order started by acceptBooking; only applies while the order is pending
+    @Transactional
+    @Modifying
+    @Query("update BookingEntity b set b.razorpayOrderId = :orderId, b.status = :to, b.version = b.version + 1 "
+            + "where b.id = :id and b.status = :from")
+    int completePaymentOrder(@Param("id") Long id, @Param("orderId") String orderId,
+                             @Param("from") BookingStatus from, @Param("to") BookingStatus to);
+
+    @Transactional
+    default int completePaymentOrder(Long id, String orderId) {
+        return completePaymentOrder(id, orderId, BookingStatus.PAYMENT_ORDER_PENDING, BookingStatus.AWAITING_PAYMENT);
+    }
+
+    // order creation failed: put the booking back so the provider can accept it again
+    @Transactional
+    default int revertPaymentOrder(Long id) {
+        return transitionStatus(id, BookingStatus.PAYMENT_ORDER_PENDING, BookingStatus.BOOKED);
+    }
 }
@@ -0,0 +1,56 @@
+package com.provider.service.repository;
+
+import com.provider.service.entity.OutboxEventEntity;
+import com.provider.service.outbox.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    // undelivered events in id order. Read from the primary: a lagging replica would hand back
+    // events that were already dispatched
+    @Transactional
+    @Query("select new com.provider.service.outbox.OutboxEvent(e.id, e.type, e.aggregateId, e.payload, e.createdAt) "
+            + "from OutboxEventEntity e where e.dispatchedAt is null and e.attempts < :maxAttempts "
+            + "and e.createdAt <= :createdBefore order by e.id")
+    List<OutboxEvent> findPending(@Param("maxAttempts") int maxAttempts, @Param("createdBefore") LocalDateTime createdBefore,
+                                  Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEventEntity e set e.dispatchedAt = :at where e.id in :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEventEntity e set e.attempts = e.attempts + 1 where e.id in :ids")
+    int recordFailedAttempt(@Param("ids") Collection<Long> ids);
+
+    // the given events a consumer has now failed maxAttempts times; they are no longer retried
+    @Transactional
+    @Query("select e.id from OutboxEventEntity e where e.id in :ids and e.attempts >= :maxAttempts order by e.id")
+    List<Long> findGivenUpIdsIn(@Param("ids") Collection<Long> ids, @Param("maxAttempts") int maxAttempts);
+
+    @Query("select count(e) from OutboxEventEntity e where e.dispatchedAt is null and e.attempts >= :maxAttempts")
+    long countGivenUp(@Param("maxAttempts") int maxAttempts);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEventEntity e where e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEventEntity e where e.dispatchedAt is null and e.attempts >= :maxAttempts "
+            + "and e.createdAt < :before")
+    int deleteGivenUpBefore(@Param("maxAttempts") int maxAttempts, @Param("before") LocalDateTime before);
+}
@@ -1,14 +1,25 @@
 package com.provider.service.repository;
 
+import com.provider.service.dto.ReviewView;
 import com.provider.service.entity.ReviewEntity;
+import com.provider.service.rating.RatingTotals;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+@Transactional(readOnly = true)
 public interface ReviewRepository extends JpaRepository<ReviewEntity, Long> {
-    List<ReviewEntity> findByProvider_IdOrderByCreatedAtDesc(Long providerId);
+    // compared on the foreign key column: the derived query outer-joined users and filtered there
+    @Query("select r from ReviewEntity r where r.provider.id = :providerId order by r.createdAt desc")
+    List<ReviewEntity> findByProvider_IdOrderByCreatedAtDesc(@Param("providerId") Long providerId);
+
+    // list read model: reviewer name is joined in, so the list is a single query
+    @Query("select new com.provider.service.dto.ReviewView(r.id, r.rating, r.comment, r.createdAt, u.id, u.name) "
+            + "from ReviewEntity r join r.user u where r.provider.id = :providerId order by r.createdAt desc")
+    List<ReviewView> findViewsByProviderId(@Param("providerId") Long providerId);
 
     @Query("select avg(r.rating) from ReviewEntity r where r.provider.id = :providerId")
     Double findAverageRatingByProviderId(@Param("providerId") Long providerId);
@@ -16,5 +27,16 @@ public interface ReviewRepository extends JpaRepository<ReviewEntity, Long> {
     @Query("select count(r) from ReviewEntity r where r.provider.id = :providerId")
     Long countByProviderId(@Param("providerId") Long providerId);
 
+    // rating sum and count of every reviewed provider over the reviews up to an id, used to warm the
+    // in-memory rating summary. Both read the primary, so the id and the totals agree
+    @Transactional
+    @Query("select coalesce(max(r.id), 0) from ReviewEntity r")
+    long findMaxId();
+
+    @Transactional
+    @Query("select new com.provider.service.rating.RatingTotals(r.provider.id, sum(r.rating), count(r)) "
+            + "from ReviewEntity r where r.id <= :upToId group by r.provider.id")
+    List<RatingTotals> findRatingTotals(@Param("upToId") long upToId);
+
     boolean existsByProvider_IdAndUser_Id(Long providerId, Long userId);
 }
@@ -2,30 +2,57 @@ package com.provider.service.repository;
 
 import com.provider.service.entity.ServiceEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+@Transactional(readOnly = true)
 public interface ServiceRepository extends JpaRepository<ServiceEntity, Long> {
     List<ServiceEntity> findByServiceNameContainingIgnoreCase(String name);
     
-    // find services where provider pincode exactly matches
-    List<ServiceEntity> findByProvider_Pincode(String pincode);
+    // find services where provider pincode exactly matches; an inner join so the filter can use the
+    // users(status, pincode) index instead of scanning services through an outer join
+    @Query("select s from ServiceEntity s join s.provider p where p.pincode = :pincode")
+    List<ServiceEntity> findByProvider_Pincode(@Param("pincode") String pincode);
     
     // combined search: service name contains AND provider pincode equals
     List<ServiceEntity> findByServiceNameContainingIgnoreCaseAndProvider_Pincode(String name, String pincode);
     
-    // find services by provider id (nested property)
-    List<ServiceEntity> findByProvider_Id(Long providerId);
+    // find services by provider id, compared on the foreign key column so no join is needed
+    @Query("select s from ServiceEntity s where s.provider.id = :providerId")
+    List<ServiceEntity> findByProvider_Id(@Param("providerId") Long providerId);
     
     // find services where provider status is active
-    List<ServiceEntity> findByProvider_Status(String status);
+    @Query("select s from ServiceEntity s join s.provider p where p.status = :status")
+    List<ServiceEntity> findByProvider_Status(@Param("status") String status);
     
     // find services by name and provider status
     List<ServiceEntity> findByServiceNameContainingIgnoreCaseAndProvider_Status(String name, String status);
     
     // find services by pincode and provider status
-    List<ServiceEntity> findByProvider_PincodeAndProvider_Status(String pincode, String status);
+    @Query("select s from ServiceEntity s join s.provider p where p.pincode = :pincode and p.status = :status")
+    List<ServiceEntity> findByProvider_PincodeAndProvider_Status(@Param("pincode") String pincode, @Param("status") String status);
     
     // find services by name, pincode and provider status
     List<ServiceEntity> findByServiceNameContainingIgnoreCaseAndProvider_PincodeAndProvider_Status(String name, String pincode, String status);
-}
\ No newline at end of file
+
+    // load services together with their provider (used to build the in-memory search index)
+    @Query("select s from ServiceEntity s left join fetch s.provider")
+    List<ServiceEntity> findAllWithProvider();
+
+    @Query("select s from ServiceEntity s left join fetch s.provider where s.id = :id")
+    Optional<ServiceEntity> findWithProviderById(@Param("id") Long id);
+
+    @Query("select s from ServiceEntity s join fetch s.provider p where p.id = :providerId")
+    List<ServiceEntity> findWithProviderByProviderId(@Param("providerId") Long providerId);
+
+    @Query("select s from ServiceEntity s join fetch s.provider p where p.id in :providerIds")
+    List<ServiceEntity> findWithProviderByProviderIdIn(@Param("providerIds") Collection<Long> providerIds);
+
+    @Query("select s from ServiceEntity s join fetch s.provider p where p.pincode = :pincode and p.status = :status")
+    List<ServiceEntity> findActiveWithProviderByPincode(@Param("pincode") String pincode, @Param("status") String status);
+}
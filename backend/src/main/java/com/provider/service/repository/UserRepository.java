@@ -1,11 +1,45 @@
 package com.provider.service.repository;
 
+import com.provider.service.admin.UserStatusRow;
 import com.provider.service.entity.UserEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmail(String email);
     List<UserEntity> findByRoleAndStatus(String role, String status);
+
+    // bulk admin operations (see BulkUserUpdates): one read of the deciding columns, one set-based update
+    @Query("select new com.provider.service.admin.UserStatusRow(u.id, u.role, u.status, u.status1, u.pincode) "
+            + "from UserEntity u where u.id in :ids")
+    List<UserStatusRow> findStatusRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ids matching a bulk filter; a null criterion matches everything
+    @Query("select u.id from UserEntity u where (:role is null or u.role = :role) "
+            + "and (:status is null or u.status = :status) and (:pincode is null or u.pincode = :pincode) order by u.id")
+    List<Long> findIdsByFilter(@Param("role") String role, @Param("status") String status,
+                               @Param("pincode") String pincode, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.status = 'active', u.status1 = 'verified' where u.id in :ids and u.role = 'PROVIDER'")
+    int verifyProviders(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.status = :status where u.id in :ids and u.role <> 'ADMIN'")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.status1 = :status1 where u.id in :ids and u.role <> 'ADMIN'")
+    int updateStatus1(@Param("ids") Collection<Long> ids, @Param("status1") String status1);
 }
@@ -0,0 +1,62 @@
+-- Schema as created by hibernate ddl-auto=update before migrations were introduced. Existing
+-- databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script.
+
+create table users (
+    id bigint not null auto_increment,
+    address varchar(255),
+    district varchar(255),
+    email varchar(255),
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone_no varchar(255),
+    pincode varchar(255),
+    role varchar(255) not null,
+    service_type varchar(255),
+    state varchar(255),
+    status varchar(255),
+    status1 varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table services (
+    id bigint not null auto_increment,
+    pricing_per_hour float(53),
+    provider_id bigint,
+    description varchar(1000),
+    service_name varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table bookings (
+    id bigint not null auto_increment,
+    provider_amount float(53),
+    date datetime(6),
+    provider_id bigint,
+    service_id bigint,
+    user_id bigint,
+    provider_note varchar(1000),
+    user_note varchar(1000),
+    address varchar(255),
+    razorpay_order_id varchar(255),
+    razorpay_payment_id varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table reviews (
+    id bigint not null auto_increment,
+    rating integer,
+    created_at datetime(6),
+    provider_id bigint not null,
+    user_id bigint not null,
+    comment varchar(2000),
+    primary key (id)
+) engine=InnoDB;
+
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table services add constraint FKe0b0175l27ffcser90cjoots1 foreign key (provider_id) references users (id);
+alter table bookings add constraint FKjcwbou2jlblfwu14uoxs65b25 foreign key (service_id) references services (id);
+alter table bookings add constraint FKeyog2oic85xg7hsu2je2lx3s6 foreign key (user_id) references users (id);
+alter table reviews add constraint FK6v6isw4stf5vu1fktr1whlx06 foreign key (provider_id) references users (id);
+alter table reviews add constraint FKcgy7qjc1r99dp117y9en6lxye foreign key (user_id) references users (id);
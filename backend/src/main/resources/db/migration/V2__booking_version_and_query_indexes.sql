@@ -0,0 +1,14 @@
+-- Optimistic-lock version for bookings. On MySQL 8 adding a column with a default is an instant,
+-- metadata-only change, so existing rows are not rewritten.
+alter table bookings add column version bigint not null default 0;
+
+-- Indexes for the list and search queries (see QueryPlanTests). InnoDB builds secondary indexes
+-- in place without blocking reads or writes on the table.
+create index idx_users_role_status on users (role, status);
+create index idx_users_status_pincode on users (status, pincode);
+create index idx_services_provider on services (provider_id);
+create index idx_bookings_provider_id on bookings (provider_id, id);
+create index idx_bookings_user_id on bookings (user_id, id);
+create index idx_bookings_date on bookings (date);
+create index idx_reviews_provider_created on reviews (provider_id, created_at);
+create index idx_reviews_provider_user on reviews (provider_id, user_id);
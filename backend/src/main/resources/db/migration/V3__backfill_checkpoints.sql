@@ -0,0 +1,9 @@
+-- Progress of data backfills (see BackfillRunner): rows with id <= last_id have been processed.
+create table backfill_checkpoints (
+    name varchar(100) not null,
+    last_id bigint not null,
+    rows_updated bigint not null,
+    updated_at datetime(6) not null,
+    completed_at datetime(6),
+    primary key (name)
+) engine=InnoDB;
@@ -0,0 +1,15 @@
+-- Transactional outbox (see Outbox): events are inserted in the transaction that caused them and
+-- marked dispatched once every consumer has handled them.
+create table outbox_events (
+    id bigint not null auto_increment,
+    type varchar(50) not null,
+    aggregate_id bigint,
+    payload varchar(2000),
+    created_at datetime(6) not null,
+    dispatched_at datetime(6),
+    attempts integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- the dispatcher reloads "dispatched_at is null order by id"
+create index idx_outbox_events_pending on outbox_events (dispatched_at, id);
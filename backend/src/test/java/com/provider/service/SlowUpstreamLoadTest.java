@@ -0,0 +1,143 @@
+package com.provider.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of 2,000 concurrent chat requests whose upstream (a local Gemini stub) takes
+ * 500 ms to answer, once on Tomcat's platform worker pool and once on virtual threads.
+ *
+ * On a 1-vCPU sandbox, where the stub and the client share the CPU with the app, three runs gave
+ * 59-75 req/s on platform threads and 55-62 req/s on virtual threads, without failures: both stay
+ * far below what 200 Tomcat workers allow, so this host shows no gain from virtual threads.
+ *
+ * Not part of the regular build; run with {@code mvn test -Dtest=SlowUpstreamLoadTest -Dloadtest=true}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class SlowUpstreamLoadTest {
+
+    private static final int CONCURRENT_REQUESTS = 2_000;
+    private static final long UPSTREAM_DELAY_MS = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowUpstreamLoadTest.class);
+
+    @Test
+    void compareThroughput() throws Exception {
+        HttpServer upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        upstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        upstream.createContext("/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(UPSTREAM_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"ok\"}]}}]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        upstream.start();
+        try {
+            String upstreamUrl = "http://127.0.0.1:" + upstream.getAddress().getPort() + "/generate";
+            Result platform = run(false, upstreamUrl);
+            Result virtual = run(true, upstreamUrl);
+            logger.info("{}", platform);
+            logger.info("{}", virtual);
+            assertThat(platform.failed()).isZero();
+            assertThat(virtual.failed()).isZero();
+        } finally {
+            upstream.stop(0);
+        }
+    }
+
+    private Result run(boolean virtualThreads, String upstreamUrl) throws Exception {
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(ServiceApplication.class)
+                .profiles("test")
+                // command-line arguments, so they override application.properties (builder properties would not)
+                .run("--server.port=0",
+                        "--management.server.port=-1",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--gemini.api.key=test",
+                        "--gemini.api.url=" + upstreamUrl,
+                        // measure the upstream path, not the local quota guard
+                        "--app.chat.rate-limit.enabled=false",
+                        "--logging.level.root=warn",
+                        "--logging.level." + SlowUpstreamLoadTest.class.getName() + "=info")) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            URI chat = URI.create("http://127.0.0.1:" + port + "/api/chat");
+
+            try (HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build()) {
+                // warm up the connection paths and JIT
+                send(client, chat, "warm up").join();
+
+                long[] latencies = new long[CONCURRENT_REQUESTS];
+                List<CompletableFuture<Integer>> calls = new ArrayList<>(CONCURRENT_REQUESTS);
+                long start = System.nanoTime();
+                for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                    int n = i;
+                    long sent = System.nanoTime();
+                    // distinct prompts so no response can be shared between requests
+                    calls.add(send(client, chat, "question " + i).whenComplete((status, error) ->
+                            latencies[n] = System.nanoTime() - sent));
+                }
+                int failed = 0;
+                for (CompletableFuture<Integer> call : calls) {
+                    try {
+                        if (call.join() != 200) failed++;
+                    } catch (Exception e) {
+                        failed++;
+                    }
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                Arrays.sort(latencies);
+                return new Result(virtualThreads ? "virtual threads" : "platform threads", CONCURRENT_REQUESTS / seconds,
+                        latencies[CONCURRENT_REQUESTS / 2] / 1_000_000, latencies[CONCURRENT_REQUESTS * 99 / 100] / 1_000_000, failed);
+            }
+        }
+    }
+
+    private static CompletableFuture<Integer> send(HttpClient client, URI uri, String message) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"" + message + "\"}"))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private record Result(String mode, double requestsPerSecond, long p50Millis, long p99Millis, int failed) {
+        @Override
+        public String toString() {
+            return String.format("%-16s %8.0f req/s   p50 %5d ms   p99 %5d ms   failed %d", mode, requestsPerSecond, p50Millis, p99Millis, failed);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.provider.service.admin;
+
+import com.provider.service.entity.UserEntity;
+import com.provider.service.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.provider.service.admin.BulkUserUpdates.Outcome.ADMIN_PROTECTED;
+import static com.provider.service.admin.BulkUserUpdates.Outcome.NOT_A_PROVIDER;
+import static com.provider.service.admin.BulkUserUpdates.Outcome.NOT_FOUND;
+import static com.provider.service.admin.BulkUserUpdates.Outcome.SKIPPED;
+import static com.provider.service.admin.BulkUserUpdates.Outcome.UNCHANGED;
+import static com.provider.service.admin.BulkUserUpdates.Outcome.UPDATED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Import(BulkUserUpdates.class)
+@ActiveProfiles("test")
+class BulkUserUpdatesTests {
+
+    private static final int PENDING = 300;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BulkUserUpdates bulkUpdates;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private final List<Long> pending = new ArrayList<>();
+    private Long verified;
+    private Long customer;
+    private Long admin;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < PENDING; i++) {
+            pending.add(persist("provider" + i, "PROVIDER", "pending", i % 2 == 0 ? "411001" : "400001"));
+        }
+        verified = persist("verified", "PROVIDER", "active", "411001");
+        em.getEntityManager().createQuery("update UserEntity u set u.status1 = 'verified' where u.id = :id")
+                .setParameter("id", verified).executeUpdate();
+        customer = persist("customer", "USER", "active", "411001");
+        admin = persist("admin", "ADMIN", "active", "411001");
+        em.flush();
+        em.clear();
+    }
+
+    private Long persist(String name, String role, String status, String pincode) {
+        UserEntity u = new UserEntity();
+        u.setName(name);
+        u.setEmail(name + "@example.com");
+        u.setPassword("secret");
+        u.setRole(role);
+        u.setStatus(status);
+        u.setPincode(pincode);
+        return em.persist(u).getId();
+    }
+
+    private Statistics statistics() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+
+    @Test
+    void verifiesEveryEligibleProviderWithOneReadAndOneUpdate() {
+        List<Long> ids = new ArrayList<>(pending);
+        ids.addAll(List.of(verified, customer, admin, Long.MAX_VALUE));
+
+        Statistics stats = statistics();
+        BulkUserUpdates.Result result = bulkUpdates.verifyProviders(ids);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(result.changedIds()).containsExactlyElementsOf(pending);
+        assertThat(result.outcomes()).containsKeys(ids.toArray(Long[]::new));
+        assertThat(result.outcomes().get(pending.get(0))).isEqualTo(UPDATED);
+        assertThat(result.outcomes().get(verified)).isEqualTo(UNCHANGED);
+        assertThat(result.outcomes().get(customer)).isEqualTo(NOT_A_PROVIDER);
+        assertThat(result.outcomes().get(admin)).isEqualTo(ADMIN_PROTECTED);
+        assertThat(result.outcomes().get(Long.MAX_VALUE)).isEqualTo(NOT_FOUND);
+
+        em.clear();
+        assertThat(userRepository.findByRoleAndStatus("PROVIDER", "active")).hasSize(PENDING + 1)
+                .allSatisfy(u -> assertThat(u.getStatus1()).isEqualTo("verified"));
+        assertThat(userRepository.findById(customer).orElseThrow().getStatus1()).isNull();
+    }
+
+    @Test
+    void statusUpdatesSkipAdminsAndUnchangedUsers() {
+        List<Long> inPune = userRepository.findIdsByFilter("PROVIDER", "pending", "411001", Limit.of(1000));
+        assertThat(inPune).hasSize(PENDING / 2);
+
+        List<Long> ids = new ArrayList<>(inPune);
+        ids.addAll(List.of(admin, customer));
+        BulkUserUpdates.Result result = bulkUpdates.updateStatus(ids, "inactive");
+
+        assertThat(result.changed()).hasSize(PENDING / 2 + 1);
+        assertThat(result.outcomes().get(admin)).isEqualTo(ADMIN_PROTECTED);
+        em.clear();
+        assertThat(userRepository.findById(admin).orElseThrow().getStatus()).isEqualTo("active");
+        assertThat(userRepository.findById(customer).orElseThrow().getStatus()).isEqualTo("inactive");
+        assertThat(userRepository.findByRoleAndStatus("PROVIDER", "pending")).hasSize(PENDING / 2);
+
+        // repeating the request changes nothing
+        BulkUserUpdates.Result again = bulkUpdates.updateStatus(ids, "inactive");
+        assertThat(again.changed()).isEmpty();
+        assertThat(again.outcomes().get(customer)).isEqualTo(UNCHANGED);
+    }
+
+    @Test
+    void usersWhoseRoleChangesBeforeTheUpdateAreReportedAsSkipped() {
+        Long promoted = pending.get(0);
+        Long demoted = pending.get(1);
+        UserRepository racing = mock(UserRepository.class, delegatesTo(userRepository));
+        // another admin changes two roles right after the users were read
+        doAnswer(invocation -> {
+            List<UserStatusRow> rows = userRepository.findStatusRowsByIdIn(invocation.getArgument(0));
+            setRole(promoted, "ADMIN");
+            setRole(demoted, "USER");
+            return rows;
+        }).doAnswer(invocation -> userRepository.findStatusRowsByIdIn(invocation.getArgument(0)))
+                .when(racing).findStatusRowsByIdIn(any());
+
+        List<Long> ids = List.of(promoted, demoted, pending.get(2));
+        BulkUserUpdates.Result verify = new BulkUserUpdates(racing).verifyProviders(ids);
+
+        assertThat(verify.changedIds()).containsExactly(pending.get(2));
+        assertThat(verify.outcomes()).containsEntry(promoted, SKIPPED).containsEntry(demoted, SKIPPED)
+                .containsEntry(pending.get(2), UPDATED);
+        em.clear();
+        assertThat(userRepository.findById(promoted).orElseThrow().getStatus()).isEqualTo("pending");
+        assertThat(userRepository.findById(demoted).orElseThrow().getStatus()).isEqualTo("pending");
+    }
+
+    private void setRole(Long id, String role) {
+        em.getEntityManager().createQuery("update UserEntity u set u.role = :role where u.id = :id")
+                .setParameter("role", role).setParameter("id", id).executeUpdate();
+    }
+}
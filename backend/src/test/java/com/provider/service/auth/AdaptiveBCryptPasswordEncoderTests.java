@@ -0,0 +1,37 @@
+package com.provider.service.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBCryptPasswordEncoderTests {
+
+    @Test
+    void hashesWithAnotherCostNeedRehashingInBothDirections() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("pw"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("pw"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("pw"))).isFalse();
+        assertThat(encoder.upgradeEncoding("plain-text")).isFalse();
+        // re-hashing keeps the password valid
+        assertThat(encoder.matches("pw", new BCryptPasswordEncoder(4).encode("pw"))).isTrue();
+    }
+
+    @Test
+    void readsTheCostOfAHash() {
+        assertThat(AdaptiveBCryptPasswordEncoder.costOf("$2a$10$abcdefghijklmnopqrstuv")).isEqualTo(10);
+        assertThat(AdaptiveBCryptPasswordEncoder.costOf("$2b$04$abcdefghijklmnopqrstuv")).isEqualTo(4);
+        assertThat(AdaptiveBCryptPasswordEncoder.costOf(null)).isEqualTo(-1);
+        assertThat(AdaptiveBCryptPasswordEncoder.costOf("$2a$x")).isEqualTo(-1);
+    }
+
+    @Test
+    void calibratedCostDoublesWorkPerStepWithinBounds() {
+        // 60 ms at cost 10: 120 ms at 11, 240 ms at 12, 480 ms at 13
+        assertThat(AdaptiveBCryptPasswordEncoder.costFor(250, 60)).isEqualTo(12);
+        assertThat(AdaptiveBCryptPasswordEncoder.costFor(250, 500)).isEqualTo(10);
+        assertThat(AdaptiveBCryptPasswordEncoder.costFor(250, 1)).isEqualTo(14);
+    }
+}
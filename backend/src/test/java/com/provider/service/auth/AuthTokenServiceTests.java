@@ -0,0 +1,84 @@
+package com.provider.service.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.provider.service.dto.UserDto;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthTokenServiceTests {
+
+    private AuthTokenService service(String secret) {
+        return new AuthTokenService(new ObjectMapper(), secret, 60, 100, 300, 4);
+    }
+
+    private static UserDto user(long id) {
+        UserDto u = new UserDto();
+        u.setId(id);
+        u.setEmail("user" + id + "@example.com");
+        u.setRole("USER");
+        return u;
+    }
+
+    @Test
+    void issuedTokenAuthenticatesWithItsClaims() {
+        AuthTokenService tokens = service("secret");
+        String token = tokens.issue(user(7));
+
+        AuthPrincipal principal = tokens.authenticate(token).orElseThrow();
+        assertThat(principal.userId()).isEqualTo(7);
+        assertThat(principal.email()).isEqualTo("user7@example.com");
+        assertThat(principal.role()).isEqualTo("USER");
+        assertThat(tokens.cachedProfile(7L).getEmail()).isEqualTo("user7@example.com");
+    }
+
+    @Test
+    void tokenIsVerifiedByAnotherInstanceWithTheSameSecret() {
+        String token = service("secret").issue(user(7));
+
+        // not in this instance's cache, so the signature is checked
+        assertThat(service("secret").authenticate(token)).isPresent();
+        assertThat(service("other-secret").authenticate(token)).isEmpty();
+    }
+
+    @Test
+    void tamperedOrMalformedTokensAreRejected() {
+        AuthTokenService issuer = service("secret");
+        String token = issuer.issue(user(7));
+        String forgedClaims = issuer.issue(user(8)).split("\\.")[0] + "." + token.split("\\.")[1];
+
+        AuthTokenService verifier = service("secret");
+        assertThat(verifier.authenticate(forgedClaims)).isEmpty();
+        assertThat(verifier.authenticate("not-a-token")).isEmpty();
+        assertThat(verifier.authenticate("a.b.c")).isEmpty();
+        assertThat(verifier.authenticate(null)).isEmpty();
+    }
+
+    @Test
+    void loggedOutTokenIsRejectedEvenWhenCached() {
+        AuthTokenService tokens = service("secret");
+        String token = tokens.issue(user(7));
+        String other = tokens.issue(user(7));
+
+        tokens.revoke(token);
+
+        assertThat(tokens.authenticate(token)).isEmpty();
+        assertThat(tokens.authenticate(other)).isPresent();
+    }
+
+    @Test
+    void revokingAUserInvalidatesOnlyTokensIssuedBefore() throws Exception {
+        AuthTokenService tokens = service("secret");
+        String before = tokens.issue(user(7));
+        String unrelated = tokens.issue(user(8));
+
+        Thread.sleep(2);
+        tokens.revokeAllFor(7L);
+        Thread.sleep(2);
+        String after = tokens.issue(user(7));
+
+        assertThat(tokens.authenticate(before)).isEmpty();
+        assertThat(tokens.authenticate(unrelated)).isPresent();
+        assertThat(tokens.authenticate(after)).isPresent();
+    }
+}
@@ -0,0 +1,44 @@
+package com.provider.service.auth;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamTicketsTests {
+
+    private static AuthPrincipal principal(long userId) {
+        return new AuthPrincipal(userId, "u" + userId + "@example.com", "PROVIDER", 0, Long.MAX_VALUE, "t" + userId);
+    }
+
+    @Test
+    void ticketIsRedeemedOnceForItsHolder() {
+        StreamTickets tickets = new StreamTickets(30, 100);
+        String ticket = tickets.issue(principal(7));
+
+        assertThat(tickets.redeem(ticket)).isEqualTo(principal(7));
+        assertThat(tickets.redeem(ticket)).isNull();
+        assertThat(tickets.redeem("forged")).isNull();
+        assertThat(tickets.redeem(null)).isNull();
+    }
+
+    @Test
+    void expiredTicketsAreRejected() {
+        StreamTickets tickets = new StreamTickets(0, 100);
+
+        assertThat(tickets.redeem(tickets.issue(principal(7)))).isNull();
+    }
+
+    @Test
+    void outstandingTicketsAreBounded() {
+        StreamTickets live = new StreamTickets(30, 2);
+        assertThat(live.issue(principal(1))).isNotNull();
+        assertThat(live.issue(principal(2))).isNotNull();
+        assertThat(live.issue(principal(3))).isNull();
+
+        // expired tickets are dropped to make room
+        StreamTickets expiring = new StreamTickets(0, 2);
+        expiring.issue(principal(1));
+        expiring.issue(principal(2));
+        assertThat(expiring.issue(principal(3))).isNotNull();
+    }
+}
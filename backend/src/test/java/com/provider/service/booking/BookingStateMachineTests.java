@@ -0,0 +1,224 @@
+package com.provider.service.booking;
+
+import com.provider.service.entity.BookingEntity;
+import com.provider.service.outbox.Outbox;
+import com.provider.service.repository.BookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Transitions run in their own transactions from many threads, so the seed data is committed
+ * rather than rolled back with a test transaction.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingStateMachineTests {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate transactions;
+
+    private final Outbox outbox = mock(Outbox.class);
+
+    private BookingStateMachine stateMachine;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // enough attempts that no thread gives up under this much contention
+        stateMachine = new BookingStateMachine(bookingRepository, event -> {}, transactions, outbox, 100);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAllById(ids);
+    }
+
+    private Long newBooking() {
+        BookingEntity booking = new BookingEntity();
+        booking.setStatus(BookingStatus.BOOKED);
+        booking.setDate(LocalDateTime.now());
+        Long id = bookingRepository.save(booking).getId();
+        ids.add(id);
+        return id;
+    }
+
+    @Test
+    void onlyAllowedMovesAreApplied() {
+        Long id = newBooking();
+
+        assertThat(stateMachine.transition(id, BookingStatus.PAID).outcome()).isEqualTo(BookingTransition.Outcome.NOT_ALLOWED);
+        assertThat(stateMachine.transition(id, BookingStatus.AWAITING_PAYMENT).outcome()).isEqualTo(BookingTransition.Outcome.APPLIED);
+        assertThat(stateMachine.transition(id, BookingStatus.CANCELLED).outcome()).isEqualTo(BookingTransition.Outcome.APPLIED);
+        // repeating a terminal status is a no-op, leaving it is refused
+        assertThat(stateMachine.transition(id, BookingStatus.CANCELLED).outcome()).isEqualTo(BookingTransition.Outcome.UNCHANGED);
+        BookingTransition reopen = stateMachine.transition(id, BookingStatus.IN_PROGRESS);
+        assertThat(reopen.outcome()).isEqualTo(BookingTransition.Outcome.NOT_ALLOWED);
+        assertThat(reopen.current()).isEqualTo(BookingStatus.CANCELLED);
+
+        BookingEntity stored = bookingRepository.findById(id).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(BookingStatus.CANCELLED);
+        assertThat(stored.getVersion()).isEqualTo(2);
+        // one outbox event per applied move
+        verify(outbox, times(2)).append(eq(BookingEvents.STATUS_CHANGED), eq(id), any());
+        assertThat(stateMachine.transition(Long.MAX_VALUE, BookingStatus.CANCELLED).outcome())
+                .isEqualTo(BookingTransition.Outcome.NOT_FOUND);
+    }
+
+    @Test
+    void repeatingTheCurrentStatusWritesNothing() {
+        Long id = newBooking();
+        stateMachine.transition(id, BookingStatus.AWAITING_PAYMENT);
+
+        assertThat(stateMachine.transition(id, BookingStatus.AWAITING_PAYMENT).outcome()).isEqualTo(BookingTransition.Outcome.UNCHANGED);
+
+        assertThat(bookingRepository.findById(id).orElseThrow().getVersion()).isEqualTo(1);
+        verify(outbox, times(1)).append(eq(BookingEvents.STATUS_CHANGED), eq(id), any());
+        // a re-quote is a transition of its own, written by the caller's update
+        assertThat(stateMachine.transition(id, BookingStatus.AWAITING_PAYMENT,
+                from -> bookingRepository.transitionStatus(id, from, BookingStatus.AWAITING_PAYMENT)).outcome())
+                .isEqualTo(BookingTransition.Outcome.APPLIED);
+    }
+
+    @Test
+    void legacyStatusValuesLoadAndCanBeRepaired() {
+        Long lowercase = newBooking();
+        Long unknown = newBooking();
+        jdbc.update("update bookings set status = 'in progress' where id = ?", lowercase);
+        jdbc.update("update bookings set status = 'PENDING' where id = ?", unknown);
+
+        assertThat(bookingRepository.findById(lowercase).orElseThrow().getStatus()).isEqualTo(BookingStatus.IN_PROGRESS);
+        assertThat(bookingRepository.findById(unknown).orElseThrow().getStatus()).isEqualTo(BookingStatus.UNKNOWN);
+
+        assertThat(stateMachine.transition(unknown, BookingStatus.BOOKED).outcome()).isEqualTo(BookingTransition.Outcome.APPLIED);
+        assertThat(jdbc.queryForObject("select status from bookings where id = ?", String.class, unknown)).isEqualTo("BOOKED");
+    }
+
+    @Test
+    void staleEntityWriteIsRejectedAfterATransition() {
+        Long id = newBooking();
+        BookingEntity stale = bookingRepository.findById(id).orElseThrow();
+
+        stateMachine.transition(id, BookingStatus.REJECTED);
+        stale.setStatus(BookingStatus.AWAITING_PAYMENT);
+
+        assertThatThrownBy(() -> bookingRepository.save(stale)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(bookingRepository.findById(id).orElseThrow().getStatus()).isEqualTo(BookingStatus.REJECTED);
+    }
+
+    @Test
+    void concurrentAcceptAndRejectNeverBothWin() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Long id = newBooking();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<BookingTransition>> results = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    BookingStatus target = t % 2 == 0 ? BookingStatus.AWAITING_PAYMENT : BookingStatus.REJECTED;
+                    Callable<BookingTransition> task = () -> {
+                        start.await();
+                        return stateMachine.transition(id, target);
+                    };
+                    results.add(pool.submit(task));
+                }
+                start.countDown();
+
+                Map<BookingStatus, Integer> applied = new EnumMap<>(BookingStatus.class);
+                for (Future<BookingTransition> f : results) {
+                    BookingTransition r = f.get();
+                    assertThat(r.outcome()).isNotEqualTo(BookingTransition.Outcome.CONFLICT);
+                    if (r.outcome() == BookingTransition.Outcome.APPLIED) applied.merge(r.target(), 1, Integer::sum);
+                }
+                BookingEntity stored = bookingRepository.findById(id).orElseThrow();
+                int rejects = applied.getOrDefault(BookingStatus.REJECTED, 0);
+                int accepts = applied.getOrDefault(BookingStatus.AWAITING_PAYMENT, 0);
+
+                // REJECTED is terminal and AWAITING_PAYMENT cannot be rejected: whichever lands first wins alone
+                if (stored.getStatus() == BookingStatus.REJECTED) {
+                    assertThat(rejects).isEqualTo(1);
+                    assertThat(accepts).isZero();
+                } else {
+                    assertThat(stored.getStatus()).isEqualTo(BookingStatus.AWAITING_PAYMENT);
+                    assertThat(rejects).isZero();
+                    assertThat(accepts).isPositive();
+                }
+                // no write was lost: every applied transition bumped the version exactly once
+                assertThat(stored.getVersion()).isEqualTo(rejects + accepts);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void hammeringOneBookingThroughItsLifecycleLosesNoTransition() throws Exception {
+        Long id = newBooking();
+        // every thread pushes the booking one step forward whenever its step is the next valid one
+        BookingStatus[] steps = {BookingStatus.AWAITING_PAYMENT, BookingStatus.PAID, BookingStatus.IN_PROGRESS, BookingStatus.COMPLETED};
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int won = 0;
+                    for (BookingStatus step : steps) {
+                        BookingTransition r = stateMachine.transition(id, step);
+                        if (r.outcome() == BookingTransition.Outcome.APPLIED) won++;
+                    }
+                    return won;
+                }));
+            }
+            start.countDown();
+
+            int applied = 0;
+            for (Future<Integer> f : results) applied += f.get();
+            BookingEntity stored = bookingRepository.findById(id).orElseThrow();
+            assertThat(stored.getStatus()).isEqualTo(BookingStatus.COMPLETED);
+            // repeating the current status is a no-op, so every step is applied exactly once
+            assertThat(applied).isEqualTo(steps.length);
+            assertThat(stored.getVersion()).isEqualTo(applied);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.provider.service.booking;
+
+import com.provider.service.dto.BookingView;
+import com.provider.service.outbox.OutboxEvent;
+import com.provider.service.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The emitters are never attached to a response here, so sends are buffered and succeed; the
+ * pushed counter therefore counts the subscribers each row was written to.
+ */
+class BookingStreamHubTests {
+
+    private final BookingRepository repository = mock(BookingRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BookingStreamHub hub = new BookingStreamHub(repository, registry, 60_000, 0, 3, 2, 3);
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @AfterEach
+    void close() {
+        unblock.countDown();
+        hub.close();
+    }
+
+    private static BookingView row(long id, long userId, Long providerId, long serviceProviderId) {
+        return new BookingView(id, LocalDateTime.now(), BookingStatus.BOOKED, "addr", null, null, null, providerId, null, null,
+                userId, "user", "user@example.com", null,
+                1L, "Plumbing", null, 100.0, "ACTIVE",
+                serviceProviderId, "provider", "provider@example.com", null);
+    }
+
+    private static OutboxEvent event(String type, long bookingId) {
+        return new OutboxEvent(bookingId, type, bookingId, "{}", LocalDateTime.now());
+    }
+
+    private double awaitPushed(double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        double pushed;
+        while ((pushed = registry.get("app.bookings.stream.pushed").counter().count()) < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return pushed;
+    }
+
+    @Test
+    void rowsGoToTheBookingsUserAndProviderOnly() throws InterruptedException {
+        hub.subscribe(BookingStreamHub.Audience.USER, 1L);
+        hub.subscribe(BookingStreamHub.Audience.PROVIDER, 2L);
+        hub.subscribe(BookingStreamHub.Audience.USER, 3L);
+        // booking 11 predates bookings.provider_id, so its provider comes from the service
+        when(repository.findCurrentViewsByIdIn(any())).thenReturn(List.of(row(10, 1, 2L, 2), row(11, 1, null, 2)));
+
+        hub.accept(List.of(event(BookingEvents.CREATED, 10), event(BookingEvents.STATUS_CHANGED, 10),
+                event(BookingEvents.NOTES_CHANGED, 11), event("payment.captured", 12)));
+
+        verify(repository).findCurrentViewsByIdIn(Set.of(10L, 11L));
+        assertThat(awaitPushed(4)).isEqualTo(4);
+    }
+
+    @Test
+    void aClientThatStopsReadingIsDroppedWithoutHoldingUpTheOthers() throws InterruptedException {
+        // the stalled client's socket buffer is full: every write blocks until the test ends
+        SseEmitter stalled = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        List<Object> received = new CopyOnWriteArrayList<>();
+        SseEmitter healthy = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.add(builder);
+            }
+        };
+        hub.subscribe(BookingStreamHub.Audience.USER, 1L, stalled);
+        hub.subscribe(BookingStreamHub.Audience.PROVIDER, 2L, healthy);
+        when(repository.findCurrentViewsByIdIn(any())).thenReturn(List.of(row(10, 1, 2L, 2)));
+
+        // one change at a time, which the healthy client reads before the next
+        for (int i = 1; i <= 10; i++) {
+            hub.accept(List.of(event(BookingEvents.STATUS_CHANGED, 10)));
+            assertThat(awaitPushed(i)).isEqualTo(i);
+        }
+
+        assertThat(registry.get("app.bookings.stream.dropped").counter().count()).isEqualTo(1);
+        assertThat(hub.connections()).isEqualTo(1);
+        // the "connected" comment and ten rows
+        assertThat(received).hasSize(11);
+    }
+
+    @Test
+    void nothingIsReadWithoutSubscribers() {
+        hub.accept(List.of(event(BookingEvents.CREATED, 10)));
+
+        verify(repository, never()).findCurrentViewsByIdIn(any());
+    }
+
+    @Test
+    void subscriptionsBeyondMaxConnectionsAreRefused() {
+        for (long id = 1; id <= 3; id++) {
+            assertThat(hub.subscribe(BookingStreamHub.Audience.USER, id)).isNotNull();
+        }
+
+        assertThat(hub.subscribe(BookingStreamHub.Audience.PROVIDER, 9L)).isNull();
+        assertThat(hub.connections()).isEqualTo(3);
+        assertThat(registry.get("app.bookings.stream.connections").gauge().value()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,115 @@
+package com.provider.service.booking;
+
+import com.provider.service.dto.BookingView;
+import com.provider.service.entity.BookingEntity;
+import com.provider.service.outbox.Outbox;
+import com.provider.service.repository.BookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The batcher writes on its own thread and transaction, so these tests commit their seed data
+ * instead of running inside the usual rolled-back test transaction.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingUpdateBatcherTests {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookingUpdateBatcher batcher;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 3; i++) {
+            BookingEntity booking = new BookingEntity();
+            booking.setStatus(BookingStatus.BOOKED);
+            booking.setDate(LocalDateTime.now().plusDays(i));
+            ids.add(bookingRepository.save(booking).getId());
+        }
+        // a long window so every submit below lands in the same batch
+        batcher = new BookingUpdateBatcher(jdbc, new TransactionTemplate(transactionManager), bookingRepository, mock(Outbox.class), 200, 100);
+    }
+
+    @AfterEach
+    void cleanUp() throws InterruptedException {
+        batcher.close();
+        bookingRepository.deleteAllById(ids);
+    }
+
+    @Test
+    void mergesUpdatesToTheSameBookingIntoOneRow() {
+        Long id = ids.get(0);
+        CompletableFuture<BookingView> first = batcher.submit(id, BookingPatch.providerNote("on my way"));
+        CompletableFuture<BookingView> second = batcher.submit(id, BookingPatch.fromPayload(Map.of("userNote", "gate code 42")));
+        CompletableFuture<BookingView> third = batcher.submit(id, BookingPatch.providerNote("arriving at 10"));
+
+        BookingView view = third.join();
+        assertThat(view.getProviderNote()).isEqualTo("arriving at 10");
+        assertThat(view.getUserNote()).isEqualTo("gate code 42");
+        assertThat(bookingRepository.findById(id).orElseThrow().getVersion()).isEqualTo(1);
+        // every caller sees the merged result
+        assertThat(first.join()).isSameAs(view);
+        assertThat(second.join()).isSameAs(view);
+        assertThat(batcher.stats()).containsEntry("merged", 2L).containsEntry("rowsWritten", 1L).containsEntry("flushes", 1L);
+    }
+
+    @Test
+    void writesDistinctBookingsInOneBatchAndLeavesUnsetFieldsAlone() {
+        jdbc.update("update bookings set user_note = 'ring twice' where id = ?", ids.get(1));
+
+        CompletableFuture<BookingView> a = batcher.submit(ids.get(0), BookingPatch.fromParams("note a", null));
+        CompletableFuture<BookingView> b = batcher.submit(ids.get(1), BookingPatch.providerNote("note b"));
+        CompletableFuture<BookingView> c = batcher.submit(ids.get(2), BookingPatch.fromPayload(Map.of("userNote", "note c")));
+
+        assertThat(a.join().getStatus()).isEqualTo("BOOKED");
+        assertThat(a.join().getProviderNote()).isEqualTo("note a");
+        assertThat(b.join().getProviderNote()).isEqualTo("note b");
+        assertThat(b.join().getUserNote()).isEqualTo("ring twice");
+        assertThat(c.join().getUserNote()).isEqualTo("note c");
+        assertThat(batcher.stats()).containsEntry("rowsWritten", 3L).containsEntry("flushes", 1L);
+    }
+
+    @Test
+    void unknownBookingCompletesWithNull() {
+        assertThat(batcher.submit(Long.MAX_VALUE, BookingPatch.providerNote("hello")).join()).isNull();
+    }
+
+    @Test
+    void laterPatchFieldsWinAndNullNotesClear() {
+        BookingPatch merged = BookingPatch.fromParams("a", "b")
+                .then(BookingPatch.fromPayload(Collections.singletonMap("providerNote", null)));
+
+        assertThat(merged.setProviderNote()).isTrue();
+        assertThat(merged.providerNote()).isNull();
+        assertThat(merged.userNote()).isEqualTo("b");
+    }
+}
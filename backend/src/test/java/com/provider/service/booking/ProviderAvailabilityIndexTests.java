@@ -0,0 +1,115 @@
+package com.provider.service.booking;
+
+import com.provider.service.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProviderAvailabilityIndexTests {
+
+    private static final Long PROVIDER = 7L;
+    private static final LocalDateTime NINE = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final AtomicLong ids = new AtomicLong(100);
+    private ProviderAvailabilityIndex index;
+
+    @BeforeEach
+    void warm() {
+        when(bookingRepository.findSchedule(any(), any())).thenReturn(List.of(
+                new ScheduledBooking(1L, PROVIDER, NINE),
+                new ScheduledBooking(2L, PROVIDER, NINE.plusHours(2)),
+                new ScheduledBooking(3L, 8L, NINE),
+                new ScheduledBooking(4L, null, NINE)));
+        index = new ProviderAvailabilityIndex(bookingRepository, 60, 50, 30);
+        index.rebuild();
+    }
+
+    private Long book(LocalDateTime start) {
+        return index.reserve(PROVIDER, start, ids::incrementAndGet, id -> id);
+    }
+
+    @Test
+    void answersFreeBusyFromTheWarmedSchedule() {
+        assertThat(index.isFree(PROVIDER, NINE, NINE.plusHours(1))).isFalse();
+        assertThat(index.isFree(PROVIDER, NINE.plusMinutes(59), NINE.plusMinutes(61))).isFalse();
+        assertThat(index.isFree(PROVIDER, NINE.plusHours(1), NINE.plusHours(2))).isTrue();
+        assertThat(index.isFree(PROVIDER, NINE.minusHours(1), NINE)).isTrue();
+        assertThat(index.isFree(PROVIDER, NINE.plusMinutes(90), NINE.plusMinutes(150))).isFalse();
+        assertThat(index.isFree(99L, NINE, NINE.plusHours(1))).isTrue();
+    }
+
+    @Test
+    void nextFreeSlotsSkipBookedTime() {
+        List<ProviderAvailabilityIndex.Slot> slots = index.nextFreeSlots(PROVIDER, NINE.plusMinutes(30), 3);
+
+        assertThat(slots).extracting(ProviderAvailabilityIndex.Slot::start)
+                .containsExactly(NINE.plusHours(1), NINE.plusHours(3), NINE.plusHours(4));
+    }
+
+    @Test
+    void conflictingReservationIsRefusedWithoutInserting() {
+        List<String> inserted = new ArrayList<>();
+
+        assertThatThrownBy(() -> index.reserve(PROVIDER, NINE.plusMinutes(30), () -> inserted.add("x") ? 1L : 0L, id -> id))
+                .isInstanceOf(SlotUnavailableException.class);
+        assertThat(inserted).isEmpty();
+        assertThat(book(NINE.plusHours(1))).isNotNull();
+        assertThat(index.isFree(PROVIDER, NINE.plusHours(1), NINE.plusHours(2))).isFalse();
+    }
+
+    @Test
+    void cancellingReleasesTheSlot() {
+        index.onStatusChanged(new BookingStatusChangedEvent(1L, BookingStatus.BOOKED, BookingStatus.CANCELLED));
+        assertThat(index.isFree(PROVIDER, NINE, NINE.plusHours(1))).isTrue();
+
+        // other transitions keep it
+        index.onStatusChanged(new BookingStatusChangedEvent(2L, BookingStatus.BOOKED, BookingStatus.AWAITING_PAYMENT));
+        assertThat(index.isFree(PROVIDER, NINE.plusHours(2), NINE.plusHours(3))).isFalse();
+    }
+
+    @Test
+    void concurrentRequestsForTheSameSlotHaveOneWinner() throws Exception {
+        int threads = 32;
+        LocalDateTime noon = NINE.plusHours(3);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                // every request overlaps the others: all start within the same hour
+                LocalDateTime at = noon.plusMinutes(t % 30);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        book(at);
+                        return true;
+                    } catch (SlotUnavailableException taken) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int won = 0;
+            for (Future<Boolean> f : results) if (f.get()) won++;
+            assertThat(won).isEqualTo(1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.provider.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LruTtlCacheTests {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(String key) {
+        loads.incrementAndGet();
+        return key.toUpperCase();
+    }
+
+    @Test
+    void entriesExpireAfterTheirTtl() throws InterruptedException {
+        LruTtlCache<String, String> cache = new LruTtlCache<>("test", 10, Duration.ofMillis(20));
+
+        assertThat(cache.get("a", this::load)).isEqualTo("A");
+        assertThat(cache.get("a", this::load)).isEqualTo("A");
+        assertThat(loads).hasValue(1);
+
+        Thread.sleep(40);
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.get("a", this::load)).isEqualTo("A");
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void theLeastRecentlyUsedEntryIsEvicted() {
+        LruTtlCache<String, String> cache = new LruTtlCache<>("test", 2, Duration.ofMinutes(1));
+        cache.put("a", "A");
+        cache.put("b", "B");
+        // reading a makes b the least recently used
+        cache.getIfPresent("a");
+
+        cache.put("c", "C");
+
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+        assertThat(cache.getIfPresent("c")).isEqualTo("C");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void aLoadRacingAnInvalidationOfItsKeyIsNotCached() {
+        LruTtlCache<String, String> cache = new LruTtlCache<>("test", 10, Duration.ofMinutes(1));
+
+        String loaded = cache.get("a", key -> {
+            // a write to the key commits while its old value is being read
+            cache.invalidate("a");
+            return "stale";
+        });
+
+        assertThat(loaded).isEqualTo("stale");
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.get("a", this::load)).isEqualTo("A");
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+    }
+
+    @Test
+    void invalidatingAnotherKeyDoesNotStopALoadFromBeingCached() {
+        LruTtlCache<String, String> cache = new LruTtlCache<>("test", 10, Duration.ofMinutes(1));
+
+        cache.get("a", key -> {
+            cache.invalidate("b");
+            return load(key);
+        });
+
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+    }
+
+    @Test
+    void invalidateAllRacingALoadStopsItFromBeingCached() {
+        LruTtlCache<String, String> cache = new LruTtlCache<>("test", 10, Duration.ofMinutes(1));
+
+        cache.get("a", key -> {
+            cache.invalidateAll();
+            return load(key);
+        });
+
+        assertThat(cache.getIfPresent("a")).isNull();
+    }
+
+    @Test
+    void aLoadStartedAfterTheInvalidationIsCached() {
+        LruTtlCache<String, String> cache = new LruTtlCache<>("test", 10, Duration.ofMinutes(1));
+        // an outer load of the key is still running when the key is invalidated and loaded again
+        cache.get("a", key -> {
+            cache.invalidate("a");
+            assertThat(cache.get("a", this::load)).isEqualTo("A");
+            return "stale";
+        });
+
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+    }
+}
@@ -0,0 +1,116 @@
+package com.provider.service.cache;
+
+import com.provider.service.cache.ResourceVersions.Resource;
+import com.provider.service.catalog.CatalogChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceVersionsTests {
+
+    private final ResourceVersions versions = new ResourceVersions(0, 300, 30, 60);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static HttpHeaders request(String ifNoneMatch, String accept) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        if (accept != null) headers.set(HttpHeaders.ACCEPT, accept);
+        return headers;
+    }
+
+    private ResponseEntity<?> get(Resource resource, Long id, String ifNoneMatch) {
+        return get(resource, id, ifNoneMatch, null);
+    }
+
+    private ResponseEntity<?> get(Resource resource, Long id, String ifNoneMatch, String accept) {
+        return versions.respond(request(ifNoneMatch, accept), resource, id, () -> {
+            loads.incrementAndGet();
+            return ResponseEntity.ok(List.of("row"));
+        });
+    }
+
+    @Test
+    void aRepeatedGetWithTheETagIsAnsweredWithoutLoading() {
+        ResponseEntity<?> first = get(Resource.REVIEWS, 7L, null);
+        String etag = first.getHeaders().getETag();
+
+        ResponseEntity<?> second = get(Resource.REVIEWS, 7L, etag);
+        ResponseEntity<?> strong = get(Resource.REVIEWS, 7L, "\"other\", " + etag.substring(2));
+
+        assertThat(first.getStatusCode().value()).isEqualTo(200);
+        assertThat(first.getHeaders().getCacheControl()).isEqualTo("max-age=60, public");
+        assertThat(first.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT);
+        assertThat(second.getStatusCode().value()).isEqualTo(304);
+        assertThat(etag).startsWith("W/\"");
+        assertThat(second.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(second.getBody()).isNull();
+        assertThat(strong.getStatusCode().value()).isEqualTo(304);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void aChangeOnlyInvalidatesItsOwnId() {
+        String seven = versions.etag(Resource.USER, 7L);
+        String eight = versions.etag(Resource.USER, 8L);
+
+        versions.changed(Resource.USER, 7L);
+
+        assertThat(versions.etag(Resource.USER, 7L)).isNotEqualTo(seven);
+        assertThat(versions.etag(Resource.USER, 8L)).isEqualTo(eight);
+        assertThat(get(Resource.USER, 7L, seven).getStatusCode().value()).isEqualTo(200);
+        assertThat(get(Resource.USER, 7L, seven).getHeaders().getCacheControl()).isEqualTo("no-cache, private");
+    }
+
+    @Test
+    void changedAllAndCatalogEventsInvalidateEveryId() {
+        String reviews = versions.etag(Resource.REVIEWS, 1L);
+        String catalog = versions.etag(Resource.CATALOG, null);
+
+        versions.changedAll(Resource.REVIEWS);
+        versions.onCatalogChanged(CatalogChangedEvent.serviceChanged(3L, "411001"));
+
+        assertThat(versions.etag(Resource.REVIEWS, 1L)).isNotEqualTo(reviews);
+        assertThat(versions.etag(Resource.CATALOG, null)).isNotEqualTo(catalog);
+        // an id changed after the whole resource keeps its own, newer version
+        versions.changed(Resource.REVIEWS, 1L);
+        assertThat(versions.etag(Resource.REVIEWS, 1L)).isNotEqualTo(versions.etag(Resource.REVIEWS, 2L));
+    }
+
+    @Test
+    void noETagIsGivenWhileAChangeSettles() {
+        ResourceVersions settling = new ResourceVersions(60_000, 300, 30, 60);
+        assertThat(settling.etag(Resource.USER, 7L)).isNotNull();
+
+        settling.changed(Resource.USER, 7L);
+        ResponseEntity<?> response = settling.respond(request("*", null), Resource.USER, 7L, () -> ResponseEntity.ok("fresh"));
+
+        assertThat(settling.etag(Resource.USER, 7L)).isNull();
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().containsKey(HttpHeaders.ETAG)).isFalse();
+    }
+
+    @Test
+    void errorResponsesAreNotTagged() {
+        ResponseEntity<?> response = versions.respond(new HttpHeaders(), Resource.USER, 9L, () -> ResponseEntity.notFound().build());
+
+        assertThat(response.getStatusCode().value()).isEqualTo(404);
+        assertThat(response.getHeaders().getETag()).isNull();
+    }
+
+    @Test
+    void cborResponsesHaveTheirOwnETag() {
+        String json = get(Resource.CATALOG, null, null, "application/json, */*").getHeaders().getETag();
+        String cbor = get(Resource.CATALOG, null, null, "application/cbor").getHeaders().getETag();
+
+        assertThat(cbor).isNotEqualTo(json).endsWith("-cbor\"");
+        assertThat(get(Resource.CATALOG, null, json, "application/cbor").getStatusCode().value()).isEqualTo(200);
+        assertThat(get(Resource.CATALOG, null, cbor, "application/json;q=0.5, application/cbor").getStatusCode().value())
+                .isEqualTo(304);
+        assertThat(get(Resource.CATALOG, null, json, "*/*").getStatusCode().value()).isEqualTo(304);
+    }
+}
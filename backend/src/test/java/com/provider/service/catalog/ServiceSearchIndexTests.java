@@ -0,0 +1,100 @@
+package com.provider.service.catalog;
+
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.entity.UserEntity;
+import com.provider.service.repository.ServiceRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServiceSearchIndexTests {
+
+    private final ServiceRepository repository = mock(ServiceRepository.class);
+    private final ServiceSearchIndex index = new ServiceSearchIndex(repository);
+
+    private static UserEntity provider(long id, String status, String pincode) {
+        UserEntity u = new UserEntity();
+        u.setId(id);
+        u.setRole("PROVIDER");
+        u.setStatus(status);
+        u.setPincode(pincode);
+        return u;
+    }
+
+    private static ServiceEntity service(long id, String name, UserEntity provider) {
+        ServiceEntity s = new ServiceEntity();
+        s.setId(id);
+        s.setServiceName(name);
+        s.setDescription("Same-day visits");
+        s.setProvider(provider);
+        return s;
+    }
+
+    private static List<Long> ids(List<ServiceEntity> services) {
+        return services.stream().map(ServiceEntity::getId).toList();
+    }
+
+    @Test
+    void wordPrefixesOfActiveProvidersMatch() {
+        UserEntity pune = provider(1, "active", "411001");
+        UserEntity mumbai = provider(2, "active", "400001");
+        UserEntity inactive = provider(3, "inactive", "411001");
+        when(repository.findAllWithProvider()).thenReturn(List.of(
+                service(10, "Electrician", pune), service(11, "AC Repair", mumbai),
+                service(12, "Electric Repair", pune), service(13, "Electrician", inactive)));
+        index.rebuild();
+
+        assertThat(ids(index.search("elec", null))).containsExactly(10L, 12L);
+        assertThat(ids(index.search("elec rep", null))).containsExactly(12L);
+        assertThat(ids(index.search("repair", "400001"))).containsExactly(11L);
+        assertThat(ids(index.search("same", null))).containsExactly(10L, 11L, 12L);
+    }
+
+    @Test
+    void queriesMatchingNoWordPrefixFallBackToASubstringOfTheName() {
+        when(repository.findAllWithProvider()).thenReturn(List.of(
+                service(10, "Plumbing", provider(1, "active", "411001")),
+                service(11, "Carpentry", provider(2, "active", "411001"))));
+        index.rebuild();
+
+        // "umbi" starts no word, but the old SQL search found it inside "Plumbing"
+        assertThat(ids(index.search("umbi", null))).containsExactly(10L);
+        assertThat(index.search("xyz", null)).isEmpty();
+    }
+
+    @Test
+    void aFailedRebuildLeavesTheIndexNotReady() {
+        when(repository.findAllWithProvider()).thenThrow(new IllegalStateException("database down"));
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isFalse();
+    }
+
+    @Test
+    void aChangeCommittedDuringARebuildIsNotLostWhenTheRebuildIsSwappedIn() {
+        UserEntity provider = provider(1, "active", "411001");
+        ServiceEntity renamed = service(10, "Carpentry", provider);
+        when(repository.findWithProviderById(10L)).thenReturn(Optional.of(renamed));
+        when(repository.findWithProviderByProviderIdIn(any())).thenReturn(List.of(renamed));
+        // the rebuild read the old name, then the rename committed and was reindexed before the swap
+        when(repository.findAllWithProvider()).thenAnswer(invocation -> {
+            index.reindexService(10L);
+            index.reindexProviders(List.of(1L));
+            return List.of(service(10, "Plumbing", provider));
+        });
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(ids(index.search("carp", null))).containsExactly(10L);
+        assertThat(index.search("plumb", null)).isEmpty();
+        assertThat(index.servicesOfProvider(1L)).extracting(ServiceEntity::getServiceName).containsExactly("Carpentry");
+    }
+}
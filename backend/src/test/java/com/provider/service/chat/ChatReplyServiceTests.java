@@ -0,0 +1,102 @@
+package com.provider.service.chat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatReplyServiceTests {
+
+    private final GeminiClient gemini = mock(GeminiClient.class);
+
+    private ChatReplyService service(boolean rateLimited, int burst) {
+        return new ChatReplyService(gemini, 100, 3600, 500, rateLimited, 1, burst);
+    }
+
+    @Test
+    void normalizesCaseWhitespaceAndTrailingPunctuation() {
+        assertThat(ChatReplyService.normalize("  What are   your Timings?? ")).isEqualTo("what are your timings");
+        assertThat(ChatReplyService.normalize("hello!")).isEqualTo("hello");
+    }
+
+    @Test
+    void equivalentPromptsAreServedFromCache() throws Exception {
+        when(gemini.generate(anyString())).thenReturn("9 to 5");
+        ChatReplyService chat = service(false, 1);
+
+        assertThat(chat.reply("What are your timings?")).isEqualTo("9 to 5");
+        assertThat(chat.reply("what are your timings")).isEqualTo("9 to 5");
+
+        verify(gemini, times(1)).generate(anyString());
+        assertThat(chat.stats().cache().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void failedGenerationsAreNotCached() throws Exception {
+        when(gemini.generate(anyString())).thenReturn(GeminiClient.NO_REPLY, "ok");
+        ChatReplyService chat = service(false, 1);
+
+        assertThat(chat.reply("hi")).isEqualTo(GeminiClient.NO_REPLY);
+        assertThat(chat.reply("hi")).isEqualTo("ok");
+    }
+
+    @Test
+    void concurrentIdenticalPromptsShareOneUpstreamCall() throws Exception {
+        CountDownLatch upstreamEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(gemini.generate(anyString())).thenAnswer(inv -> {
+            upstreamEntered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "shared";
+        });
+        ChatReplyService chat = service(false, 1);
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> replies = new ArrayList<>();
+            replies.add(pool.submit(() -> chat.reply("how do I book?")));
+            assertThat(upstreamEntered.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < callers; i++) replies.add(pool.submit(() -> chat.reply("How do I book")));
+            // let the followers attach to the in-flight call before it completes
+            while (chat.stats().coalesced() < callers - 1) Thread.sleep(5);
+            release.countDown();
+
+            for (Future<String> reply : replies) assertThat(reply.get(5, TimeUnit.SECONDS)).isEqualTo("shared");
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(gemini, times(1)).generate(anyString());
+        assertThat(chat.stats().upstreamCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void upstreamCallsBeyondTheBudgetAreRejectedLocally() throws Exception {
+        when(gemini.generate(anyString())).thenReturn("answer");
+        ChatReplyService chat = service(true, 2);
+
+        chat.reply("one");
+        chat.reply("two");
+        // cached prompts don't need a token
+        assertThat(chat.reply("one")).isEqualTo("answer");
+        assertThatThrownBy(() -> chat.reply("three"))
+                .isInstanceOfSatisfying(ChatRateLimitedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+
+        verify(gemini, times(2)).generate(anyString());
+        assertThat(chat.stats().rateLimited()).isEqualTo(1);
+    }
+}
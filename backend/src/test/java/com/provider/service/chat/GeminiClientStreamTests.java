@@ -0,0 +1,118 @@
+package com.provider.service.chat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the streaming call against a local stub that emits a chunked server-sent event stream.
+ */
+class GeminiClientStreamTests {
+
+    private HttpServer server;
+    private volatile int status = 200;
+    private final AtomicReference<String> lastQuery = new AtomicReference<>();
+    // the stub holds back everything after the first event until the test saw that event
+    private final CountDownLatch firstFragmentSeen = new CountDownLatch(1);
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/stream", exchange -> {
+            lastQuery.set(exchange.getRequestURI().getQuery());
+            exchange.getRequestBody().readAllBytes();
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(event("Hello"));
+                os.flush();
+                firstFragmentSeen.await(5, TimeUnit.SECONDS);
+                os.write(event(", world"));
+                os.write(": keep-alive comment\n\n".getBytes(StandardCharsets.UTF_8));
+                os.write(event("!"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        firstFragmentSeen.countDown();
+        server.stop(0);
+    }
+
+    private static byte[] event(String text) {
+        return ("data: {\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}]}}]}\n\n")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private GeminiClient client() {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new GeminiClient(new RestTemplate(), new ObjectMapper(), "test-key", base + "/generate", base + "/stream",
+                1000, 2000, Executors.newVirtualThreadPerTaskExecutor(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void relaysFragmentsBeforeTheUpstreamFinishes() throws Exception {
+        List<String> fragments = new CopyOnWriteArrayList<>();
+        CompletableFuture<String> reply = client().stream("hi", fragment -> {
+            fragments.add(fragment);
+            firstFragmentSeen.countDown();
+        });
+
+        // the stub only sends the rest once the first fragment reached us
+        assertThat(reply.get(5, TimeUnit.SECONDS)).isEqualTo("Hello, world!");
+        assertThat(fragments).containsExactly("Hello", ", world", "!");
+        assertThat(lastQuery.get()).isEqualTo("alt=sse&key=test-key");
+    }
+
+    @Test
+    void upstreamErrorStatusFailsTheReply() {
+        status = 429;
+
+        CompletableFuture<String> reply = client().stream("hi", fragment -> {});
+
+        assertThatThrownBy(() -> reply.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("429");
+    }
+
+    @Test
+    void failingConsumerStopsTheStream() {
+        CompletableFuture<String> reply = client().stream("hi", fragment -> {
+            throw new IllegalStateException("client went away");
+        });
+
+        assertThatThrownBy(() -> reply.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("client went away");
+    }
+}
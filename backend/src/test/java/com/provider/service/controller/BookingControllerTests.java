@@ -0,0 +1,63 @@
+package com.provider.service.controller;
+
+import com.provider.service.auth.AuthPrincipal;
+import com.provider.service.auth.StreamTickets;
+import com.provider.service.booking.BookingStateMachine;
+import com.provider.service.booking.BookingStreamHub;
+import com.provider.service.booking.BookingUpdateBatcher;
+import com.provider.service.booking.ProviderAvailabilityIndex;
+import com.provider.service.outbox.Outbox;
+import com.provider.service.payment.RazorpayGatewayClient;
+import com.provider.service.payment.RazorpaySignatureVerifier;
+import com.provider.service.repository.BookingRepository;
+import com.provider.service.repository.ServiceRepository;
+import com.provider.service.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class BookingControllerTests {
+
+    private final BookingStateMachine stateMachine = mock(BookingStateMachine.class);
+    private final BookingUpdateBatcher updateBatcher = mock(BookingUpdateBatcher.class);
+    private final BookingStreamHub streams = mock(BookingStreamHub.class);
+    private final StreamTickets streamTickets = new StreamTickets(30, 100);
+    private final BookingController controller = new BookingController(mock(BookingRepository.class), mock(ServiceRepository.class),
+            mock(UserRepository.class), mock(RazorpayGatewayClient.class), mock(RazorpaySignatureVerifier.class),
+            updateBatcher, stateMachine, mock(ProviderAvailabilityIndex.class), mock(TransactionTemplate.class),
+            mock(Outbox.class), streams, streamTickets);
+
+    @Test
+    void clientsCannotSetPaymentStatuses() {
+        for (String status : new String[] {"PAID", "AWAITING_PAYMENT", "PAYMENT_ORDER_PENDING"}) {
+            ResponseEntity<?> patched = controller.patchBooking(1L, Map.of("status", status, "providerNote", "done")).join();
+            assertThat(patched.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(controller.updateStatus(1L, status).join().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        verifyNoInteractions(stateMachine, updateBatcher);
+    }
+
+    @Test
+    void streamsOpenWithASingleUseTicketOnly() {
+        AuthPrincipal provider = new AuthPrincipal(7L, "p@example.com", "PROVIDER", 0, Long.MAX_VALUE, "t7");
+        when(streams.subscribe(BookingStreamHub.Audience.PROVIDER, 7L)).thenReturn(new SseEmitter());
+
+        assertThat(controller.streamTicket(null).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        @SuppressWarnings("unchecked")
+        String ticket = (String) ((Map<String, Object>) controller.streamTicket(provider).getBody()).get("ticket");
+
+        assertThat(controller.streamBookings(null, ticket, "provider").getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(controller.streamBookings(null, ticket, "provider").getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(controller.streamBookings(null, null, "provider").getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
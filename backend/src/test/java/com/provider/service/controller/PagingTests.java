@@ -0,0 +1,45 @@
+package com.provider.service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PagingTests {
+
+    private final List<Long> ids = LongStream.rangeClosed(1, 1234).boxed().toList();
+
+    private List<Long> query(Long after, Limit limit) {
+        return ids.stream().filter(id -> id > after).limit(limit.max()).toList();
+    }
+
+    @Test
+    void requestsWithoutParametersGetTheDefaultPageSize() {
+        assertThat(Paging.pageSize(null, 100, 500)).isEqualTo(100);
+        assertThat(Paging.pageSize(10_000, 100, 500)).isEqualTo(500);
+        assertThat(Paging.after(null)).isZero();
+    }
+
+    @Test
+    void pagedRequestsCarryTheNextCursor() {
+        List<Long> rows = query(0L, Paging.probe(100));
+
+        var page = Paging.page(rows, 100, id -> id);
+
+        assertThat(page.getBody()).hasSize(100);
+        assertThat(page.getHeaders().getFirst(Paging.NEXT_CURSOR_HEADER)).isEqualTo("100");
+    }
+
+    @Test
+    void theLastPageHasNoCursor() {
+        List<Long> rows = query(1200L, Paging.probe(100));
+
+        var page = Paging.page(rows, 100, id -> id);
+
+        assertThat(page.getBody()).hasSize(34);
+        assertThat(page.getHeaders().containsKey(Paging.NEXT_CURSOR_HEADER)).isFalse();
+    }
+}
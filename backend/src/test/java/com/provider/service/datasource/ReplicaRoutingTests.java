@@ -0,0 +1,169 @@
+package com.provider.service.datasource;
+
+import com.provider.service.auth.AuthPrincipal;
+import com.provider.service.entity.UserEntity;
+import com.provider.service.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two embedded H2 databases stand in for the primary and a replica. They hold different rows
+ * for the same user, so each read shows which database answered it.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas.urls=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.read-your-writes-ms=300"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DataSourceRoutingConfig.class, DataSourcePools.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingTests {
+
+    private static final String EMAIL = "alice@example.com";
+    // every test reads as a user no earlier test has written as, so no read-your-writes window carries over
+    private static final AtomicLong userIds = new AtomicLong(1000);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaRoutingDataSource routing;
+
+    @Autowired
+    private DataSourcePools pools;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void seed() {
+        // straight to each pool, bypassing the routing
+        primary = new JdbcTemplate(routing.pools().get(0));
+        replica = new JdbcTemplate(routing.pools().get(1));
+        // Hibernate created the schema on the primary; copy it to the replica, as replication would
+        if (replica.queryForList("select table_name from information_schema.tables where table_schema = 'PUBLIC' and table_name = 'USERS'").isEmpty()) {
+            for (Map<String, Object> row : primary.queryForList("script nodata")) {
+                String statement = (String) row.values().iterator().next();
+                if (!statement.startsWith("CREATE USER")) replica.execute(statement);
+            }
+        }
+        insertAlice(primary, "Primary Alice");
+        insertAlice(replica, "Replica Alice");
+        loginAs(userIds.incrementAndGet());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+        primary.update("delete from users");
+        replica.update("delete from users");
+    }
+
+    private static void insertAlice(JdbcTemplate db, String name) {
+        db.update("insert into users (name, email, password, role, status) values (?, ?, 'x', 'USER', 'active')", name, EMAIL);
+    }
+
+    private String aliceAsRead() {
+        return userRepository.findByEmail(EMAIL).map(UserEntity::getName).orElse(null);
+    }
+
+    // a request made by the given user
+    private static void loginAs(long userId) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        AuthPrincipal principal = new AuthPrincipal(userId, "u" + userId + "@example.com", "USER", 0, Long.MAX_VALUE, "t" + userId);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private static UserEntity newUser(String email) {
+        UserEntity u = new UserEntity();
+        u.setName("New");
+        u.setEmail(email);
+        u.setPassword("x");
+        u.setRole("USER");
+        return u;
+    }
+
+    @Test
+    void readOnlyFindersGoToTheReplica() {
+        assertThat(aliceAsRead()).isEqualTo("Replica Alice");
+        Long replicaId = replica.queryForObject("select id from users where email = ?", Long.class, EMAIL);
+        assertThat(userRepository.findById(replicaId)).map(UserEntity::getName).contains("Replica Alice");
+        assertThat(userRepository.findByRoleAndStatus("USER", "active")).extracting(UserEntity::getName).containsExactly("Replica Alice");
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        userRepository.save(newUser("bob@example.com"));
+
+        assertThat(primary.queryForObject("select count(*) from users where email = 'bob@example.com'", Long.class)).isEqualTo(1);
+        assertThat(replica.queryForObject("select count(*) from users where email = 'bob@example.com'", Long.class)).isZero();
+    }
+
+    @Test
+    void readsAfterAWriteStayOnThePrimaryForTheWindow() throws InterruptedException {
+        long writer = userIds.incrementAndGet();
+        loginAs(writer);
+        userRepository.save(newUser("carol@example.com"));
+        assertThat(aliceAsRead()).isEqualTo("Primary Alice");
+
+        // other users are not pinned
+        loginAs(userIds.incrementAndGet());
+        assertThat(aliceAsRead()).isEqualTo("Replica Alice");
+
+        loginAs(writer);
+        Thread.sleep(400);
+        assertThat(aliceAsRead()).isEqualTo("Replica Alice");
+    }
+
+    @Test
+    void anonymousAndBackgroundWritesPinNobody() {
+        SecurityContextHolder.clearContext();
+        userRepository.save(newUser("erin@example.com"));
+        assertThat(aliceAsRead()).isEqualTo("Replica Alice");
+
+        // a background thread (no request) that carries a principal is not tracked either
+        long worker = userIds.incrementAndGet();
+        loginAs(worker);
+        RequestContextHolder.resetRequestAttributes();
+        userRepository.save(newUser("frank@example.com"));
+        loginAs(worker);
+        assertThat(aliceAsRead()).isEqualTo("Replica Alice");
+    }
+
+    @Test
+    void statsReportEveryPool() {
+        aliceAsRead();
+        userRepository.save(newUser("dave@example.com"));
+        assertThat(aliceAsRead()).isEqualTo("Primary Alice");
+
+        Map<String, Object> stats = pools.stats();
+        assertThat(stats).containsKeys("primary", "replica-1");
+        assertThat((Long) stats.get("readsPinnedToPrimary")).isPositive();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> replicaPool = (Map<String, Object>) stats.get("replica-1");
+        assertThat((Long) replicaPool.get("routed")).isPositive();
+        assertThat(replicaPool).containsKeys("active", "idle", "total", "waiting", "maxSize");
+    }
+}
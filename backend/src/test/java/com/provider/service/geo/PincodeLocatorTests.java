@@ -0,0 +1,50 @@
+package com.provider.service.geo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PincodeLocatorTests {
+
+    @TempDir
+    Path dir;
+
+    private PincodeLocator load(String csv) throws IOException {
+        Path file = dir.resolve("pincodes.csv");
+        Files.writeString(file, csv);
+        return new PincodeLocator(new DefaultResourceLoader(), file.toUri().toString());
+    }
+
+    @Test
+    void malformedLinesAreSkipped() throws IOException {
+        PincodeLocator locator = load("""
+                # pincode,latitude,longitude,place
+                411001,18.5196,73.8553,Pune City
+                411002,north,73.86,Pune bad latitude
+                411003,18.53
+                41100X,18.54,73.87,bad pincode
+                411004,95.0,73.88,out of range
+                411038,18.5074,73.8077,Kothrud
+                """);
+
+        assertThat(locator.locate("411001")).contains(new GeoPoint(18.5196, 73.8553));
+        assertThat(locator.locate("411038")).contains(new GeoPoint(18.5074, 73.8077));
+        // skipped pincodes fall back to the centroid of their district
+        assertThat(locator.locate("411002")).contains(new GeoPoint((18.5196 + 18.5074) / 2, (73.8553 + 73.8077) / 2));
+    }
+
+    @Test
+    void unknownDistrictsAreNotLocated() throws IOException {
+        PincodeLocator locator = load("411001,18.5196,73.8553,Pune City\n");
+
+        assertThat(locator.locate("560001")).isEmpty();
+        assertThat(locator.locate("4110")).isEmpty();
+        assertThat(locator.locate(null)).isEmpty();
+    }
+}
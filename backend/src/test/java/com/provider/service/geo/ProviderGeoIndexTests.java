@@ -0,0 +1,99 @@
+package com.provider.service.geo;
+
+import com.provider.service.entity.UserEntity;
+import com.provider.service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Thirty thousand providers, each at its own pincode, clustered around a few cities; radius
+ * queries are checked against a scan of every provider.
+ */
+class ProviderGeoIndexTests {
+
+    private static final int PROVIDERS = 30_000;
+    private static final GeoPoint[] CITIES = {
+            new GeoPoint(18.52, 73.86), new GeoPoint(19.08, 72.88), new GeoPoint(12.97, 77.59), new GeoPoint(28.61, 77.21)
+    };
+
+    @TempDir
+    Path dir;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final List<UserEntity> providers = new ArrayList<>();
+    private final List<GeoPoint> points = new ArrayList<>();
+    private ProviderGeoIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < PROVIDERS; i++) {
+            GeoPoint city = CITIES[i % CITIES.length];
+            GeoPoint p = new GeoPoint(city.lat() + random.nextGaussian() * 0.3, city.lon() + random.nextGaussian() * 0.3);
+            String pincode = String.valueOf(100_000 + i);
+            csv.append(pincode).append(',').append(p.lat()).append(',').append(p.lon()).append('\n');
+            points.add(p);
+            providers.add(provider(i + 1L, pincode));
+        }
+        Path file = dir.resolve("pincodes.csv");
+        Files.writeString(file, csv);
+        when(userRepository.findByRoleAndStatus("PROVIDER", "active")).thenReturn(providers);
+        index = new ProviderGeoIndex(userRepository, new PincodeLocator(new DefaultResourceLoader(), file.toUri().toString()));
+        index.rebuild();
+    }
+
+    private static UserEntity provider(long id, String pincode) {
+        UserEntity u = new UserEntity();
+        u.setId(id);
+        u.setRole("PROVIDER");
+        u.setStatus("active");
+        u.setPincode(pincode);
+        return u;
+    }
+
+    private List<ProviderGeoIndex.Hit> scan(GeoPoint center, double radiusKm) {
+        List<ProviderGeoIndex.Hit> hits = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            double d = center.distanceKm(points.get(i));
+            if (d <= radiusKm) hits.add(new ProviderGeoIndex.Hit(i + 1L, d));
+        }
+        hits.sort(Comparator.comparingDouble(ProviderGeoIndex.Hit::distanceKm).thenComparing(ProviderGeoIndex.Hit::providerId));
+        return hits;
+    }
+
+    @Test
+    void radiusQueriesFindExactlyTheProvidersInRange() {
+        assertThat(index.size()).isEqualTo(PROVIDERS);
+        for (GeoPoint city : CITIES) {
+            for (double radiusKm : new double[] {2, 10, 40}) {
+                List<ProviderGeoIndex.Hit> hits = index.within(city, radiusKm);
+                assertThat(hits).isNotEmpty().isEqualTo(scan(city, radiusKm));
+            }
+        }
+        // nobody in the sea off Goa
+        assertThat(index.within(new GeoPoint(15.0, 70.0), 50)).isEmpty();
+    }
+
+    @Test
+    void hitsAreSortedByDistance() {
+        List<ProviderGeoIndex.Hit> hits = index.within(CITIES[0], 10);
+
+        assertThat(hits).isSortedAccordingTo(Comparator.comparingDouble(ProviderGeoIndex.Hit::distanceKm));
+        assertThat(hits).allSatisfy(hit -> assertThat(hit.distanceKm()).isLessThanOrEqualTo(10));
+    }
+}
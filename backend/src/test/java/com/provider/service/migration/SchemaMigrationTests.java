@@ -0,0 +1,139 @@
+package com.provider.service.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Builds the schema from the Flyway migrations (on H2 in MySQL mode) and lets Hibernate validate
+ * the entities against it, then runs the provider id backfill against committed rows.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchemaMigrationTests {
+
+    private static final int BOOKINGS = 25;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long providerId;
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("insert into users (name, email, password, role, status) values ('P', 'p@example.com', 'x', 'PROVIDER', 'active')");
+        jdbc.update("insert into users (name, email, password, role, status) values ('U', 'u@example.com', 'x', 'USER', 'active')");
+        providerId = jdbc.queryForObject("select id from users where email = 'p@example.com'", Long.class);
+        long userId = jdbc.queryForObject("select id from users where email = 'u@example.com'", Long.class);
+        jdbc.update("insert into services (service_name, provider_id) values ('Plumbing', ?)", providerId);
+        jdbc.update("insert into services (service_name) values ('Unassigned')");
+        long service = jdbc.queryForObject("select id from services where service_name = 'Plumbing'", Long.class);
+        long orphan = jdbc.queryForObject("select id from services where service_name = 'Unassigned'", Long.class);
+        // bookings written before provider_id was stored; every fifth has a service without a provider
+        for (int i = 0; i < BOOKINGS; i++) {
+            jdbc.update("insert into bookings (user_id, service_id, status, date) values (?, ?, 'BOOKED', ?)",
+                    userId, i % 5 == 4 ? orphan : service, LocalDateTime.now().plusDays(i));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("backfill_checkpoints", "bookings", "services", "users")) {
+            jdbc.update("delete from " + table);
+        }
+    }
+
+    private BackfillRunner runner(BackfillJob job, int chunkSize) {
+        return new BackfillRunner(jdbc, new TransactionTemplate(transactionManager), List.of(job), true, chunkSize, 0);
+    }
+
+    @Test
+    void migrationsBuildTheSchemaTheEntitiesExpect() {
+        // the context only starts if Hibernate validated every entity against the migrated schema
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("4");
+        assertThat(jdbc.queryForList("select index_name from information_schema.indexes where table_name = 'bookings'", String.class))
+                .contains("idx_bookings_provider_id", "idx_bookings_user_id", "idx_bookings_date");
+        assertThat(jdbc.queryForList("select index_name from information_schema.indexes where table_name = 'outbox_events'", String.class))
+                .contains("idx_outbox_events_pending");
+    }
+
+    @Test
+    void providerIdBackfillResumesFromItsCheckpoint() {
+        BookingProviderIdBackfill backfill = new BookingProviderIdBackfill(jdbc);
+        List<Long> chunkStarts = new ArrayList<>();
+        // fails on its third chunk, after two chunks have been committed
+        BackfillJob failing = new BackfillJob() {
+            public String name() { return backfill.name(); }
+            public String table() { return backfill.table(); }
+            public int backfill(long afterId, long upToId) {
+                chunkStarts.add(afterId);
+                int updated = backfill.backfill(afterId, upToId);
+                if (chunkStarts.size() == 3) throw new IllegalStateException("connection lost");
+                return updated;
+            }
+        };
+
+        assertThat(runner(failing, 4).run(failing)).isFalse();
+        Map<String, Object> checkpoint = jdbc.queryForMap("select last_id, rows_updated, completed_at from backfill_checkpoints");
+        long firstId = jdbc.queryForObject("select min(id) from bookings", Long.class);
+        assertThat(((Number) checkpoint.get("last_id")).longValue()).isEqualTo(firstId + 7);
+        assertThat(checkpoint.get("completed_at")).isNull();
+        // the third chunk was rolled back with its checkpoint
+        assertThat(jdbc.queryForObject("select count(*) from bookings where provider_id is not null", Long.class))
+                .isEqualTo(((Number) checkpoint.get("rows_updated")).longValue());
+
+        List<Long> resumedAt = new ArrayList<>();
+        BackfillJob recording = new BackfillJob() {
+            public String name() { return backfill.name(); }
+            public String table() { return backfill.table(); }
+            public int backfill(long afterId, long upToId) {
+                resumedAt.add(afterId);
+                return backfill.backfill(afterId, upToId);
+            }
+        };
+        assertThat(runner(recording, 4).run(recording)).isTrue();
+
+        assertThat(resumedAt.get(0)).isEqualTo(firstId + 7);
+        assertThat(jdbc.queryForObject("select count(*) from bookings where provider_id = ?", Long.class, providerId))
+                .isEqualTo(BOOKINGS - BOOKINGS / 5);
+        assertThat(jdbc.queryForObject("select count(*) from bookings where provider_id is null", Long.class))
+                .isEqualTo(BOOKINGS / 5);
+        assertThat(jdbc.queryForObject("select rows_updated from backfill_checkpoints", Long.class))
+                .isEqualTo(BOOKINGS - BOOKINGS / 5);
+        // backfilled rows moved to a new version so stale entities cannot overwrite them
+        assertThat(jdbc.queryForObject("select count(*) from bookings where provider_id is not null and version = 1", Long.class))
+                .isEqualTo(BOOKINGS - BOOKINGS / 5);
+
+        // a completed job is not walked again
+        assertThat(runner(recording, 4).run(recording)).isTrue();
+        assertThat(resumedAt).hasSize(5);
+    }
+}
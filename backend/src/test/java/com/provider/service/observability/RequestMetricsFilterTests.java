@@ -0,0 +1,81 @@
+package com.provider.service.observability;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestMetricsFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlStatementRecorder hibernate = new SqlStatementRecorder();
+    private final ListAppender<ILoggingEvent> log = new ListAppender<>();
+    private final Logger filterLogger = (Logger) LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    @BeforeEach
+    void captureLog() {
+        log.start();
+        filterLogger.addAppender(log);
+    }
+
+    @AfterEach
+    void releaseLog() {
+        filterLogger.detachAppender(log);
+    }
+
+    private void handle(RequestMetricsFilter filter, long handlerMs, String... sql) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings/42");
+        FilterChain handler = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/bookings/{id}");
+            for (String statement : sql) hibernate.inspect(statement);
+            try {
+                Thread.sleep(handlerMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), handler);
+    }
+
+    @Test
+    void recordsStatementsPerRequestUnderTheUriPattern() throws Exception {
+        RequestMetricsFilter filter = new RequestMetricsFilter(registry, 1000, 50);
+
+        handle(filter, 0, "select 1", "select 2", "select 3");
+        handle(filter, 0, "select 1");
+
+        DistributionSummary statements = registry.get("app.http.sql.statements")
+                .tags("method", "GET", "uri", "/api/bookings/{id}").summary();
+        assertThat(statements.count()).isEqualTo(2);
+        assertThat(statements.totalAmount()).isEqualTo(4);
+        assertThat(statements.max()).isEqualTo(3);
+        assertThat(log.list).isEmpty();
+        // outside a request the recorder only passes statements through
+        assertThat(hibernate.inspect("select 4")).isEqualTo("select 4");
+    }
+
+    @Test
+    void logsSlowRequestsWithTheirSql() throws Exception {
+        RequestMetricsFilter filter = new RequestMetricsFilter(registry, 20, 2);
+
+        handle(filter, 0, "select fast");
+        handle(filter, 40, "select a from bookings", "select b from users", "select c from services");
+
+        assertThat(log.list).hasSize(1);
+        String message = log.list.get(0).getFormattedMessage();
+        assertThat(message).contains("GET /api/bookings/42", "3 SQL statements",
+                "1. select a from bookings", "2. select b from users", "1 more");
+        assertThat(message).doesNotContain("select c from services");
+    }
+}
@@ -0,0 +1,164 @@
+package com.provider.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.provider.service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Events are appended in real, committed transactions; the tests drive the dispatcher's
+ * deliver and reload steps themselves instead of starting its thread.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxDispatcherTests {
+
+    @Autowired
+    private OutboxEventRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactions;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("delete from outbox_events");
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private OutboxDispatcher dispatcher(int queueCapacity, int batchSize, int maxAttempts, OutboxConsumer consumer) {
+        return new OutboxDispatcher(repository, List.of(consumer), registry,
+                false, queueCapacity, batchSize, 1, maxAttempts, 24);
+    }
+
+    private OutboxConsumer recording() {
+        return events -> batches.add(events.stream().map(OutboxEvent::id).toList());
+    }
+
+    private List<Long> appendCommitted(Outbox outbox, int count) {
+        List<Long> ids = new ArrayList<>();
+        transactions.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                ids.add(outbox.append("booking.created", (long) i, Map.of("n", i)).id());
+            }
+        });
+        return ids;
+    }
+
+    private long undispatched() {
+        return jdbc.queryForObject("select count(*) from outbox_events where dispatched_at is null", Long.class);
+    }
+
+    @Test
+    void committedEventsAreDeliveredInOneBatchAndMarkedDispatched() throws InterruptedException {
+        OutboxDispatcher dispatcher = dispatcher(100, 10, 3, recording());
+        Outbox outbox = new Outbox(repository, new ObjectMapper(), dispatcher);
+
+        List<Long> first = appendCommitted(outbox, 5);
+        List<Long> second = appendCommitted(outbox, 3);
+        transactions.executeWithoutResult(status -> {
+            outbox.append("booking.created", 99L, Map.of());
+            status.setRollbackOnly();
+        });
+
+        assertThat(dispatcher.deliverNext(0)).isEqualTo(8);
+        List<Long> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertThat(batches).containsExactly(expected);
+        assertThat(repository.count()).isEqualTo(8);
+        assertThat(undispatched()).isZero();
+        assertThat(jdbc.queryForObject("select payload from outbox_events where id = ?", String.class, first.get(1)))
+                .isEqualTo("{\"n\":1}");
+    }
+
+    @Test
+    void eventsThatFindTheQueueFullAreReloadedFromTheTable() throws InterruptedException {
+        OutboxDispatcher dispatcher = dispatcher(2, 10, 3, recording());
+        Outbox outbox = new Outbox(repository, new ObjectMapper(), dispatcher);
+
+        List<Long> ids = appendCommitted(outbox, 5);
+        assertThat(dispatcher.deliverNext(0)).isEqualTo(2);
+        Thread.sleep(5);
+        while (dispatcher.reload() > 0) {
+            dispatcher.deliverNext(0);
+        }
+
+        assertThat(batches.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(ids);
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+        assertThat(undispatched()).isZero();
+    }
+
+    @Test
+    void batchesAConsumerFailsAreRetriedUpToMaxAttempts() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        OutboxDispatcher dispatcher = dispatcher(100, 10, 2, events -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("mail server down");
+        });
+        Outbox outbox = new Outbox(repository, new ObjectMapper(), dispatcher);
+        appendCommitted(outbox, 1);
+
+        dispatcher.deliverNext(0);
+        Thread.sleep(5);
+        assertThat(dispatcher.reload()).isEqualTo(1);
+        dispatcher.deliverNext(0);
+        // the second failure used up the attempts
+        assertThat(dispatcher.reload()).isZero();
+
+        assertThat(calls).hasValue(2);
+        assertThat(undispatched()).isEqualTo(1);
+        assertThat(jdbc.queryForObject("select attempts from outbox_events", Integer.class)).isEqualTo(2);
+        assertThat(registry.get("app.outbox.events").tag("result", "given_up").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenUpEventsAreCountedAndDeletedAfterTheRetention() throws InterruptedException {
+        OutboxDispatcher dispatcher = dispatcher(100, 10, 1, events -> {
+            throw new IllegalStateException("mail server down");
+        });
+        Outbox outbox = new Outbox(repository, new ObjectMapper(), dispatcher);
+        appendCommitted(outbox, 3);
+        dispatcher.deliverNext(0);
+
+        dispatcher.cleanUp(LocalDateTime.now().minusHours(1));
+        assertThat(registry.get("app.outbox.given-up").gauge().value()).isEqualTo(3);
+        assertThat(repository.count()).isEqualTo(3);
+
+        dispatcher.cleanUp(LocalDateTime.now().plusSeconds(1));
+        assertThat(registry.get("app.outbox.given-up").gauge().value()).isZero();
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    void appendingOutsideATransactionIsRefused() {
+        Outbox outbox = new Outbox(repository, new ObjectMapper(), dispatcher(10, 10, 3, recording()));
+
+        assertThatThrownBy(() -> outbox.append("booking.created", 1L, Map.of()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(repository.count()).isZero();
+    }
+}
@@ -0,0 +1,127 @@
+package com.provider.service.payment;
+
+import com.provider.service.observability.OutboundCalls;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the gateway client against a local stub of the Razorpay orders endpoint.
+ */
+class RazorpayGatewayClientTests {
+
+    private HttpServer server;
+    private final AtomicReference<String> lastBody = new AtomicReference<>();
+    private final AtomicReference<String> lastAuth = new AtomicReference<>();
+    private volatile long delayMillis = 0;
+    private volatile int status = 200;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean holdRequests = false;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/orders", exchange -> {
+            lastAuth.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            try {
+                if (holdRequests) release.await(5, TimeUnit.SECONDS);
+                if (delayMillis > 0) Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = (status == 200 ? "{\"id\":\"order_123\",\"status\":\"created\"}" : "{\"error\":\"bad\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    private RazorpayGatewayClient client(long readTimeoutMs, int maxConcurrent) {
+        return new RazorpayGatewayClient("http://127.0.0.1:" + server.getAddress().getPort(),
+                "key", "secret", 1000, readTimeoutMs, maxConcurrent, Executors.newVirtualThreadPerTaskExecutor(), registry);
+    }
+
+    @Test
+    void createsOrderAndReturnsItsId() throws Exception {
+        RazorpayGatewayClient client = client(2000, 4);
+
+        String orderId = client.createOrder(49900, "booking_7").get(5, TimeUnit.SECONDS);
+
+        assertThat(orderId).isEqualTo("order_123");
+        JSONObject sent = new JSONObject(lastBody.get());
+        assertThat(sent.getLong("amount")).isEqualTo(49900);
+        assertThat(sent.getString("receipt")).isEqualTo("booking_7");
+        assertThat(lastAuth.get()).isEqualTo("Basic a2V5OnNlY3JldA==");
+        assertThat(client.availablePermits()).isEqualTo(4);
+        assertThat(callsWithOutcome("success")).isEqualTo(1);
+    }
+
+    private long callsWithOutcome(String outcome) {
+        return registry.get(OutboundCalls.METRIC).tags("client", "razorpay", "outcome", outcome).timer().count();
+    }
+
+    @Test
+    void failsOnGatewayError() {
+        status = 500;
+        RazorpayGatewayClient client = client(2000, 4);
+
+        assertThatThrownBy(() -> client.createOrder(100, "booking_1").get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(PaymentGatewayException.class);
+        assertThat(client.availablePermits()).isEqualTo(4);
+        assertThat(callsWithOutcome("error")).isEqualTo(1);
+    }
+
+    @Test
+    void timesOutSlowGateway() {
+        delayMillis = 1500;
+        RazorpayGatewayClient client = client(200, 4);
+
+        assertThatThrownBy(() -> client.createOrder(100, "booking_1").get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(java.net.http.HttpTimeoutException.class);
+    }
+
+    @Test
+    void rejectsCallsBeyondTheBulkhead() throws Exception {
+        holdRequests = true;
+        RazorpayGatewayClient client = client(5000, 1);
+
+        CompletableFuture<String> first = client.createOrder(100, "booking_1");
+        assertThatThrownBy(() -> client.createOrder(100, "booking_2"))
+                .isInstanceOfSatisfying(PaymentGatewayException.class, e -> assertThat(e.isBusy()).isTrue());
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("order_123");
+        assertThat(client.availablePermits()).isEqualTo(1);
+    }
+}
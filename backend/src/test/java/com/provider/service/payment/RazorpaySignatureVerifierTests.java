@@ -0,0 +1,77 @@
+package com.provider.service.payment;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RazorpaySignatureVerifierTests {
+
+    private final RazorpaySignatureVerifier verifier = new RazorpaySignatureVerifier("test_secret", 4);
+
+    private static String sign(String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("test_secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void acceptsTheGatewaySignatureInEitherCase() throws Exception {
+        String signature = sign("order_123|pay_456");
+
+        assertThat(verifier.verify("order_123", "pay_456", signature)).isTrue();
+        assertThat(verifier.verify("order_123", "pay_456", signature.toUpperCase())).isTrue();
+        // pooled state must not leak between calls
+        assertThat(verifier.verify("order_123", "pay_456", signature)).isTrue();
+    }
+
+    @Test
+    void rejectsForgedOrMalformedSignatures() throws Exception {
+        String signature = sign("order_123|pay_456");
+        String flipped = (signature.charAt(0) == '0' ? "1" : "0") + signature.substring(1);
+
+        assertThat(verifier.verify("order_123", "pay_457", signature)).isFalse();
+        assertThat(verifier.verify("order_123", "pay_456", flipped)).isFalse();
+        assertThat(verifier.verify("order_123", "pay_456", signature.substring(2))).isFalse();
+        assertThat(verifier.verify("order_123", "pay_456", "zz" + signature.substring(2))).isFalse();
+        assertThat(verifier.verify("order_123", "pay_456", "é" + signature.substring(1))).isFalse();
+        assertThat(verifier.verify(null, "pay_456", signature)).isFalse();
+    }
+
+    @Test
+    void handlesLongAndNonAsciiIds() throws Exception {
+        String longOrder = "order_" + "x".repeat(200);
+        assertThat(verifier.verify(longOrder, "pay_1", sign(longOrder + "|pay_1"))).isTrue();
+        assertThat(verifier.verify("order_é", "pay_1", sign("order_é|pay_1"))).isTrue();
+    }
+
+    @Test
+    void requiresAConfiguredSecret() {
+        RazorpaySignatureVerifier unconfigured = new RazorpaySignatureVerifier("", 4);
+
+        assertThat(unconfigured.isConfigured()).isFalse();
+        assertThatThrownBy(() -> unconfigured.verify("order_1", "pay_1", "0".repeat(64)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void verificationAllocatesAlmostNothing() throws Exception {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String signature = sign("order_NX1a2b3c4d5e6f|pay_NX9z8y7x6w5v4u");
+        for (int i = 0; i < 20_000; i++) verifier.verify("order_NX1a2b3c4d5e6f", "pay_NX9z8y7x6w5v4u", signature);
+
+        int runs = 50_000;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < runs; i++) verifier.verify("order_NX1a2b3c4d5e6f", "pay_NX9z8y7x6w5v4u", signature);
+        long perCall = (threads.getCurrentThreadAllocatedBytes() - before) / runs;
+
+        // the JDK's HmacCore still allocates its 32-byte result arrays; the old code allocated kilobytes
+        assertThat(perCall).isLessThan(256);
+    }
+}
@@ -0,0 +1,72 @@
+package com.provider.service.rating;
+
+import com.provider.service.repository.ReviewRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProviderRatingSummaryTests {
+
+    private final ReviewRepository repository = mock(ReviewRepository.class);
+    private final ProviderRatingSummary summary = new ProviderRatingSummary(repository);
+
+    @Test
+    void reviewsSavedWhileTheRebuildQueryRunsAreCountedOnce() {
+        when(repository.findMaxId()).thenReturn(5L);
+        when(repository.findRatingTotals(5L)).thenAnswer(invocation -> {
+            // review 6 commits after the snapshot id was read, review 5 was already in it
+            summary.recordReview(1L, 6L, 2);
+            summary.recordReview(1L, 5L, 4);
+            return List.of(new RatingTotals(1L, 9L, 2L));
+        });
+
+        summary.rebuild();
+
+        assertThat(summary.isReady()).isTrue();
+        assertThat(summary.get(1L)).isEqualTo(new RatingTotals(1L, 11L, 3L));
+    }
+
+    @Test
+    void reviewsRecordedBeforeTheFirstRebuildAreNotDropped() {
+        // saved before startup finished: 3 is in the snapshot, 8 is not
+        summary.recordReview(2L, 3L, 5);
+        summary.recordReview(2L, 8L, 1);
+        when(repository.findMaxId()).thenReturn(7L);
+        when(repository.findRatingTotals(7L)).thenReturn(List.of(new RatingTotals(2L, 5L, 1L)));
+
+        summary.rebuild();
+
+        assertThat(summary.get(2L)).isEqualTo(new RatingTotals(2L, 6L, 2L));
+    }
+
+    @Test
+    void reviewsAreAddedDirectlyOnceReady() {
+        when(repository.findMaxId()).thenReturn(0L);
+        when(repository.findRatingTotals(0L)).thenReturn(List.of());
+        summary.rebuild();
+
+        summary.recordReview(3L, 1L, 4);
+        summary.recordReview(3L, 2L, 5);
+
+        assertThat(summary.get(3L)).isEqualTo(new RatingTotals(3L, 9L, 2L));
+        assertThat(summary.get(3L).average()).isEqualTo(4.5);
+        assertThat(summary.get(4L).count()).isZero();
+    }
+
+    @Test
+    void aFailedFirstRebuildKeepsTheRecordedReviewsForTheNextOne() {
+        when(repository.findMaxId()).thenThrow(new IllegalStateException("database down")).thenReturn(0L);
+        when(repository.findRatingTotals(0L)).thenReturn(List.of());
+        summary.recordReview(1L, 1L, 3);
+
+        summary.rebuild();
+        assertThat(summary.isReady()).isFalse();
+        summary.rebuild();
+
+        assertThat(summary.get(1L)).isEqualTo(new RatingTotals(1L, 3L, 1L));
+    }
+}
@@ -0,0 +1,149 @@
+package com.provider.service.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.provider.service.booking.BookingStatus;
+import com.provider.service.dto.BookingView;
+import com.provider.service.dto.ReviewView;
+import com.provider.service.entity.BookingEntity;
+import com.provider.service.entity.ReviewEntity;
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.entity.UserEntity;
+import com.provider.service.rating.RatingTotals;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The booking and review list endpoints must load a whole page with one SQL statement,
+ * including everything Jackson touches while serializing it.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ListProjectionQueryTests {
+
+    private static final int ROWS = 5;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    private Statistics statistics;
+    private UserEntity customer;
+    private UserEntity provider;
+
+    @BeforeEach
+    void seed() {
+        provider = em.persist(user("Provider", "provider@example.com", "PROVIDER"));
+        customer = em.persist(user("Customer", "customer@example.com", "USER"));
+        for (int i = 0; i < ROWS; i++) {
+            ServiceEntity service = new ServiceEntity();
+            service.setServiceName("Service " + i);
+            service.setPricingPerHour(100.0 + i);
+            service.setProvider(provider);
+            em.persist(service);
+
+            BookingEntity booking = new BookingEntity();
+            booking.setUser(customer);
+            booking.setService(service);
+            booking.setProviderId(provider.getId());
+            booking.setStatus(BookingStatus.BOOKED);
+            booking.setDate(LocalDateTime.now().plusDays(i));
+            em.persist(booking);
+
+            ReviewEntity review = new ReviewEntity();
+            review.setProvider(provider);
+            review.setUser(em.persist(user("Reviewer " + i, "reviewer" + i + "@example.com", "USER")));
+            review.setRating(1 + i % 5);
+            review.setComment("comment " + i);
+            em.persist(review);
+        }
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void userBookingPageIsASingleStatement() throws Exception {
+        List<BookingView> page = bookingRepository.findViewsByUserId(customer.getId(), 0L, Limit.of(100));
+        String json = mapper.writeValueAsString(page);
+
+        assertThat(page).hasSize(ROWS);
+        assertThat(page.get(0).getService().provider().name()).isEqualTo("Provider");
+        assertThat(json).contains("\"serviceName\":\"Service 0\"").contains("\"name\":\"Customer\"");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void providerBookingPageIsASingleStatement() throws Exception {
+        List<BookingView> page = bookingRepository.findViewsByProviderId(provider.getId(), 0L, Limit.of(100));
+        mapper.writeValueAsString(page);
+
+        assertThat(page).hasSize(ROWS);
+        assertThat(page.get(ROWS - 1).getUser().name()).isEqualTo("Customer");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keysetPagesAreSingleStatements() throws Exception {
+        List<BookingView> first = bookingRepository.findViews(0L, Limit.of(2));
+        List<BookingView> second = bookingRepository.findViews(first.get(1).getId(), Limit.of(2));
+        mapper.writeValueAsString(first);
+        mapper.writeValueAsString(second);
+
+        assertThat(first).hasSize(2);
+        assertThat(second).hasSize(2);
+        assertThat(second.get(0).getId()).isGreaterThan(first.get(1).getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void reviewListIsASingleStatement() throws Exception {
+        List<ReviewView> reviews = reviewRepository.findViewsByProviderId(provider.getId());
+        mapper.writeValueAsString(reviews);
+
+        assertThat(reviews).hasSize(ROWS);
+        assertThat(reviews).allSatisfy(r -> assertThat(r.userName()).startsWith("Reviewer"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ratingTotalsAreOneGroupedStatement() {
+        List<RatingTotals> totals = reviewRepository.findRatingTotals(Long.MAX_VALUE);
+
+        assertThat(totals).hasSize(1);
+        assertThat(totals.get(0).count()).isEqualTo(ROWS);
+        assertThat(totals.get(0).sum()).isEqualTo(1L + 2 + 3 + 4 + 5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static UserEntity user(String name, String email, String role) {
+        UserEntity u = new UserEntity();
+        u.setName(name);
+        u.setEmail(email);
+        u.setPassword("secret");
+        u.setRole(role);
+        u.setStatus("active");
+        u.setPincode("422001");
+        return u;
+    }
+}
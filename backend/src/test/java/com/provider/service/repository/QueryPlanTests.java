@@ -0,0 +1,213 @@
+package com.provider.service.repository;
+
+import com.provider.service.booking.BookingStatus;
+import com.provider.service.entity.BookingEntity;
+import com.provider.service.entity.ReviewEntity;
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.entity.UserEntity;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs each hot repository query against a seeded H2 database, captures the SQL Hibernate sends
+ * and fails if its EXPLAIN plan reads any table with a full scan instead of an index.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.provider.service.repository.QueryPlanTests$CapturingInspector")
+@ActiveProfiles("test")
+class QueryPlanTests {
+
+    private static final int PROVIDERS = 60;
+    private static final int CUSTOMERS = 120;
+    private static final String[] PINCODES = {"411001", "411038", "400001", "560001", "110001", "600001"};
+    private static final String[] PROVIDER_STATUSES = {"active", "pending", "inactive"};
+
+    // collects every statement of the session factory; tests clear it before the query under test
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (statements) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserEntity provider;
+    private UserEntity customer;
+
+    @BeforeEach
+    void seed() {
+        List<UserEntity> providers = new ArrayList<>();
+        for (int i = 0; i < PROVIDERS; i++) {
+            UserEntity p = user("Provider " + i, "provider" + i + "@example.com", "PROVIDER");
+            p.setStatus(PROVIDER_STATUSES[i % PROVIDER_STATUSES.length]);
+            p.setPincode(PINCODES[i % PINCODES.length]);
+            providers.add(em.persist(p));
+        }
+        List<UserEntity> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            UserEntity c = user("Customer " + i, "customer" + i + "@example.com", "USER");
+            c.setStatus("active");
+            customers.add(em.persist(c));
+        }
+        LocalDateTime start = LocalDateTime.now().minusDays(300);
+        int n = 0;
+        for (UserEntity p : providers) {
+            for (int j = 0; j < 3; j++) {
+                ServiceEntity s = new ServiceEntity();
+                s.setServiceName("Service " + p.getId() + "-" + j);
+                s.setPricingPerHour(100.0);
+                s.setProvider(p);
+                em.persist(s);
+                for (int k = 0; k < 4; k++, n++) {
+                    BookingEntity b = new BookingEntity();
+                    b.setUser(customers.get(n % CUSTOMERS));
+                    b.setService(s);
+                    b.setProviderId(p.getId());
+                    b.setStatus(BookingStatus.COMPLETED);
+                    b.setDate(start.plusHours(n));
+                    em.persist(b);
+                }
+            }
+            for (int k = 0; k < 5; k++) {
+                ReviewEntity r = new ReviewEntity();
+                r.setProvider(p);
+                r.setUser(customers.get((p.getId().intValue() + k) % CUSTOMERS));
+                r.setRating(1 + k);
+                r.setComment("review " + k);
+                em.persist(r);
+            }
+        }
+        em.flush();
+        em.clear();
+        provider = providers.get(0);
+        customer = customers.get(0);
+    }
+
+    private static UserEntity user(String name, String email, String role) {
+        UserEntity u = new UserEntity();
+        u.setName(name);
+        u.setEmail(email);
+        u.setPassword("secret");
+        u.setPhoneNo("9876543210");
+        u.setRole(role);
+        return u;
+    }
+
+    // runs the query, then EXPLAINs every statement it sent
+    private List<String> plansOf(Runnable query) {
+        synchronized (CapturingInspector.statements) {
+            CapturingInspector.statements.clear();
+        }
+        query.run();
+        List<String> statements;
+        synchronized (CapturingInspector.statements) {
+            statements = new ArrayList<>(CapturingInspector.statements);
+        }
+        assertThat(statements).as("captured SQL").isNotEmpty();
+        List<String> plans = new ArrayList<>();
+        for (String sql : statements) {
+            int parameters = (int) sql.chars().filter(c -> c == '?').count();
+            // EXPLAIN only needs the parameter types to plan, any value of the right kind will do
+            plans.add(jdbc.query(con -> {
+                var ps = con.prepareStatement("explain " + sql);
+                for (int i = 1; i <= parameters; i++) ps.setObject(i, null);
+                return ps;
+            }, rs -> rs.next() ? rs.getString(1) : ""));
+        }
+        return plans;
+    }
+
+    private void assertNoFullScan(Runnable query) {
+        for (String plan : plansOf(query)) {
+            assertThat(plan).as("query plan").doesNotContainIgnoringCase(".tableScan");
+        }
+    }
+
+    @Test
+    void activeServicesInAPincodeUseTheProviderIndexes() {
+        assertNoFullScan(() -> serviceRepository.findActiveWithProviderByPincode("411001", "active"));
+        assertNoFullScan(() -> serviceRepository.findByProvider_PincodeAndProvider_Status("411001", "active"));
+    }
+
+    @Test
+    void servicesOfOneProviderUseTheProviderIndex() {
+        assertNoFullScan(() -> serviceRepository.findWithProviderByProviderId(provider.getId()));
+        assertNoFullScan(() -> serviceRepository.findByProvider_Id(provider.getId()));
+    }
+
+    // a filter that never reaches an index can still show up as a primary key range scan
+    // (ID > ?) over the whole table, so keyset pages also name the index they must use
+    private void assertUsesIndex(Runnable query, String index) {
+        assertThat(plansOf(query)).as("query plans").anyMatch(plan -> plan.toUpperCase().contains(index.toUpperCase()));
+    }
+
+    @Test
+    void bookingPagesUseTheKeysetIndexes() {
+        assertNoFullScan(() -> bookingRepository.findViewsByProviderId(provider.getId(), 0L, Limit.of(100)));
+        assertNoFullScan(() -> bookingRepository.findViewsByUserId(customer.getId(), 0L, Limit.of(100)));
+        assertNoFullScan(() -> bookingRepository.findByProviderId(provider.getId()));
+        assertNoFullScan(() -> bookingRepository.findByUserId(customer.getId()));
+        assertUsesIndex(() -> bookingRepository.findViewsByProviderId(provider.getId(), 0L, Limit.of(100)), "idx_bookings_provider_id");
+        assertUsesIndex(() -> bookingRepository.findViewsByUserId(customer.getId(), 0L, Limit.of(100)), "idx_bookings_user_id");
+    }
+
+    @Test
+    void upcomingScheduleUsesTheDateIndex() {
+        assertNoFullScan(() -> bookingRepository.findSchedule(LocalDateTime.now(), EnumSet.of(BookingStatus.CANCELLED, BookingStatus.REJECTED)));
+    }
+
+    @Test
+    void providerReviewsUseTheProviderIndex() {
+        assertNoFullScan(() -> reviewRepository.findViewsByProviderId(provider.getId()));
+        assertNoFullScan(() -> reviewRepository.findByProvider_IdOrderByCreatedAtDesc(provider.getId()));
+        assertNoFullScan(() -> reviewRepository.existsByProvider_IdAndUser_Id(provider.getId(), customer.getId()));
+    }
+
+    @Test
+    void providersByRoleAndStatusUseTheRoleIndex() {
+        assertNoFullScan(() -> userRepository.findByRoleAndStatus("PROVIDER", "pending"));
+    }
+
+    @Test
+    void explainReportsFullScansAsTableScan() {
+        // guards the check itself: an unindexed filter must be reported
+        assertThat(plansOf(() -> serviceRepository.findByServiceNameContainingIgnoreCase("plumb")))
+                .anyMatch(plan -> plan.contains(".tableScan"));
+    }
+}
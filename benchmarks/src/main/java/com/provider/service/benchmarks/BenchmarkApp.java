@@ -0,0 +1,72 @@
+package com.provider.service.benchmarks;
+
+import com.provider.service.ServiceApplication;
+import com.provider.service.catalog.ServiceSearchIndex;
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.entity.UserEntity;
+import com.provider.service.repository.ServiceRepository;
+import com.provider.service.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against an embedded H2 database and seeds a catalog.
+ */
+final class BenchmarkApp {
+
+    private BenchmarkApp() {}
+
+    static ConfigurableApplicationContext start(String name, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "management.server.port=-1",
+                "spring.datasource.url=jdbc:h2:mem:bench-" + name + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.flyway.enabled=false",
+                "app.backfill.enabled=false",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.sql.init.mode=never",
+                "app.auth.bcrypt.strength=10",
+                "logging.level.root=warn"));
+        properties.addAll(List.of(extraProperties));
+        // passed as command line arguments so they override the packaged application.properties
+        return new SpringApplicationBuilder(ServiceApplication.class)
+                .run(properties.stream().map(p -> "--" + p).toArray(String[]::new));
+    }
+
+    // providers spread over the fixture pincodes, each offering servicesPerProvider services
+    static void seedCatalog(ConfigurableApplicationContext app, int providers, int servicesPerProvider) {
+        UserRepository users = app.getBean(UserRepository.class);
+        ServiceRepository services = app.getBean(ServiceRepository.class);
+
+        List<UserEntity> savedProviders = new ArrayList<>(providers);
+        for (int i = 0; i < providers; i++) {
+            UserEntity p = Fixtures.user(i, "PROVIDER");
+            p.setId(null);
+            // a few inactive providers whose services must be filtered out
+            if (i % 10 == 9) p.setStatus("inactive");
+            savedProviders.add(p);
+        }
+        savedProviders = users.saveAll(savedProviders);
+
+        List<ServiceEntity> catalog = new ArrayList<>(providers * servicesPerProvider);
+        long n = 0;
+        for (UserEntity p : savedProviders) {
+            for (int j = 0; j < servicesPerProvider; j++) {
+                ServiceEntity s = Fixtures.service(n++, p);
+                s.setId(null);
+                catalog.add(s);
+            }
+        }
+        services.saveAll(catalog);
+
+        // the search index was built at startup, before the data existed
+        app.getBean(ServiceSearchIndex.class).rebuild();
+    }
+}
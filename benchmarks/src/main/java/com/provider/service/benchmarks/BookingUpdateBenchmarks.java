@@ -0,0 +1,141 @@
+package com.provider.service.benchmarks;
+
+import com.provider.service.booking.BookingPatch;
+import com.provider.service.booking.BookingStatus;
+import com.provider.service.booking.BookingUpdateBatcher;
+import com.provider.service.dto.BookingView;
+import com.provider.service.entity.BookingEntity;
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.entity.UserEntity;
+import com.provider.service.repository.BookingRepository;
+import com.provider.service.repository.ServiceRepository;
+import com.provider.service.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of concurrent note updates against a seeded H2 bookings table, as the update endpoints
+ * used to apply them ({@code findById} + {@code save} per request, on request threads bounded by
+ * the connection pool) and through the write-behind {@link BookingUpdateBatcher}. With the
+ * {@code @Version} column a colliding {@code save} now fails instead of overwriting; those
+ * updates are counted as done, as the old code silently lost them.
+ * One operation is the whole burst; divide by {@code burst} for per-update cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingUpdateBenchmarks {
+
+    private static final String[] NOTES = {"On my way", "Arriving at 10", "Running late"};
+
+    @Param({"1000"})
+    int bookings;
+
+    @Param({"200"})
+    int burst;
+
+    private ConfigurableApplicationContext app;
+    private BookingRepository bookingRepository;
+    private BookingUpdateBatcher batcher;
+    private ExecutorService requestThreads;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApp.start("bookings", "app.bookings.write-behind.window-ms=5", "app.bookings.write-behind.max-batch=50");
+        bookingRepository = app.getBean(BookingRepository.class);
+        batcher = app.getBean(BookingUpdateBatcher.class);
+        // Hikari's default pool size caps how many findById + save requests actually run at once
+        requestThreads = Executors.newFixedThreadPool(10);
+
+        UserEntity customer = Fixtures.user(0, "USER");
+        customer.setId(null);
+        customer = app.getBean(UserRepository.class).save(customer);
+        UserEntity provider = Fixtures.user(1, "PROVIDER");
+        provider.setId(null);
+        provider = app.getBean(UserRepository.class).save(provider);
+        ServiceEntity service = Fixtures.service(0, provider);
+        service.setId(null);
+        service = app.getBean(ServiceRepository.class).save(service);
+
+        List<BookingEntity> seed = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            BookingEntity b = new BookingEntity();
+            b.setUser(customer);
+            b.setService(service);
+            b.setProviderId(provider.getId());
+            b.setStatus(BookingStatus.BOOKED);
+            b.setDate(LocalDateTime.now().plusHours(i));
+            seed.add(b);
+        }
+        ids = bookingRepository.saveAll(seed).stream().map(BookingEntity::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        requestThreads.shutdown();
+        app.close();
+    }
+
+    @Benchmark
+    public Object findAndSave() {
+        List<CompletableFuture<BookingEntity>> updates = new ArrayList<>(burst);
+        for (int i = 0; i < burst; i++) {
+            Long id = randomId();
+            String note = randomNote();
+            updates.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return bookingRepository.findById(id).map(b -> {
+                        b.setProviderNote(note);
+                        return bookingRepository.save(b);
+                    }).orElseThrow();
+                } catch (OptimisticLockingFailureException lost) {
+                    return null;
+                }
+            }, requestThreads));
+        }
+        return CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new)).join();
+    }
+
+    @Benchmark
+    public Object writeBehind() {
+        List<CompletableFuture<BookingView>> updates = new ArrayList<>(burst);
+        for (int i = 0; i < burst; i++) {
+            updates.add(batcher.submit(randomId(), BookingPatch.providerNote(randomNote())));
+        }
+        return CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static String randomNote() {
+        return NOTES[ThreadLocalRandom.current().nextInt(NOTES.length)];
+    }
+}
@@ -0,0 +1,110 @@
+package com.provider.service.benchmarks;
+
+import com.provider.service.booking.BookingStatus;
+import com.provider.service.dto.ReviewView;
+import com.provider.service.entity.BookingEntity;
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.entity.UserEntity;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic in-memory data shared by the benchmarks.
+ */
+final class Fixtures {
+
+    static final String[] SERVICE_NAMES = {
+            "Plumbing", "Electrician", "Carpentry", "AC Repair", "House Painting",
+            "Deep Cleaning", "Pest Control", "Appliance Repair", "Water Purifier Service", "Gardening"
+    };
+    static final String[] PINCODES = {"411001", "411038", "400001", "560001", "110001", "600001", "422001", "302001"};
+
+    private Fixtures() {}
+
+    static UserEntity user(long id, String role) {
+        UserEntity u = new UserEntity();
+        u.setId(id);
+        u.setName(role.charAt(0) + role.substring(1).toLowerCase() + " " + id);
+        u.setEmail(role.toLowerCase() + id + "@example.com");
+        u.setPassword("$2a$10$abcdefghijklmnopqrstuuN8.5Z0cWHLdXm7A3r5Q0fR6vM2b1l9a");
+        u.setRole(role);
+        u.setStatus("active");
+        u.setStatus1("verified");
+        u.setServiceType("PROVIDER".equals(role) ? SERVICE_NAMES[(int) (id % SERVICE_NAMES.length)] : null);
+        u.setPincode(PINCODES[(int) (id % PINCODES.length)]);
+        u.setAddress(id + " MG Road");
+        u.setState("Maharashtra");
+        u.setDistrict("Pune");
+        u.setPhoneNo("98" + String.format("%08d", id));
+        return u;
+    }
+
+    static List<UserEntity> users(int count) {
+        List<UserEntity> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) users.add(user(i, i % 4 == 0 ? "PROVIDER" : "USER"));
+        return users;
+    }
+
+    static ServiceEntity service(long id, UserEntity provider) {
+        ServiceEntity s = new ServiceEntity();
+        s.setId(id);
+        s.setServiceName(SERVICE_NAMES[(int) (id % SERVICE_NAMES.length)]);
+        s.setDescription("Experienced " + s.getServiceName().toLowerCase() + " professional, same-day visits");
+        s.setPricingPerHour(200.0 + (id % 10) * 50);
+        s.setStatus("AVAILABLE");
+        s.setProvider(provider);
+        return s;
+    }
+
+    static List<ServiceEntity> services(int count) {
+        List<ServiceEntity> services = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) services.add(service(i, user(1000 + i % 50, "PROVIDER")));
+        return services;
+    }
+
+    static List<BookingEntity> bookings(int count) {
+        List<ServiceEntity> services = services(50);
+        List<BookingEntity> bookings = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = 1; i <= count; i++) {
+            ServiceEntity service = services.get(i % services.size());
+            BookingEntity b = new BookingEntity();
+            b.setId((long) i);
+            b.setUser(user(i % 200, "USER"));
+            b.setService(service);
+            b.setProviderId(service.getProvider().getId());
+            b.setDate(start.plusHours(i));
+            b.setStatus(i % 3 == 0 ? BookingStatus.COMPLETED : BookingStatus.BOOKED);
+            b.setAddress(i + " Station Road, Pune");
+            b.setUserNote("Please call before arriving");
+            b.setProviderNote(i % 2 == 0 ? "Will arrive by 10am" : null);
+            b.setProviderAmount(i % 3 == 0 ? 450.0 : null);
+            b.setRazorpayOrderId(i % 3 == 0 ? "order_" + i : null);
+            bookings.add(b);
+        }
+        return bookings;
+    }
+
+    static List<ReviewView> reviews(int count) {
+        List<ReviewView> reviews = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = 1; i <= count; i++) {
+            reviews.add(new ReviewView((long) i, 1 + i % 5, "Good work, arrived on time", start.plusDays(i), (long) i, "User " + i));
+        }
+        return reviews;
+    }
+
+    // repository stub answering the named finder with a fixed result; nothing else is expected to be called
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Object> results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (results.containsKey(method.getName())) return results.get(method.getName());
+            if (method.getName().equals("toString")) return type.getSimpleName() + " stub";
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
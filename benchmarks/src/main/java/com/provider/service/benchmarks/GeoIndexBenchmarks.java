@@ -0,0 +1,92 @@
+package com.provider.service.benchmarks;
+
+import com.provider.service.entity.UserEntity;
+import com.provider.service.geo.GeoPoint;
+import com.provider.service.geo.PincodeLocator;
+import com.provider.service.geo.ProviderGeoIndex;
+import com.provider.service.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ProviderGeoIndex.within} with tens of thousands of located providers clustered around
+ * a few cities, against a scan of every provider's distance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoIndexBenchmarks {
+
+    private static final GeoPoint[] CITIES = {
+            new GeoPoint(18.52, 73.86), new GeoPoint(19.08, 72.88), new GeoPoint(12.97, 77.59), new GeoPoint(28.61, 77.21)
+    };
+
+    @Param({"50000"})
+    int providers;
+
+    @Param({"5", "25"})
+    double radiusKm;
+
+    private ProviderGeoIndex index;
+    private final List<GeoPoint> points = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder();
+        List<UserEntity> users = new ArrayList<>(providers);
+        for (int i = 0; i < providers; i++) {
+            GeoPoint city = CITIES[i % CITIES.length];
+            GeoPoint p = new GeoPoint(city.lat() + random.nextGaussian() * 0.3, city.lon() + random.nextGaussian() * 0.3);
+            String pincode = String.valueOf(100_000 + i);
+            csv.append(pincode).append(',').append(p.lat()).append(',').append(p.lon()).append('\n');
+            points.add(p);
+            UserEntity u = Fixtures.user(i + 1L, "PROVIDER");
+            u.setPincode(pincode);
+            users.add(u);
+        }
+        Path file = Files.createTempFile("pincodes", ".csv");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, csv);
+        UserRepository repository = Fixtures.repository(UserRepository.class, Map.of("findByRoleAndStatus", users));
+        index = new ProviderGeoIndex(repository, new PincodeLocator(new DefaultResourceLoader(), file.toUri().toString()));
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<ProviderGeoIndex.Hit> within() {
+        return index.within(CITIES[0], radiusKm);
+    }
+
+    @Benchmark
+    public int scanAll() {
+        int hits = 0;
+        for (GeoPoint p : points) {
+            if (CITIES[0].distanceKm(p) <= radiusKm) hits++;
+        }
+        return hits;
+    }
+}
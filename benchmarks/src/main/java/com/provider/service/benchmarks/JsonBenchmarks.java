@@ -0,0 +1,82 @@
+package com.provider.service.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.provider.service.dto.CompactServiceList;
+import com.provider.service.entity.BookingEntity;
+import com.provider.service.entity.ServiceEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of entity lists as returned by the booking and service endpoints, and of the
+ * service listing in its compact view and as CBOR ({@code Accept: application/cbor}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmarks {
+
+    @Param({"10", "1000"})
+    int rows;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private List<BookingEntity> bookings;
+    private List<ServiceEntity> services;
+
+    @Setup
+    public void setUp() {
+        // same settings as the ObjectMapper Spring Boot configures for the app
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cborMapper = Jackson2ObjectMapperBuilder.cbor()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        bookings = Fixtures.bookings(rows);
+        services = Fixtures.services(rows);
+    }
+
+    @Benchmark
+    public byte[] bookingEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] serviceEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(services);
+    }
+
+    // ?view=compact: 50 providers listed once instead of once per service
+    @Benchmark
+    public byte[] serviceListCompact() throws Exception {
+        return objectMapper.writeValueAsBytes(CompactServiceList.of(services));
+    }
+
+    @Benchmark
+    public byte[] serviceEntitiesCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(services);
+    }
+
+    @Benchmark
+    public byte[] serviceListCompactCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(CompactServiceList.of(services));
+    }
+}
@@ -0,0 +1,63 @@
+package com.provider.service.benchmarks;
+
+import com.provider.service.cache.ResourceVersions;
+import com.provider.service.controller.AdminController;
+import com.provider.service.controller.ReviewController;
+import com.provider.service.repository.ReviewRepository;
+import com.provider.service.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/view to DTO mapping of the review and admin user listings, with the repositories
+ * stubbed so only the controller code is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmarks {
+
+    @Param({"10", "1000"})
+    int rows;
+
+    private ReviewController reviewController;
+    private AdminController adminController;
+
+    @Setup
+    public void setUp() {
+        ReviewRepository reviews = Fixtures.repository(ReviewRepository.class,
+                Map.of("findViewsByProviderId", Fixtures.reviews(rows)));
+        reviewController = new ReviewController(reviews, null, null, new ResourceVersions(0, 300, 30, 60));
+
+        UserRepository users = Fixtures.repository(UserRepository.class, Map.of("findAll", Fixtures.users(rows)));
+        adminController = new AdminController(users, null, null, null, null, null, null, null, null, null);
+    }
+
+    // ReviewController.toDto over a provider's reviews
+    @Benchmark
+    public Object reviewDtos() {
+        return reviewController.listReviews(1L, new HttpHeaders()).getBody();
+    }
+
+    // AdminController UserDto mapping stream over all users
+    @Benchmark
+    public Object adminUserDtos() {
+        return adminController.getAllUsers().getBody();
+    }
+}
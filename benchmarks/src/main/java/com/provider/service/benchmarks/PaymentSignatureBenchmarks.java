@@ -0,0 +1,59 @@
+package com.provider.service.benchmarks;
+
+import com.provider.service.controller.BookingController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Razorpay signature check of {@code BookingController.verifyPayment}. The signature has the
+ * right length but does not match, so the call returns 400 after the check without touching the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentSignatureBenchmarks {
+
+    private ConfigurableApplicationContext app;
+    private BookingController controller;
+    private Map<String, Object> payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApp.start("payment", "razorpay.key_secret=bench_secret", "razorpay.key_id=rzp_test_bench");
+        controller = app.getBean(BookingController.class);
+        payload = Map.of(
+                "razorpay_order_id", "order_NX1a2b3c4d5e6f",
+                "razorpay_payment_id", "pay_NX9z8y7x6w5v4u",
+                "razorpay_signature", "0".repeat(64));
+        ResponseEntity<?> check = controller.verifyPayment(1L, payload);
+        if (check.getStatusCode().value() != 400) throw new IllegalStateException("unexpected response " + check);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> rejectSignature() {
+        return controller.verifyPayment(1L, payload);
+    }
+}
@@ -0,0 +1,86 @@
+package com.provider.service.benchmarks;
+
+import com.provider.service.controller.ServiceController;
+import com.provider.service.entity.ServiceEntity;
+import com.provider.service.repository.ServiceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The request paths of {@code ServiceController.listServices} against a seeded H2 catalog.
+ * {@code sqlNameSearch} is the LIKE query still used while the search index warms up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceSearchBenchmarks {
+
+    @Param({"200"})
+    int providers;
+
+    @Param({"5"})
+    int servicesPerProvider;
+
+    private static final HttpHeaders HEADERS = new HttpHeaders();
+
+    private ConfigurableApplicationContext app;
+    private ServiceController controller;
+    private ServiceRepository serviceRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApp.start("search");
+        BenchmarkApp.seedCatalog(app, providers, servicesPerProvider);
+        controller = app.getBean(ServiceController.class);
+        serviceRepository = app.getBean(ServiceRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Object nameSearch() {
+        return controller.listServices("plumb", null, null, HEADERS).getBody();
+    }
+
+    @Benchmark
+    public Object nameSearchInPincode() {
+        return controller.listServices("repair", "411001", null, HEADERS).getBody();
+    }
+
+    @Benchmark
+    public Object pincode() {
+        return controller.listServices(null, "411038", null, HEADERS).getBody();
+    }
+
+    @Benchmark
+    public Object allActive() {
+        return controller.listServices(null, null, null, HEADERS).getBody();
+    }
+
+    @Benchmark
+    public List<ServiceEntity> sqlNameSearch() {
+        return serviceRepository.findByServiceNameContainingIgnoreCaseAndProvider_Status("plumb", "active");
+    }
+}
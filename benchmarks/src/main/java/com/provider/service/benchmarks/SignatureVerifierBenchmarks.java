@@ -0,0 +1,66 @@
+package com.provider.service.benchmarks;
+
+import com.provider.service.payment.RazorpaySignatureVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RazorpaySignatureVerifier} against the per-request Mac + String.format hex code it replaced.
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm} (bytes per verification).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureVerifierBenchmarks {
+
+    private static final String SECRET = "bench_secret";
+    private static final String ORDER_ID = "order_NX1a2b3c4d5e6f";
+    private static final String PAYMENT_ID = "pay_NX9z8y7x6w5v4u";
+
+    private RazorpaySignatureVerifier verifier;
+    private String signature;
+
+    @Setup
+    public void setUp() throws Exception {
+        verifier = new RazorpaySignatureVerifier(SECRET, 64);
+        signature = legacyExpectedSignature(ORDER_ID, PAYMENT_ID);
+        if (!verifier.verify(ORDER_ID, PAYMENT_ID, signature)) throw new IllegalStateException("verifier disagrees");
+    }
+
+    @Benchmark
+    public boolean verifier() {
+        return verifier.verify(ORDER_ID, PAYMENT_ID, signature);
+    }
+
+    @Benchmark
+    public boolean legacy() throws Exception {
+        return legacyExpectedSignature(ORDER_ID, PAYMENT_ID).equals(signature);
+    }
+
+    // the code previously inlined in BookingController.verifyPayment
+    private static String legacyExpectedSignature(String orderId, String paymentId) throws Exception {
+        String data = orderId + "|" + paymentId;
+        Mac sha256_HMAC = Mac.getInstance("HmacSHA256");
+        SecretKeySpec secret_key = new SecretKeySpec(SECRET.getBytes(), "HmacSHA256");
+        sha256_HMAC.init(secret_key);
+        byte[] hash = sha256_HMAC.doFinal(data.getBytes());
+        StringBuilder sb = new StringBuilder();
+        for (byte b : hash) sb.append(String.format("%02x", b & 0xff));
+        return sb.toString();
+    }
+}
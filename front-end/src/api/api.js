@@ -4,4 +4,13 @@ const api = axios.create({
   baseURL: 'http://localhost:7373',
 })
 
+// send the login token (X-Auth-Token from /api/users/login) with every request
+api.interceptors.request.use((config) => {
+  try {
+    const token = JSON.parse(localStorage.getItem('user'))?.token
+    if (token) config.headers['X-Auth-Token'] = token
+  } catch (e) { /* no stored user */ }
+  return config
+})
+
 export default api
@@ -0,0 +1,51 @@
+import api from './api'
+
+// Opens /api/bookings/stream and calls onBooking with every changed booking row (same shape as
+// the rows of GET /api/bookings). EventSource cannot send headers, so each connection first gets a
+// single-use ticket from POST /api/bookings/stream/ticket (sent with the login token header) and
+// passes only that in the URL. A dropped stream is reopened with a fresh ticket, since the browser's
+// own retry would reuse the spent one. Returns a function that closes the stream.
+export function subscribeBookings(token, as, onBooking) {
+  if (!token || typeof EventSource === 'undefined') return () => {}
+  let source = null
+  let retry = null
+  let closed = false
+
+  const open = async () => {
+    let ticket
+    try {
+      ticket = (await api.post('/api/bookings/stream/ticket')).data.ticket
+    } catch (err) {
+      if (!closed) retry = setTimeout(open, 5000)
+      return
+    }
+    if (closed) return
+    const params = new URLSearchParams({ ticket, as })
+    source = new EventSource(`${api.defaults.baseURL}/api/bookings/stream?${params}`)
+    source.addEventListener('booking', (e) => {
+      try {
+        onBooking(JSON.parse(e.data))
+      } catch (err) { /* ignore a malformed event */ }
+    })
+    source.onerror = () => {
+      source.close()
+      if (!closed) retry = setTimeout(open, 3000)
+    }
+  }
+  open()
+
+  return () => {
+    closed = true
+    clearTimeout(retry)
+    if (source) source.close()
+  }
+}
+
+// replaces the booking with the same id, or appends a new one (lists are ordered by id)
+export function mergeBooking(bookings, booking) {
+  const i = bookings.findIndex((b) => b.id === booking.id)
+  if (i < 0) return [...bookings, booking]
+  const next = bookings.slice()
+  next[i] = booking
+  return next
+}
@@ -0,0 +1,14 @@
+import api from './api'
+
+// GET /api/bookings page by page, following X-Next-Cursor until the last page, so a user or
+// provider with many bookings still gets all of them (including the newest, which come last)
+export async function getBookings(params = {}) {
+  const bookings = []
+  let afterId
+  do {
+    const res = await api.get('/api/bookings', { params: { ...params, afterId, limit: 500 } })
+    bookings.push(...(Array.isArray(res.data) ? res.data : (res.data?.value || [])))
+    afterId = res.headers['x-next-cursor']
+  } while (afterId)
+  return bookings
+}
@@ -0,0 +1,9 @@
+import api from './api'
+
+// GET /api/services in its compact view, where each provider is sent once, expanded back to the
+// { ...service, provider } shape the pages render (provider has id, name, pincode, district)
+export async function getServices(params = {}) {
+  const res = await api.get('/api/services', { params: { ...params, view: 'compact' } })
+  const { services = [], providers = {} } = res.data || {}
+  return services.map((s) => ({ ...s, provider: s.providerId == null ? null : providers[s.providerId] }))
+}
@@ -19,7 +19,10 @@ export default function BookingForm({ service, onBooked }){
       toast.success('Booking created')
       onBooked && onBooked(res.data)
     }catch(err){
-      toast.error('Booking failed')
+      // 409: the provider already has a booking at that time; suggest the next free slot
+      const next = err.response?.data?.nextFreeSlots?.[0]
+      if(err.response?.status === 409 && next){ toast.error(`Provider is busy then. Next free slot: ${new Date(next.start).toLocaleString()}`); return }
+      toast.error(err.response?.data?.error || 'Booking failed')
     }
   }
 
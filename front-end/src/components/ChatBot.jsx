@@ -24,16 +24,40 @@ const ChatBot = () => {
     setInput('')
     setLoading(true)
 
-    try {
-      const res = await axios.post('http://localhost:7373/api/chat', { message: input })
-      const reply = { id: messages.length + 2, text: res.data.reply, sender: 'bot', time: new Date() }
-      setMessages(prev => [...prev, reply])
-    } catch (err) {
-      const error = { id: messages.length + 2, text: 'Error: ' + err.message, sender: 'bot', time: new Date() }
-      setMessages(prev => [...prev, error])
-    } finally {
+    // stream the reply token by token; fall back to the plain endpoint if streaming fails before any text
+    const botId = messages.length + 2
+    const prompt = input
+    let text = ''
+    const show = (t) => setMessages(prev => prev.some(m => m.id === botId)
+      ? prev.map(m => m.id === botId ? { ...m, text: t } : m)
+      : [...prev, { id: botId, text: t, sender: 'bot', time: new Date() }])
+
+    const source = new EventSource('http://localhost:7373/api/chat/stream?message=' + encodeURIComponent(prompt))
+    source.addEventListener('chunk', (e) => {
+      text += JSON.parse(e.data).text
+      show(text)
+      setLoading(false)
+    })
+    source.addEventListener('done', () => {
+      source.close()
+      setLoading(false)
+    })
+    source.addEventListener('error', async (e) => {
+      source.close()
+      // a server-sent "error" event carries a reply; a connection error does not
+      if (e.data) {
+        show(JSON.parse(e.data).reply)
+      } else if (!text) {
+        try {
+          const res = await axios.post('http://localhost:7373/api/chat', { message: prompt })
+          show(res.data.reply)
+        } catch (err) {
+          // the server answers 429 with a friendly reply when the assistant is rate limited
+          show(err.response?.data?.reply ?? 'Error: ' + err.message)
+        }
+      }
       setLoading(false)
-    }
+    })
   }
 
   return (
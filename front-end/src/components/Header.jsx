@@ -2,6 +2,7 @@ import { Link, useNavigate } from 'react-router-dom'
 import { useAuth } from '../context/AuthContext'
 import { useState, useEffect } from 'react'
 import api from '../api/api'
+import { getServices } from '../api/services'
 
 export default function Header() {
   const navigate = useNavigate()
@@ -11,13 +12,15 @@ export default function Header() {
   const [showMenu, setShowMenu] = useState(false)
 
   const handleLogout = () => {
+    // revoke the token server side; the local session is cleared either way
+    api.post('/api/users/logout').catch(() => {})
     logout()
     navigate('/')
   }
 
   useEffect(() => {
-    api.get('/api/services')
-      .then(r => setServices(Array.isArray(r.data) ? r.data : (r.data.value || [])))
+    getServices()
+      .then(setServices)
       .catch(() => {})
   }, [])
 
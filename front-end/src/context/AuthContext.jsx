@@ -12,7 +12,10 @@ export function AuthProvider({ children }){
     else localStorage.removeItem('user')
   }, [user])
 
-  const login = (userObj) => setUser(userObj)
+  // profile updates return the user without the login token, so carry it over
+  const login = (userObj) => setUser(prev => userObj
+    ? { ...userObj, token: userObj.token ?? (prev?.id === userObj.id ? prev?.token : undefined) }
+    : null)
   const logout = () => setUser(null)
   // normalize backend DTO fields (phoneNo -> phone) for frontend convenience
   const normalizeAndLogin = (userObj) => {
@@ -22,7 +25,7 @@ export function AuthProvider({ children }){
       phone: userObj.phone ?? userObj.phoneNo ?? userObj.phoneNo ?? null,
       pincode: userObj.pincode ?? userObj.pincode,
     }
-    setUser(normalized)
+    login(normalized)
   }
 
   const isAdmin = () => user?.role === 'ADMIN'
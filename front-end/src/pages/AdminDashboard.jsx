@@ -9,6 +9,8 @@ const AdminDashboard = () => {
   const [pendingProviders, setPendingProviders] = useState([]);
   const [allUsers, setAllUsers] = useState([]);
   const [bookings, setBookings] = useState([]);
+  // id to pass as afterId for the next page of bookings (null when there are no more)
+  const [bookingsCursor, setBookingsCursor] = useState(null);
   const [activeTab, setActiveTab] = useState('pending');
 
   useEffect(() => {
@@ -29,6 +31,17 @@ const AdminDashboard = () => {
       setPendingProviders(pendingRes.data);
       setAllUsers(usersRes.data);
       setBookings(bookingsRes.data);
+      setBookingsCursor(bookingsRes.headers['x-next-cursor'] || null);
+    } catch (error) {
+    }
+  };
+
+  const loadMoreBookings = async () => {
+    if (!bookingsCursor) return;
+    try {
+      const res = await api.get('/api/admin/bookings', { params: { afterId: bookingsCursor } });
+      setBookings(bs => [...bs, ...res.data]);
+      setBookingsCursor(res.headers['x-next-cursor'] || null);
     } catch (error) {
     }
   };
@@ -41,6 +54,16 @@ const AdminDashboard = () => {
     }
   };
 
+  // one bulk request for every pending provider shown
+  const handleVerifyAll = async () => {
+    if (pendingProviders.length === 0) return;
+    try {
+      await api.post('/api/admin/providers/verify', { ids: pendingProviders.map(p => p.id) });
+      loadData();
+    } catch (error) {
+    }
+  };
+
   const handleUpdateStatus = async (userId, status) => {
     try {
       await api.post(`/api/admin/users/${userId}/status`, { status });
@@ -79,7 +102,17 @@ const AdminDashboard = () => {
 
         {activeTab === 'pending' && (
           <div>
-            <h2 className="text-xl font-semibold mb-4">Pending Providers</h2>
+            <div className="flex items-center justify-between mb-4">
+              <h2 className="text-xl font-semibold">Pending Providers</h2>
+              {pendingProviders.length > 0 && (
+                <button
+                  onClick={handleVerifyAll}
+                  className="bg-green-600 text-white px-4 py-2 rounded"
+                >
+                  Verify All ({pendingProviders.length})
+                </button>
+              )}
+            </div>
             <div className="grid gap-4">
               {pendingProviders.map(provider => (
                 <div key={provider.id} className="border p-4 rounded">
@@ -151,6 +184,11 @@ const AdminDashboard = () => {
                 </tbody>
               </table>
             </div>
+            {bookingsCursor && (
+              <button className="mt-4 px-4 py-2 rounded bg-gray-200" onClick={loadMoreBookings}>
+                Load more
+              </button>
+            )}
           </div>
         )}
 
@@ -181,6 +219,11 @@ const AdminDashboard = () => {
                 </tbody>
               </table>
             </div>
+            {bookingsCursor && (
+              <button className="mt-4 px-4 py-2 rounded bg-gray-200" onClick={loadMoreBookings}>
+                Load more
+              </button>
+            )}
           </div>
         )}
         </div>
@@ -1,6 +1,6 @@
 import { Link } from 'react-router-dom'
 import { useState, useEffect } from 'react'
-import api from '../api/api'
+import { getServices } from '../api/services'
 import background from '../assets/images/bag.webp'
 import bookImg from '../assets/images/books.jpg'
 import scheduleImg from '../assets/images/banner.png'
@@ -14,9 +14,8 @@ export default function Home() {
   const [services, setServices] = useState([])
 
   useEffect(() => {
-    api.get('/api/services')
-      .then(r => {
-        const items = Array.isArray(r.data) ? r.data : (r.data.value || [])
+    getServices()
+      .then(items => {
         setServices(items.slice(0, 3))
       }).catch(e => {
         setServices([])
@@ -16,7 +16,7 @@ export default function Login() {
     try {
       const res = await api.post('/api/users/login', { email, password })
       toast.success('Logged in successfully!')
-      normalizeAndLogin(res.data)
+      normalizeAndLogin({ ...res.data, token: res.headers['x-auth-token'] })
 
       const role = (res.data.role || '').toUpperCase()
       if (role === 'ADMIN') {
@@ -1,5 +1,7 @@
 import { useEffect, useState } from "react";
 import api from "../api/api";
+import { getBookings } from "../api/bookings";
+import { subscribeBookings, mergeBooking } from "../api/bookingStream";
 import { useAuth } from "../context/AuthContext";
 import {
   ClipboardList,
@@ -24,11 +26,8 @@ export default function ProviderDashboard() {
   useEffect(() => {
     // only load bookings for providers whose account is active
     if (user && user.role === 'PROVIDER' && user.status === 'active') {
-      api
-        .get("/api/bookings", { params: { providerId: user.id } })
-        .then((r) =>
-          setBookings(Array.isArray(r.data) ? r.data : r.data.value || [])
-        )
+      getBookings({ providerId: user.id })
+        .then(setBookings)
         .catch(() => setBookings([]));
     } else {
       // clear bookings if not active or no user
@@ -36,6 +35,14 @@ export default function ProviderDashboard() {
     }
   }, [user]);
 
+  // new bookings and changes made by customers (payments, notes) are pushed by the server
+  useEffect(() => {
+    if (!(user && user.role === 'PROVIDER' && user.status === 'active')) return;
+    return subscribeBookings(user.token, "provider", (booking) =>
+      setBookings((bs) => mergeBooking(bs, booking))
+    );
+  }, [user]);
+
   const handleUpdate = async (b, payload, successMessage) => {
     try {
       const res = await api.patch(`/api/bookings/${b.id}`, payload);
@@ -43,6 +50,11 @@ export default function ProviderDashboard() {
       toast.success(successMessage);
       setNotes((n) => ({ ...n, [b.id]: "" }));
     } catch (err) {
+      // 409: the status change is not allowed from the booking's current status
+      if (err.response?.status === 409 || err.response?.status === 400) {
+        toast.error(err.response.data?.error || "Update failed");
+        return;
+      }
       try {
         const params = new URLSearchParams(payload);
         const res = await api.post(
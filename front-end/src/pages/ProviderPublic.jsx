@@ -2,6 +2,7 @@ import { useEffect, useState } from 'react'
 import { useParams, Link } from 'react-router-dom'
 import { useAuth } from '../context/AuthContext'
 import api from '../api/api'
+import { getServices } from '../api/services'
 import { toast } from 'react-toastify'
 import BookingForm from '../components/BookingForm'
 
@@ -19,7 +20,7 @@ export default function ProviderPublic() {
   useEffect(() => {
     if (!id) return
     api.get(`/api/users/${id}`).then(r => setProvider(r.data)).catch(() => setProvider(null))
-    api.get('/api/services', { params: { providerId: id } }).then(r => setServices(Array.isArray(r.data) ? r.data : [])).catch(() => setServices([]))
+    getServices({ providerId: id }).then(setServices).catch(() => setServices([]))
     api.get(`/api/providers/${id}/rating`).then(r => setRating(r.data)).catch(() => setRating({ average: 0, count: 0 }))
     api.get(`/api/providers/${id}/reviews`).then(r => setReviews(Array.isArray(r.data) ? r.data : [])).catch(() => setReviews([]))
   }, [id])
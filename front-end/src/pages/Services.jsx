@@ -1,7 +1,7 @@
 // Services.jsx
 import { useEffect, useState } from 'react'
 import { Link } from 'react-router-dom'
-import api from '../api/api'
+import { getServices } from '../api/services'
 import BookingForm from '../components/BookingForm'
 
 export default function Services() {
@@ -15,13 +15,10 @@ export default function Services() {
     setLoading(true)
     setError(null)
     try {
-      const res = await api.get('/api/services', {
-        params: {
-          q: q || undefined,
-          pincode: pincode || undefined
-        }
+      const items = await getServices({
+        q: q || undefined,
+        pincode: pincode || undefined
       })
-      const items = Array.isArray(res.data) ? res.data : (res.data.value || [])
       setServices(items)
     } catch (err) {
       setError(err.message || 'Failed to load services')
@@ -57,7 +54,7 @@ export default function Services() {
           className="border p-2 rounded w-40"
         />
         <button
-          onClick={() => { setLoading(true); api.get('/api/services', { params: { q: q || undefined, pincode: pincode || undefined } }).then(r=>setServices(Array.isArray(r.data)?r.data:(r.data.value||[]))).catch(()=>setServices([])).finally(()=>setLoading(false)) }}
+          onClick={() => { setLoading(true); getServices({ q: q || undefined, pincode: pincode || undefined }).then(setServices).catch(()=>setServices([])).finally(()=>setLoading(false)) }}
           className="bg-blue-600 text-white px-3 py-2 rounded"
         >
           Search
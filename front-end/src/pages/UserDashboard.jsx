@@ -1,5 +1,7 @@
 import { useEffect, useState } from 'react'
 import api from '../api/api'
+import { getBookings } from '../api/bookings'
+import { subscribeBookings, mergeBooking } from '../api/bookingStream'
 import { useAuth } from '../context/AuthContext'
 import { CalendarDays, MapPin, ClipboardList, User, FileText } from 'lucide-react'
 
@@ -9,14 +11,18 @@ export default function UserDashboard() {
 
   useEffect(() => {
     if (!user) return
-    api.get('/api/bookings', { params: { userId: user.id } })
-      .then(r => {
-        setBookings(Array.isArray(r.data) ? r.data : (r.data.value || []))
-      })
+    getBookings({ userId: user.id })
+      .then(setBookings)
       .catch(e => {
       })
   }, [user])
 
+  // status and note changes are pushed by the server instead of re-fetching the list
+  useEffect(() => {
+    if (!user) return
+    return subscribeBookings(user.token, 'user', booking => setBookings(bs => mergeBooking(bs, booking)))
+  }, [user])
+
   const loadRazorpayScript = () => {
     return new Promise((resolve, reject) => {
       if (window.Razorpay) return resolve(true)
@@ -52,8 +58,7 @@ export default function UserDashboard() {
               razorpay_signature: response.razorpay_signature
             })
             alert('Payment successful')
-            const updated = await api.get('/api/bookings', { params: { userId: user.id } })
-            setBookings(Array.isArray(updated.data) ? updated.data : (updated.data.value || []))
+            if (verifyRes.data?.booking) setBookings(bs => mergeBooking(bs, verifyRes.data.booking))
           } catch (e) {
             alert('Payment verification failed')
           }